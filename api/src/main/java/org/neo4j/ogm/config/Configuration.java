@@ -66,6 +66,14 @@ public class Configuration {
     private Integer connectionLivenessCheckTimeout;
     private Boolean verifyConnection;
     private Boolean useNativeTypes;
+    private Boolean usePrimitiveRegisters;
+    private Integer mappingContextMaxSize;
+    private String entityCacheSpec;
+    private Integer maxRowsPerStatement;
+    private Boolean useSingleRoundTripSave;
+    private Boolean skipCleanSubgraphs;
+    private Boolean writeBehind;
+    private Boolean orderSaveRows;
     private Map<String, Object> customProperties;
     /**
      * Base packages to scan for annotated components. They will be merged into a unique list
@@ -95,6 +103,14 @@ public class Configuration {
         this.neo4jConfLocation = builder.neo4jConfLocation;
         this.customProperties = builder.customProperties;
         this.useNativeTypes = builder.useNativeTypes;
+        this.usePrimitiveRegisters = builder.usePrimitiveRegisters;
+        this.mappingContextMaxSize = builder.mappingContextMaxSize;
+        this.entityCacheSpec = builder.entityCacheSpec;
+        this.maxRowsPerStatement = builder.maxRowsPerStatement;
+        this.useSingleRoundTripSave = builder.useSingleRoundTripSave;
+        this.skipCleanSubgraphs = builder.skipCleanSubgraphs;
+        this.writeBehind = builder.writeBehind;
+        this.orderSaveRows = builder.orderSaveRows;
         this.basePackages = builder.basePackages;
 
         if (this.uri != null) {
@@ -211,6 +227,38 @@ public class Configuration {
         return useNativeTypes;
     }
 
+    public Boolean getUsePrimitiveRegisters() {
+        return usePrimitiveRegisters;
+    }
+
+    public Integer getMappingContextMaxSize() {
+        return mappingContextMaxSize;
+    }
+
+    public String getEntityCacheSpec() {
+        return entityCacheSpec;
+    }
+
+    public Integer getMaxRowsPerStatement() {
+        return maxRowsPerStatement;
+    }
+
+    public Boolean getUseSingleRoundTripSave() {
+        return useSingleRoundTripSave;
+    }
+
+    public Boolean getSkipCleanSubgraphs() {
+        return skipCleanSubgraphs;
+    }
+
+    public Boolean getWriteBehind() {
+        return writeBehind;
+    }
+
+    public Boolean getOrderSaveRows() {
+        return orderSaveRows;
+    }
+
     public String[] getBasePackages() {
         return basePackages;
     }
@@ -249,6 +297,14 @@ public class Configuration {
             Objects.equals(connectionLivenessCheckTimeout, that.connectionLivenessCheckTimeout) &&
             Objects.equals(verifyConnection, that.verifyConnection) &&
             Objects.equals(useNativeTypes, that.useNativeTypes) &&
+            Objects.equals(usePrimitiveRegisters, that.usePrimitiveRegisters) &&
+            Objects.equals(mappingContextMaxSize, that.mappingContextMaxSize) &&
+            Objects.equals(entityCacheSpec, that.entityCacheSpec) &&
+            Objects.equals(maxRowsPerStatement, that.maxRowsPerStatement) &&
+            Objects.equals(useSingleRoundTripSave, that.useSingleRoundTripSave) &&
+            Objects.equals(skipCleanSubgraphs, that.skipCleanSubgraphs) &&
+            Objects.equals(writeBehind, that.writeBehind) &&
+            Objects.equals(orderSaveRows, that.orderSaveRows) &&
             Arrays.equals(basePackages, that.basePackages);
     }
 
@@ -256,7 +312,9 @@ public class Configuration {
     public int hashCode() {
         int result = Objects.hash(uri, connectionPoolSize, encryptionLevel, trustStrategy, trustCertFile, autoIndex,
             generatedIndexesOutputDir, generatedIndexesOutputFilename, neo4jConfLocation, driverName, credentials,
-            connectionLivenessCheckTimeout, verifyConnection, useNativeTypes);
+            connectionLivenessCheckTimeout, verifyConnection, useNativeTypes, usePrimitiveRegisters,
+            mappingContextMaxSize, entityCacheSpec, maxRowsPerStatement, useSingleRoundTripSave, skipCleanSubgraphs,
+            writeBehind, orderSaveRows);
         result = 31 * result + Arrays.hashCode(uris);
         result = 31 * result + Arrays.hashCode(basePackages);
         return result;
@@ -302,6 +360,14 @@ public class Configuration {
         private static final String NEO4J_CONF_LOCATION = "neo4j.conf.location";
         private static final String USE_NATIVE_TYPES = "use-native-types";
         private static final String BASE_PACKAGES = "base-packages";
+        private static final String USE_PRIMITIVE_REGISTERS = "use-primitive-registers";
+        private static final String MAPPING_CONTEXT_MAX_SIZE = "mapping-context.max.size";
+        private static final String ENTITY_CACHE_SPEC = "entity-cache.spec";
+        private static final String MAX_ROWS_PER_STATEMENT = "statement.max.rows";
+        private static final String USE_SINGLE_ROUND_TRIP_SAVE = "use-single-round-trip-save";
+        private static final String SKIP_CLEAN_SUBGRAPHS = "skip-clean-subgraphs";
+        private static final String WRITE_BEHIND = "write-behind";
+        private static final String ORDER_SAVE_ROWS = "order-save-rows";
 
         private String uri;
         private String[] uris;
@@ -318,6 +384,14 @@ public class Configuration {
         private String username;
         private String password;
         private boolean useNativeTypes;
+        private boolean usePrimitiveRegisters;
+        private Integer mappingContextMaxSize;
+        private String entityCacheSpec;
+        private Integer maxRowsPerStatement;
+        private boolean useSingleRoundTripSave;
+        private boolean skipCleanSubgraphs;
+        private boolean writeBehind;
+        private boolean orderSaveRows;
         private Map<String, Object> customProperties = new HashMap<>();
         private String[] basePackages;
 
@@ -384,6 +458,30 @@ public class Configuration {
                     case BASE_PACKAGES:
                         this.basePackages = splitValue(entry.getValue());
                         break;
+                    case USE_PRIMITIVE_REGISTERS:
+                        this.usePrimitiveRegisters = Boolean.valueOf((String) entry.getValue());
+                        break;
+                    case MAPPING_CONTEXT_MAX_SIZE:
+                        this.mappingContextMaxSize = Integer.valueOf((String) entry.getValue());
+                        break;
+                    case ENTITY_CACHE_SPEC:
+                        this.entityCacheSpec = (String) entry.getValue();
+                        break;
+                    case MAX_ROWS_PER_STATEMENT:
+                        this.maxRowsPerStatement = Integer.valueOf((String) entry.getValue());
+                        break;
+                    case USE_SINGLE_ROUND_TRIP_SAVE:
+                        this.useSingleRoundTripSave = Boolean.valueOf((String) entry.getValue());
+                        break;
+                    case SKIP_CLEAN_SUBGRAPHS:
+                        this.skipCleanSubgraphs = Boolean.valueOf((String) entry.getValue());
+                        break;
+                    case WRITE_BEHIND:
+                        this.writeBehind = Boolean.valueOf((String) entry.getValue());
+                        break;
+                    case ORDER_SAVE_ROWS:
+                        this.orderSaveRows = Boolean.valueOf((String) entry.getValue());
+                        break;
                     default:
                         LOGGER.warn("Could not process property with key: {}", entry.getKey());
                 }
@@ -543,6 +641,137 @@ public class Configuration {
             return this;
         }
 
+        /**
+         * Makes sessions store their registers of entities, hashes and snapshots keyed by native id in open addressing
+         * maps with primitive {@code long} keys instead of {@link java.util.HashMap}s. This avoids boxing the keys and
+         * the per-entry overhead of the hash map, which adds up for sessions holding many entities.
+         *
+         * @since 3.2
+         * @return tbe changed builder
+         */
+        public Builder usePrimitiveRegisters() {
+            this.usePrimitiveRegisters = true;
+            return this;
+        }
+
+        /**
+         * Bounds the number of node entities kept in the mapping context of a session. Once the bound is exceeded after
+         * an operation on the session, the least recently used node entities that haven't been modified are evicted
+         * together with their relationship entities. Modified entities are never evicted.
+         * <br>
+         * Evicted instances are no longer tracked by the session: Saving them writes all their properties and loading
+         * them again creates new instances. This is meant for long-running sessions streaming many entities, which
+         * otherwise have to be cleared by hand.
+         *
+         * @param mappingContextMaxSize maximum number of node entities, values less than or equal to zero mean unbounded
+         * @since 3.2
+         * @return tbe changed builder
+         */
+        public Builder mappingContextMaxSize(Integer mappingContextMaxSize) {
+            this.mappingContextMaxSize = mappingContextMaxSize;
+            return this;
+        }
+
+        /**
+         * Enables a cache of loaded graph data shared by all sessions of a session factory. Loading a single entity or
+         * entities by their ids is answered from this cache when possible instead of querying the database. Entries
+         * are invalidated when a session of the same session factory commits a save or delete touching them.
+         * <br>
+         * The specification configures eviction and uses the format of Caffeine's {@code CaffeineSpec}, for example
+         * {@code maximumSize=10000,expireAfterWrite=10m}. Caffeine must be on the class path.
+         *
+         * @param entityCacheSpec specification of the cache, {@literal null} disables the cache
+         * @since 3.2
+         * @return tbe changed builder
+         */
+        public Builder entityCacheSpec(String entityCacheSpec) {
+            this.entityCacheSpec = entityCacheSpec;
+            return this;
+        }
+
+        /**
+         * Limits the number of rows a single statement writes when saving. Nodes and relationships are written with
+         * one {@code UNWIND} statement per group of entities sharing the same labels or type. Groups having more rows
+         * than the limit are split into several statements using the same Cypher, so that huge saves don't build
+         * and send a single giant parameter list.
+         *
+         * @param maxRowsPerStatement maximum number of rows per statement, values less than or equal to zero mean unbounded
+         * @since 3.2
+         * @return tbe changed builder
+         */
+        public Builder maxRowsPerStatement(Integer maxRowsPerStatement) {
+            this.maxRowsPerStatement = maxRowsPerStatement;
+            return this;
+        }
+
+        /**
+         * Saves new nodes together with the relationships connecting them in a single request. By default, new nodes
+         * are created first, so that the relationships depending on them can be created with the returned ids in a
+         * second request. With this turned on, one statement creates both and refers to the new nodes by their
+         * position in the statement instead.
+         * <br>
+         * This has no effect when the number of rows per statement is limited through
+         * {@link #maxRowsPerStatement(Integer)}, as the combined statement cannot be split.
+         *
+         * @since 3.2
+         * @return tbe changed builder
+         */
+        public Builder useSingleRoundTripSave() {
+            this.useSingleRoundTripSave = true;
+            return this;
+        }
+
+        /**
+         * Stops mapping the graph of a save at existing entities that still refer to the same related entities as when
+         * they have been loaded or saved. Such an entity itself is still updated if necessary. The graph behind it is
+         * only checked for entities that have changed themselves, which are mapped without the unchanged relationships
+         * around them, so that the statements of a save scale with the size of the change instead of the graph.
+         * <br>
+         * Entities that can't be reached from the saved entities are saved along with every save of the session until
+         * they have been saved once, if a relationship collection of the entity has grown, shrunk or had its elements
+         * replaced, if the entity tracks its changes through {@code DirtyTracking} or if it has been marked through
+         * {@code Session#markDirty(Object)}.
+         *
+         * @since 3.2
+         * @return tbe changed builder
+         */
+        public Builder skipCleanSubgraphs() {
+            this.skipCleanSubgraphs = true;
+            return this;
+        }
+
+        /**
+         * Holds back the saves issued within a transaction until the transaction is committed or the session is
+         * flushed through {@code Session#flush()}. All entities held back are then saved together, so that saving
+         * many entities one after the other costs a single round trip instead of one per save.
+         * <br>
+         * Loading, querying or deleting within the transaction flushes the session first, so that they see the
+         * entities saved before. Saves outside of a transaction are never held back.
+         *
+         * @since 3.2
+         * @return tbe changed builder
+         */
+        public Builder writeBehind() {
+            this.writeBehind = true;
+            return this;
+        }
+
+        /**
+         * Orders the rows of every save statement by the native ids of the nodes they lock, relationships by the
+         * smaller and then the larger id of their nodes, and runs the statements of a kind ordered by label or
+         * relationship type. Concurrent sessions saving overlapping graphs then take their locks in the same order,
+         * which avoids most of the deadlocks they would otherwise run into.
+         * <br>
+         * Ordering costs sorting the rows of each save, so it is only worth it under concurrent writes.
+         *
+         * @since 3.2
+         * @return tbe changed builder
+         */
+        public Builder orderSaveRows() {
+            this.orderSaveRows = true;
+            return this;
+        }
+
         /**
          * Creates a new builder with a list of base packages to scan.
          *
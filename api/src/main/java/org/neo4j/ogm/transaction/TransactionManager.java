@@ -62,6 +62,16 @@ public interface TransactionManager {
      */
     void commit(Transaction transaction);
 
+    /**
+     * Prepares the specified transaction to be committed. Invoked by the transaction right before it is committed in
+     * the database, so that changes held back until the commit can still be written within the transaction.
+     * Nothing needs to be prepared for a transaction that only extends another one.
+     *
+     * @param transaction the transaction about to be committed
+     */
+    default void beforeCommit(Transaction transaction) {
+    }
+
     /**
      * Returns the current transaction for this thread, or null if none exists
      *
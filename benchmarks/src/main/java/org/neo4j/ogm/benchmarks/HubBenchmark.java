@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.ogm.benchmarks.domain.Folder;
+import org.neo4j.ogm.context.EntityGraphMapper;
+import org.neo4j.ogm.context.MappedRelationship;
+import org.neo4j.ogm.context.MappingContext;
+import org.neo4j.ogm.cypher.compiler.Compiler;
+import org.neo4j.ogm.cypher.compiler.CypherContext;
+import org.neo4j.ogm.cypher.compiler.MultiStatementCypherCompiler;
+import org.neo4j.ogm.metadata.MetaData;
+import org.neo4j.ogm.request.Statement;
+import org.neo4j.ogm.session.request.RowStatementFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Saves a hub of a growing number of children, of which every tenth has been removed. Deregistering the relationship
+ * of a child only visits the relationships of that child, so the time taken should grow linearly with the number of
+ * children, not quadratically.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class HubBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int children;
+
+    private MetaData metaData;
+    private MappingContext mappingContext;
+    private Folder hub;
+
+    @Setup(Level.Trial)
+    public void scanDomain() {
+        metaData = new MetaData(Folder.class.getPackage().getName());
+    }
+
+    @Setup(Level.Iteration)
+    public void loadHub() {
+        mappingContext = new MappingContext(metaData);
+        hub = new Folder(0);
+        mappingContext.addNodeEntity(hub);
+        for (long id = 1; id <= children; id++) {
+            Folder child = new Folder(id);
+            hub.getChildren().add(child);
+            mappingContext.addNodeEntity(child);
+            mappingContext.addRelationship(new MappedRelationship(0L, "CONTAINS", id, Folder.class, Folder.class));
+        }
+        hub.getChildren().removeIf(child -> child.getId() % 10 == 0);
+    }
+
+    @Benchmark
+    public List<Statement> compileSaveOfHub() {
+        Compiler compiler = new EntityGraphMapper(metaData, mappingContext).map(hub, 1).getCompiler();
+        compiler.useStatementFactory(new RowStatementFactory());
+        return compiler.deleteRelationshipStatements();
+    }
+
+    /**
+     * Deregisters the relationships of all children one by one, the way the mapper does while traversing them.
+     */
+    @Benchmark
+    public int deregisterChildren() {
+        CypherContext context = new CypherContext(new MultiStatementCypherCompiler());
+        for (long id = 1; id <= children; id++) {
+            context.registerRelationship(new MappedRelationship(0L, "CONTAINS", id, Folder.class, Folder.class));
+        }
+        for (long id = 1; id <= children; id++) {
+            context.deregisterIncomingRelationships(id, "CONTAINS", Folder.class, false);
+        }
+        return context.getDeletedRelationships().size();
+    }
+}
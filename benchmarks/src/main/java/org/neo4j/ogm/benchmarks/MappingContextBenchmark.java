@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.ogm.benchmarks.domain.Person;
+import org.neo4j.ogm.context.MappedRelationship;
+import org.neo4j.ogm.context.MappingContext;
+import org.neo4j.ogm.metadata.MetaData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Deletes a fixed number of entities from mapping contexts holding a growing number of relationships. Every entity has
+ * a degree of two, so the time taken should stay the same across the number of relationships, as looking up the
+ * neighbours of an entity and purging its relationships is proportional to its degree.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MappingContextBenchmark {
+
+    @Param({ "10000", "100000", "500000" })
+    public int relationships;
+
+    @Param({ "1000" })
+    public int deletions;
+
+    private MetaData metaData;
+    private MappingContext mappingContext;
+    private Person[] deleted;
+
+    @Setup(Level.Trial)
+    public void scanDomain() {
+        metaData = new MetaData(Person.class.getPackage().getName());
+    }
+
+    @Setup(Level.Iteration)
+    public void fillMappingContext() {
+        // a chain of persons, connected by the given number of relationships
+        mappingContext = new MappingContext(metaData);
+        Person[] persons = new Person[relationships + 1];
+        for (int i = 0; i <= relationships; i++) {
+            persons[i] = new Person(i);
+            mappingContext.addNodeEntity(persons[i]);
+            if (i > 0) {
+                mappingContext.addRelationship(new MappedRelationship(i - 1, "KNOWS", i, Person.class, Person.class));
+            }
+        }
+
+        deleted = new Person[deletions];
+        int step = relationships / deletions;
+        for (int i = 0; i < deletions; i++) {
+            deleted[i] = persons[(i + 1) * step - 1];
+        }
+    }
+
+    @Benchmark
+    public int deleteEntities() {
+        int neighbours = 0;
+        for (Person person : deleted) {
+            // the session looks up the neighbours of a deleted entity before purging it from the context
+            neighbours += mappingContext.neighbours(person).size();
+            mappingContext.detachNodeEntity(person.getId());
+        }
+        return neighbours;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.context;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the lookup throughput of the primitive registers with the {@link java.util.HashMap} based ones. Lives in
+ * the package of the registers, as they are package private. Their footprint is compared in LongKeyedHashMapTest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class RegisterBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({ "true", "false" })
+    public boolean usePrimitiveRegisters;
+
+    @Param({ "10000", "1000000" })
+    public int entries;
+
+    private Map<Long, Object> register;
+    private Long[] presentKeys;
+    private Long[] absentKeys;
+
+    @Setup
+    public void fillRegister() {
+        register = MappingContext.newRegister(usePrimitiveRegisters);
+        for (long key = 0; key < entries; key++) {
+            register.put(key, "entity" + key);
+        }
+
+        // the keys are boxed upfront, as the registers are accessed through boxed keys
+        Random random = new Random(4711);
+        presentKeys = new Long[LOOKUPS];
+        absentKeys = new Long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            presentKeys[i] = (long) random.nextInt(entries);
+            absentKeys[i] = (long) entries + random.nextInt(entries);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void getPresent(Blackhole blackhole) {
+        for (Long key : presentKeys) {
+            blackhole.consume(register.get(key));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void getAbsent(Blackhole blackhole) {
+        for (Long key : absentKeys) {
+            blackhole.consume(register.get(key));
+        }
+    }
+}
@@ -69,6 +69,7 @@ public class BoltTransaction extends AbstractTransaction {
 
     @Override
     public void commit() {
+        transactionManager.beforeCommit(this);
         final boolean canCommit = transactionManager.canCommit();
         try {
             if (canCommit) {
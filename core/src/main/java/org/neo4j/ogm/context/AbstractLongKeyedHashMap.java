@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.context;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Base class for open addressing hash maps keyed by primitive {@code long} values. Keys are stored in a {@code long[]},
+ * so that registers keyed by native ids don't need to box their keys and don't carry an entry object per mapping.
+ * Collisions are resolved through linear probing, removed slots are marked as deleted and reclaimed on the next rehash.
+ * <br>
+ * The maps implement the {@link Map} interface to be usable as a drop-in replacement for the {@link java.util.HashMap}
+ * based registers. They don't support {@literal null} keys, are not thread safe and their iterators are not fail-fast.
+ *
+ * @param <V> Type of the values
+ */
+abstract class AbstractLongKeyedHashMap<V> extends AbstractMap<Long, V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final byte FREE = 0;
+    private static final byte FULL = 1;
+    private static final byte DELETED = 2;
+
+    private long[] keys;
+    private byte[] states;
+
+    private int size;
+    private int usedSlots;
+    private int resizeThreshold;
+
+    AbstractLongKeyedHashMap() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Allocates the storage of the values for the given capacity.
+     *
+     * @param capacity The number of slots
+     */
+    abstract void allocateValues(int capacity);
+
+    abstract V valueAt(int slot);
+
+    abstract void storeValue(int slot, V value);
+
+    /**
+     * Clears the value at the given slot, so that it can be garbage collected.
+     *
+     * @param slot The slot to clear
+     */
+    abstract void releaseValue(int slot);
+
+    /**
+     * Called during a rehash. Implementations must remember their current values until the rehash is finished.
+     *
+     * @return An opaque handle to the current values
+     */
+    abstract Object detachValues();
+
+    abstract V valueAt(Object detachedValues, int slot);
+
+    public V get(long key) {
+        int slot = findSlot(key);
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+    public boolean containsKey(long key) {
+        return findSlot(key) >= 0;
+    }
+
+    @Override
+    public V put(Long boxedKey, V value) {
+        long key = boxedKey.longValue();
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            V previous = valueAt(slot);
+            storeValue(slot, value);
+            return previous;
+        }
+
+        if (usedSlots + 1 > resizeThreshold) {
+            // Only grow when the map is really filled, otherwise just get rid of the deleted slots.
+            rehash(size + 1 > keys.length / 2 ? keys.length * 2 : keys.length);
+        }
+
+        slot = insertionSlot(key);
+        if (states[slot] == FREE) {
+            usedSlots++;
+        }
+        keys[slot] = key;
+        states[slot] = FULL;
+        storeValue(slot, value);
+        size++;
+        return null;
+    }
+
+    public V remove(long key) {
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = valueAt(slot);
+        removeAt(slot);
+        return previous;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Long ? get(((Long) key).longValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Long && containsKey(((Long) key).longValue());
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Long ? remove(((Long) key).longValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public Set<Entry<Long, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.states = new byte[capacity];
+        this.size = 0;
+        this.usedSlots = 0;
+        this.resizeThreshold = capacity / 4 * 3;
+        allocateValues(capacity);
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = this.keys;
+        byte[] oldStates = this.states;
+        Object oldValues = detachValues();
+
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStates[i] == FULL) {
+                int slot = insertionSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                states[slot] = FULL;
+                storeValue(slot, valueAt(oldValues, i));
+                size++;
+                usedSlots++;
+            }
+        }
+    }
+
+    private void removeAt(int slot) {
+        states[slot] = DELETED;
+        releaseValue(slot);
+        size--;
+    }
+
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (states[slot] != FREE) {
+            if (states[slot] == FULL && keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Only to be called for keys that are not in the map.
+     */
+    private int insertionSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (states[slot] == FULL) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private class EntrySet extends AbstractSet<Entry<Long, V>> {
+
+        @Override
+        public Iterator<Entry<Long, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            AbstractLongKeyedHashMap.this.clear();
+        }
+    }
+
+    private class EntryIterator implements Iterator<Entry<Long, V>> {
+
+        // Removing an entry only marks its slot as deleted and never moves other entries, so removing
+        // entries through the iterator is safe. Inserting while iterating is not supported, as an insert
+        // may reuse a deleted slot or rehash the table.
+        private final long[] iteratedKeys = keys;
+        private int next = advance(0);
+        private int current = -1;
+
+        private int advance(int from) {
+            int slot = from;
+            while (slot < iteratedKeys.length && states[slot] != FULL) {
+                slot++;
+            }
+            return slot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < iteratedKeys.length;
+        }
+
+        @Override
+        public Entry<Long, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            next = advance(next + 1);
+            return new SlotEntry(current);
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0 || states[current] != FULL) {
+                throw new IllegalStateException();
+            }
+            removeAt(current);
+        }
+    }
+
+    private class SlotEntry implements Entry<Long, V> {
+
+        private final int slot;
+        private final long key;
+
+        SlotEntry(int slot) {
+            this.slot = slot;
+            this.key = keys[slot];
+        }
+
+        @Override
+        public Long getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return valueAt(slot);
+        }
+
+        @Override
+        public V setValue(V value) {
+            V previous = valueAt(slot);
+            storeValue(slot, value);
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> that = (Entry<?, ?>) o;
+            return getKey().equals(that.getKey()) && Objects.equals(getValue(), that.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(key) ^ Objects.hashCode(getValue());
+        }
+    }
+}
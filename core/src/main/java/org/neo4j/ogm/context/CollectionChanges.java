@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.context;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The changes recorded by a {@link TrackedCollection}, along with the entity owning the collection.
+ */
+final class CollectionChanges {
+
+    private final Object owner;
+
+    // notified with the owner whenever the collection changes, may be null
+    private final Consumer<Object> changeListener;
+
+    private final Set<Object> changedElements = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private boolean tracking;
+
+    private CollectionChanges(Object owner, Consumer<Object> changeListener, boolean tracking) {
+        this.owner = owner;
+        this.changeListener = changeListener;
+        this.tracking = tracking;
+    }
+
+    /**
+     * Wraps the hydrated values of a relationship field into a tracked collection, if they are held by an
+     * {@link ArrayList} or a {@link HashSet}. The changes of the previous value of the field are carried over, if it has
+     * been a tracked collection of the same entity. Otherwise the previous values that have not been loaded again are
+     * recorded as changed, as they might not have been saved yet.
+     *
+     * @param owner          the entity whose field holds the values
+     * @param values         the merged values to be written to the field
+     * @param loadedValues   the values that have just been loaded
+     * @param previousValues the previous value of the field, may be null
+     * @param changeListener notified with the owner whenever the collection changes or stops tracking its changes,
+     *                       may be null
+     * @return the values to write to the field
+     */
+    static Object track(Object owner, Object values, Collection<?> loadedValues, Object previousValues,
+        Consumer<Object> changeListener) {
+
+        CollectionChanges changes;
+        if (previousValues instanceof TrackedCollection && ((TrackedCollection<?>) previousValues).isOwnedBy(owner)) {
+            TrackedCollection<?> previousCollection = (TrackedCollection<?>) previousValues;
+            changes = new CollectionChanges(owner, changeListener, previousCollection.isTrackingChanges());
+            changes.changedElements.addAll(previousCollection.getChangedElements());
+        } else {
+            changes = new CollectionChanges(owner, changeListener, true);
+            if (previousValues instanceof Collection && !((Collection<?>) previousValues).isEmpty()) {
+                Set<Object> loaded = Collections.newSetFromMap(new IdentityHashMap<>());
+                loaded.addAll(loadedValues);
+                for (Object previousValue : (Collection<?>) previousValues) {
+                    if (!loaded.contains(previousValue)) {
+                        changes.changed(previousValue);
+                    }
+                }
+            }
+        }
+
+        if (values.getClass() == ArrayList.class) {
+            return new TrackedList<>((Collection<?>) values, changes);
+        }
+        if (values.getClass() == HashSet.class) {
+            return new TrackedSet<>((Collection<?>) values, changes);
+        }
+        return values;
+    }
+
+    boolean isOwnedBy(Object entity) {
+        return owner == entity;
+    }
+
+    boolean isTracking() {
+        return tracking;
+    }
+
+    Set<Object> getChangedElements() {
+        return Collections.unmodifiableSet(changedElements);
+    }
+
+    void changed(Object element) {
+        notifyListener();
+        if (tracking) {
+            changedElements.add(element);
+        }
+    }
+
+    void changedAll(Iterable<?> elements) {
+        for (Object element : elements) {
+            changed(element);
+        }
+    }
+
+    void saved() {
+        changedElements.clear();
+        tracking = true;
+    }
+
+    void stopTracking() {
+        notifyListener();
+        changedElements.clear();
+        tracking = false;
+    }
+
+    private void notifyListener() {
+        if (changeListener != null) {
+            changeListener.accept(owner);
+        }
+    }
+}
@@ -18,11 +18,20 @@
  */
 package org.neo4j.ogm.context;
 
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import org.neo4j.ogm.annotation.Relationship;
@@ -59,6 +68,42 @@ public class EntityGraphMapper implements EntityMapper {
     private final MetaData metaData;
     private final MappingContext mappingContext;
     private final Compiler compiler = new MultiStatementCypherCompiler();
+
+    /**
+     * Mapping steps still to be done for the current traversal. The object graph is traversed depth-first by taking
+     * the steps from this stack instead of recursing, so that the length of a path in the graph is not limited by
+     * the size of the call stack.
+     */
+    private final Deque<Runnable> pendingMappings = new ArrayDeque<>();
+
+    /**
+     * Entities whose references have been mapped, so that their references can be remembered once they are saved.
+     * Only collected if the mapping context tracks references.
+     */
+    private final List<Object> entitiesWithMappedReferences = new ArrayList<>();
+
+    /**
+     * Entities found changed behind unchanged entities, whose graph is not mapped. They are mapped after the current
+     * root as if they had been saved themselves. Only collected if the mapping context tracks references.
+     */
+    private final Deque<EntityAtHorizon> changedBehindUnchanged = new ArrayDeque<>();
+
+    /**
+     * Entities already checked for changes behind unchanged entities.
+     */
+    private final Set<Object> checkedBehindUnchanged = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Tracked collections whose relationships have been mapped, so that they can be told once they are saved.
+     */
+    private final List<TrackedCollection<?>> mappedTrackedCollections = new ArrayList<>();
+
+    /**
+     * Told about every new or changed entity right before its node is built.
+     */
+    private Consumer<Object> changedEntityListener = entity -> {
+    };
+
     /**
      * Default supplier for write protection: Always write all the stuff.
      */
@@ -74,6 +119,7 @@ public class EntityGraphMapper implements EntityMapper {
     public EntityGraphMapper(MetaData metaData, MappingContext mappingContext) {
         this.metaData = metaData;
         this.mappingContext = mappingContext;
+        this.compiler.useStatementTemplates(metaData.getStatementTemplates());
     }
 
     public void addWriteProtection(
@@ -82,6 +128,17 @@ public class EntityGraphMapper implements EntityMapper {
         this.optionalWriteProtectionSupplier = Optional.ofNullable(writeProtectionSupplier);
     }
 
+    /**
+     * Registers a listener that is told about every new or changed entity right before its node is built, so that the
+     * listener may still change it, including its primary id and labels. Entities that only have relationships created or deleted are not
+     * reported, they can be found in the {@link #compileContext()} once everything is mapped.
+     *
+     * @param listener the listener to be told about new or changed entities
+     */
+    public void onChangedEntity(Consumer<Object> listener) {
+        this.changedEntityListener = listener;
+    }
+
     @Override
     public CompileContext map(Object entity) {
         return map(entity, -1);
@@ -94,15 +151,22 @@ public class EntityGraphMapper implements EntityMapper {
             throw new NullPointerException("Cannot map null object");
         }
 
-        // add all the relationships we know about. This includes the relationships that
-        // won't be modified by the mapping request.
-        for (MappedRelationship mappedRelationship : mappingContext.getRelationships()) {
-            LOGGER.debug("context-init: (${})-[:{}]->(${})", mappedRelationship.getStartNodeId(),
-                mappedRelationship.getRelationshipType(), mappedRelationship.getEndNodeId());
-            compiler.context().registerRelationship(mappedRelationship);
+        // make the relationships we know about available to the context. They are registered lazily, per node,
+        // the first time the traversal touches a node, so that unrelated relationships aren't copied on every save.
+        compiler.context().setKnownRelationships(mappingContext::getRelationshipsOf);
+
+        mapRoot(entity, horizon);
+        while (!changedBehindUnchanged.isEmpty()) {
+            EntityAtHorizon changed = changedBehindUnchanged.pop();
+            mapRoot(changed.entity, changed.horizon);
         }
 
-        LOGGER.debug("context initialised with {} relationships", mappingContext.getRelationships().size());
+        deleteObsoleteRelationships();
+
+        return compiler.context();
+    }
+
+    private void mapRoot(Object entity, int horizon) {
 
         // if the object is a RelationshipEntity, persist it by persisting both the start node and the end node
         // and then ensure the relationship between the two is created or updated as necessary
@@ -150,10 +214,6 @@ public class EntityGraphMapper implements EntityMapper {
         } else { // not an RE, simply map the entity
             mapEntity(entity, horizon);
         }
-
-        deleteObsoleteRelationships();
-
-        return compiler.context();
     }
 
     @Override
@@ -161,6 +221,28 @@ public class EntityGraphMapper implements EntityMapper {
         return compiler.context();
     }
 
+    /**
+     * Remembers the references of all entities whose references have been mapped by this mapper, after the compiled
+     * statements have been executed. See {@link MappingContext#rememberReferences(Object)}.
+     */
+    public void rememberMappedReferences() {
+        for (Object entity : entitiesWithMappedReferences) {
+            mappingContext.rememberReferences(entity);
+        }
+        entitiesWithMappedReferences.clear();
+    }
+
+    /**
+     * Tells the tracked relationship collections mapped by this mapper that their changes have been saved, after the
+     * compiled statements have been executed. The next save only looks at the changes made from then on.
+     */
+    public void rememberMappedCollections() {
+        for (TrackedCollection<?> trackedCollection : mappedTrackedCollections) {
+            trackedCollection.changesSaved();
+        }
+        mappedTrackedCollections.clear();
+    }
+
     /**
      * Detects object references (including from lists) that have been deleted in the domain.
      * These must be persisted as explicit requests to delete the corresponding relationship in the graph
@@ -168,9 +250,13 @@ public class EntityGraphMapper implements EntityMapper {
     private void deleteObsoleteRelationships() {
         CompileContext context = compiler.context();
 
-        Iterator<MappedRelationship> mappedRelationshipIterator = mappingContext.getRelationships().iterator();
-        while (mappedRelationshipIterator.hasNext()) {
-            MappedRelationship mappedRelationship = mappedRelationshipIterator.next();
+        // only relationships of nodes touched by the traversal may have been deregistered
+        Set<MappedRelationship> candidates = new LinkedHashSet<>();
+        for (Long nodeId : context.getNodesWithKnownRelationships()) {
+            candidates.addAll(mappingContext.getRelationshipsOf(nodeId));
+        }
+
+        for (MappedRelationship mappedRelationship : candidates) {
 
             // if we cannot remove this relationship from the compile context, it
             // means the user has deleted the relationship
@@ -185,6 +271,10 @@ public class EntityGraphMapper implements EntityMapper {
                     mappedRelationship.getEndNodeId(),
                     mappedRelationship.getRelationshipId());
 
+                // the ends are affected by the deletion, but will be removed from the mapping context
+                registerEndOfDeletedRelationship(mappedRelationship.getStartNodeId());
+                registerEndOfDeletedRelationship(mappedRelationship.getEndNodeId());
+
                 Object entity = mappingContext.getRelationshipEntity(mappedRelationship.getRelationshipId());
                 if (entity != null) {
                     ClassInfo classInfo = metaData.classInfo(entity);
@@ -200,30 +290,65 @@ public class EntityGraphMapper implements EntityMapper {
                 clearRelatedObjects(mappedRelationship.getEndNodeId());
 
                 // finally remove the relationship from the mapping context
-                //mappingContext.removeRelationship(mappedRelationship);
-                mappedRelationshipIterator.remove();
+                mappingContext.removeRelationship(mappedRelationship);
             }
         }
     }
 
+    private void registerEndOfDeletedRelationship(Long node) {
+        Object entity = mappingContext.getNodeEntity(node);
+        if (entity != null) {
+            compiler.context().registerEndOfDeletedRelationship(entity);
+        } else {
+            LOGGER.debug("end node ${} of deleted relationship is not in the mapping context", node);
+        }
+    }
+
+    /**
+     * Maps the properties of all entities that have been visited as unchanged nodes, but have been changed since, for
+     * example by someone told about other entities of the save.
+     */
+    public void remapChangedProperties() {
+        // copied, as mapping the changes registers further objects with the context
+        for (Object entity : new ArrayList<>(compiler.context().getVisitedObjects())) {
+            remapChangedProperties(entity);
+        }
+    }
+
+    /**
+     * Maps the properties of an entity that has been visited as an unchanged node, but has been changed since, for
+     * example by someone told about new relationships of the entity. Does nothing if the entity has not been visited,
+     * has already been mapped as changed or is still unchanged.
+     *
+     * @param entity the entity to map again
+     */
+    public void remapChangedProperties(Object entity) {
+        CompileContext context = compiler.context();
+        if (context.visitedNode(entity) == null || context.registry().contains(entity)
+            || !mappingContext.isDirty(entity) || isWriteProtected(WriteProtectionTarget.PROPERTIES, entity)) {
+            return;
+        }
+        // the builder of the unchanged node has been unmapped, so a new one is needed for the update
+        NodeBuilder nodeBuilder = existingNodeBuilder(entity, mappingContext.nativeId(entity));
+        updateNode(entity, context, nodeBuilder);
+    }
+
     private void clearRelatedObjects(Long node) {
 
-        for (MappedRelationship mappedRelationship : mappingContext.getRelationships()) {
-            if (mappedRelationship.getStartNodeId() == node || mappedRelationship.getEndNodeId() == node) {
+        for (MappedRelationship mappedRelationship : mappingContext.getRelationshipsOf(node)) {
 
-                Object dirty = mappingContext.getNodeEntity(mappedRelationship.getEndNodeId());
-                if (dirty != null) {
-                    LOGGER.debug("flushing end node of: (${})-[:{}]->(${})", mappedRelationship.getStartNodeId(),
-                        mappedRelationship.getRelationshipType(), mappedRelationship.getEndNodeId());
-                    mappingContext.removeNodeEntity(dirty, true);
-                }
+            Object dirty = mappingContext.getNodeEntity(mappedRelationship.getEndNodeId());
+            if (dirty != null) {
+                LOGGER.debug("flushing end node of: (${})-[:{}]->(${})", mappedRelationship.getStartNodeId(),
+                    mappedRelationship.getRelationshipType(), mappedRelationship.getEndNodeId());
+                mappingContext.removeNodeEntity(dirty, true);
+            }
 
-                dirty = mappingContext.getNodeEntity(mappedRelationship.getStartNodeId());
-                if (dirty != null) {
-                    LOGGER.debug("flushing start node of: (${})-[:{}]->(${})", mappedRelationship.getStartNodeId(),
-                        mappedRelationship.getRelationshipType(), mappedRelationship.getEndNodeId());
-                    mappingContext.removeNodeEntity(dirty, true);
-                }
+            dirty = mappingContext.getNodeEntity(mappedRelationship.getStartNodeId());
+            if (dirty != null) {
+                LOGGER.debug("flushing start node of: (${})-[:{}]->(${})", mappedRelationship.getStartNodeId(),
+                    mappedRelationship.getRelationshipType(), mappedRelationship.getEndNodeId());
+                mappingContext.removeNodeEntity(dirty, true);
             }
         }
     }
@@ -236,37 +361,139 @@ public class EntityGraphMapper implements EntityMapper {
      */
     private NodeBuilder mapEntity(Object entity, int horizon) {
 
+        mapEntity(entity, horizon, nodeBuilder -> {
+        });
+        while (!pendingMappings.isEmpty()) {
+            pendingMappings.pop().run();
+        }
+        return compiler.context().visitedNode(entity);
+    }
+
+    /**
+     * Visits the specified object and schedules the mapping of its composite objects. The given callback is invoked
+     * with the object's {@link NodeBuilder} once all the composite objects have been mapped, or right away if the
+     * object has already been visited or is transient, in which case the builder is null.
+     *
+     * @param entity     The object to persist into the graph database as a node
+     * @param horizon    the depth in the tree
+     * @param whenMapped the callback for the "root" node of the object graph
+     */
+    private void mapEntity(Object entity, int horizon, Consumer<NodeBuilder> whenMapped) {
+
         CompileContext context = compiler.context();
         // if this object is transient it won't have a classinfo, and isn't persistable
         ClassInfo classInfo = metaData.classInfo(entity);
         if (classInfo == null) {
-            return null;
+            whenMapped.accept(null);
+            return;
         }
 
         if (context.visited(entity, horizon)) {
             LOGGER.debug("already visited: {}", entity);
-            return context.visitedNode(entity);
+            whenMapped.accept(context.visitedNode(entity));
+            return;
         }
 
         // Check if there's an existing node builder
         // Seems to be different than the "visited" method above...
-        NodeBuilder nodeBuilder = context.visitedNode(entity);
-        if (nodeBuilder == null) {
+        NodeBuilder existingNodeBuilder = context.visitedNode(entity);
+        if (existingNodeBuilder == null) {
+            boolean writeProtected = isWriteProtected(WriteProtectionTarget.PROPERTIES, entity);
+            // fire pre-save event here, before the id and labels of the entity are read
+            if (!writeProtected && isNewOrChanged(entity, classInfo)) {
+                changedEntityListener.accept(entity);
+            }
             // newNodeBuilder still seems to have side effects, so better not skip it
-            nodeBuilder = newNodeBuilder(entity, horizon);
-            if (!isWriteProtected(WriteProtectionTarget.PROPERTIES, entity)) {
-                updateNode(entity, context, nodeBuilder);
+            existingNodeBuilder = newNodeBuilder(entity, horizon);
+            if (!writeProtected) {
+                updateNode(entity, context, existingNodeBuilder);
             }
         }
 
-        if (nodeBuilder != null) {
-            if (horizon != 0) {
-                mapEntityReferences(entity, nodeBuilder, horizon - 1);
-            } else {
-                LOGGER.debug("at horizon: {} ", entity);
+        NodeBuilder nodeBuilder = existingNodeBuilder;
+        pendingMappings.push(() -> whenMapped.accept(nodeBuilder));
+        if (horizon == 0) {
+            LOGGER.debug("at horizon: {} ", entity);
+        } else if (mappingContext.hasUnchangedReferences(entity)) {
+            // only the entities behind an unchanged entity that have changed themselves need to be saved
+            LOGGER.debug("references unchanged: {} ", entity);
+            findChangedEntitiesBehind(entity, horizon);
+        } else {
+            if (mappingContext.tracksReferences()) {
+                entitiesWithMappedReferences.add(entity);
             }
+            mapEntityReferences(entity, nodeBuilder, horizon - 1);
         }
-        return nodeBuilder;
+    }
+
+    /**
+     * Walks the graph behind an entity whose references haven't changed and collects the entities that have changed
+     * all the same, for example through a setter or by referring to other entities, so that they are mapped even
+     * though the graph isn't. The walk stops
+     * at changed entities and at entities that have been visited, as their own mapping takes care of what is behind
+     * them.
+     *
+     * @param unchanged the entity with unchanged references
+     * @param horizon   the depth in the tree at the unchanged entity
+     */
+    private void findChangedEntitiesBehind(Object unchanged, int horizon) {
+
+        CompileContext context = compiler.context();
+        Deque<EntityAtHorizon> unchangedEntities = new ArrayDeque<>();
+        unchangedEntities.push(new EntityAtHorizon(unchanged, horizon));
+
+        while (!unchangedEntities.isEmpty()) {
+            EntityAtHorizon current = unchangedEntities.pop();
+            if (current.horizon == 0) {
+                continue;
+            }
+            int next = current.horizon - 1;
+            for (FieldInfo reader : metaData.classInfo(current.entity).relationshipFields()) {
+                for (Object related : referencedObjects(reader.read(current.entity))) {
+                    if (related != null && isRelationshipEntity(related)) {
+                        if (checkedBehindUnchanged.add(related) && mappingContext.isDirty(related)) {
+                            changedBehindUnchanged.add(new EntityAtHorizon(related, next));
+                        }
+                        ClassInfo reInfo = metaData.classInfo(related);
+                        Object startNode = reInfo.getStartNodeReader().read(related);
+                        related = startNode == current.entity ? reInfo.getEndNodeReader().read(related) : startNode;
+                    }
+                    if (related == null || metaData.classInfo(related) == null
+                        || context.visitedNode(related) != null || !checkedBehindUnchanged.add(related)) {
+                        continue;
+                    }
+                    if (mappingContext.isDirty(related) || !mappingContext.hasUnchangedReferences(related)) {
+                        changedBehindUnchanged.add(new EntityAtHorizon(related, next));
+                    } else {
+                        unchangedEntities.push(new EntityAtHorizon(related, next));
+                    }
+                }
+            }
+        }
+    }
+
+    private static Iterable<?> referencedObjects(Object value) {
+        if (value instanceof Iterable) {
+            return (Iterable<?>) value;
+        } else if (value != null && value.getClass().isArray()) {
+            List<Object> elements = new ArrayList<>();
+            for (int i = 0, len = Array.getLength(value); i < len; i++) {
+                elements.add(Array.get(value, i));
+            }
+            return elements;
+        }
+        return Collections.singletonList(value);
+    }
+
+    /**
+     * Checks whether an entity is new or has changed without requiring its primary id, which a listener told about the
+     * entity might still assign.
+     */
+    private boolean isNewOrChanged(Object entity, ClassInfo classInfo) {
+        if (!classInfo.hasIdentityField() && classInfo.readPrimaryIndexValueOf(entity) == null) {
+            return true;
+        }
+        return mappingContext.isDirty(entity);
     }
 
     private boolean isWriteProtected(WriteProtectionTarget mode, Object target) {
@@ -283,7 +510,6 @@ public class EntityGraphMapper implements EntityMapper {
      * @param nodeBuilder a {@link NodeBuilder} that knows how to compile node create/update cypher phrases
      */
     private void updateNode(Object entity, CompileContext context, NodeBuilder nodeBuilder) {
-        // fire pre-save event here
         if (mappingContext.isDirty(entity)) {
             LOGGER.debug("{} has changed", entity);
             context.register(entity);
@@ -324,14 +550,7 @@ public class EntityGraphMapper implements EntityMapper {
             nodeBuilder = compiler.newNode(id).addLabels(labels).setPrimaryIndex(primaryIndex);
             context.registerNewObject(id, entity);
         } else {
-            nodeBuilder = compiler.existingNode(id);
-            nodeBuilder.addLabels(labels).setPrimaryIndex(primaryIndex);
-
-            this.mappingContext.getSnapshotOf(entity).ifPresent(snapshot ->
-                nodeBuilder
-                    .setPreviousDynamicLabels(snapshot.getDynamicLabels())
-                    .setPreviousCompositeProperties(snapshot.getDynamicCompositeProperties())
-            );
+            nodeBuilder = existingNodeBuilder(entity, id);
         }
 
         LOGGER.debug("visiting: {}", entity);
@@ -340,9 +559,24 @@ public class EntityGraphMapper implements EntityMapper {
         return nodeBuilder;
     }
 
+    private NodeBuilder existingNodeBuilder(Object entity, Long id) {
+        ClassInfo classInfo = metaData.classInfo(entity);
+        String primaryIndex = classInfo.primaryIndexField() != null ? classInfo.primaryIndexField().property() : null;
+
+        NodeBuilder nodeBuilder = compiler.existingNode(id);
+        nodeBuilder.addLabels(EntityUtils.labels(entity, metaData)).setPrimaryIndex(primaryIndex);
+
+        this.mappingContext.getSnapshotOf(entity).ifPresent(snapshot ->
+            nodeBuilder
+                .setPreviousDynamicLabels(snapshot.getDynamicLabels())
+                .setPreviousCompositeProperties(snapshot.getDynamicCompositeProperties())
+        );
+        return nodeBuilder;
+    }
+
     /**
-     * Finds all the objects that can be mapped via relationships from the object 'entity' and
-     * links them in the graph.
+     * Finds all the objects that can be mapped via relationships from the object 'entity' and schedules
+     * linking them in the graph, one relationship field after the other.
      * This includes objects that are directly linked, as well as objects linked via a relationship entity
      *
      * @param entity      the node whose relationships will be updated
@@ -356,73 +590,159 @@ public class EntityGraphMapper implements EntityMapper {
         ClassInfo srcInfo = metaData.classInfo(entity);
         Long srcIdentity = mappingContext.nativeId(entity);
 
-        for (FieldInfo reader : srcInfo.relationshipFields()) {
+        List<FieldInfo> readers = new ArrayList<>(srcInfo.relationshipFields());
+        for (int i = readers.size() - 1; i >= 0; i--) {
+            FieldInfo reader = readers.get(i);
+            pendingMappings.push(() -> mapEntityReference(entity, srcInfo, srcIdentity, reader, nodeBuilder, horizon));
+        }
+    }
 
-            String relationshipType = reader.relationshipType();
-            String relationshipDirection = reader.relationshipDirection();
-            Class startNodeType = srcInfo.getUnderlyingClass();
-            Class endNodeType = DescriptorMappings.getType(reader.typeDescriptor());
+    /**
+     * Schedules linking the objects referenced by a single relationship field of the object 'entity'.
+     *
+     * @param entity      the node whose relationships will be updated
+     * @param srcInfo     the {@link ClassInfo} of the node
+     * @param srcIdentity the id of the node
+     * @param reader      the relationship field
+     * @param nodeBuilder a {@link NodeBuilder} that knows how to create node create/update cypher phrases
+     * @param horizon     the depth in the tree. If this reaches 0, we stop mapping any deeper
+     */
+    private void mapEntityReference(Object entity, ClassInfo srcInfo, Long srcIdentity, FieldInfo reader,
+        NodeBuilder nodeBuilder, int horizon) {
 
-            DirectedRelationship directedRelationship = new DirectedRelationship(relationshipType,
-                relationshipDirection);
+        String relationshipType = reader.relationshipType();
+        String relationshipDirection = reader.relationshipDirection();
+        Class startNodeType = srcInfo.getUnderlyingClass();
+        Class endNodeType = DescriptorMappings.getType(reader.typeDescriptor());
 
-            CompileContext context = compiler.context();
+        DirectedRelationship directedRelationship = new DirectedRelationship(relationshipType,
+            relationshipDirection);
 
-            if (srcIdentity >= 0) {
-                boolean cleared = clearContextRelationships(context, srcIdentity, endNodeType, directedRelationship);
-                if (!cleared) {
-                    LOGGER.debug("this relationship is already being managed: {}-{}-{}-()", entity, relationshipType,
-                        relationshipDirection);
-                    continue;
+        CompileContext context = compiler.context();
+
+        Object relatedObject = reader.read(entity);
+        TrackedCollection<?> trackedCollection = relatedObject instanceof TrackedCollection
+            && ((TrackedCollection<?>) relatedObject).isOwnedBy(entity) ? (TrackedCollection<?>) relatedObject : null;
+
+        // of a tracked collection of nodes, only the changed elements need to be compared with the known relationships
+        Set<Object> changedElements = null;
+        if (trackedCollection != null && trackedCollection.isTrackingChanges()
+            && !metaData.isRelationshipEntity(endNodeType.getName())) {
+            changedElements = trackedCollection.getChangedElements();
+        }
+
+        if (srcIdentity >= 0 && changedElements == null) {
+            boolean cleared = clearContextRelationships(context, srcIdentity, endNodeType, directedRelationship);
+            if (!cleared) {
+                LOGGER.debug("this relationship is already being managed: {}-{}-{}-()", entity, relationshipType,
+                    relationshipDirection);
+                if (trackedCollection != null) {
+                    // the relationships held by the collection are not saved, so it's out of sync with the graph
+                    trackedCollection.stopTrackingChanges();
                 }
+                return;
             }
+        }
+        if (trackedCollection != null) {
+            mappedTrackedCollections.add(trackedCollection);
+        }
 
-            Object relatedObject = reader.read(entity);
-            if (relatedObject != null) {
-
-                // if the type of a relationship backed by a relationship entity is not the same as its declared type
-                // in the parent object, and the reader on the parent object is abstract, we need to check
-                // the directedRelationship object, or the incorrect edge type may be persisted.
-
-                if (isRelationshipEntity(relatedObject)) {
-                    ClassInfo declaredObjectInfo = metaData.classInfo(relationshipType);
-                    if (declaredObjectInfo.isAbstract()) {
-                        final ClassInfo relatedObjectClassInfo = metaData.classInfo(relatedObject);
-                        if (!relatedObjectClassInfo.neo4jName().equals(directedRelationship.type())) {
-                            directedRelationship = new DirectedRelationship(relatedObjectClassInfo.neo4jName(),
-                                directedRelationship.direction());
-                            relationshipType = directedRelationship.type();
-                        }
+        if (relatedObject != null) {
+
+            // if the type of a relationship backed by a relationship entity is not the same as its declared type
+            // in the parent object, and the reader on the parent object is abstract, we need to check
+            // the directedRelationship object, or the incorrect edge type may be persisted.
+
+            if (isRelationshipEntity(relatedObject)) {
+                ClassInfo declaredObjectInfo = metaData.classInfo(relationshipType);
+                if (declaredObjectInfo.isAbstract()) {
+                    final ClassInfo relatedObjectClassInfo = metaData.classInfo(relatedObject);
+                    if (!relatedObjectClassInfo.neo4jName().equals(directedRelationship.type())) {
+                        directedRelationship = new DirectedRelationship(relatedObjectClassInfo.neo4jName(),
+                            directedRelationship.direction());
+                        relationshipType = directedRelationship.type();
                     }
                 }
+            }
 
-                LOGGER.debug("mapping reference type: {}", relationshipType);
+            LOGGER.debug("mapping reference type: {}", relationshipType);
 
-                RelationshipNodes relNodes = new RelationshipNodes(entity, relatedObject, startNodeType, endNodeType);
+            List<Object> tgtObjects = new ArrayList<>();
+            if (relatedObject instanceof Iterable) {
+                for (Object tgtObject : (Iterable<?>) relatedObject) {
+                    tgtObjects.add(tgtObject);
+                }
+            } else if (relatedObject.getClass().isArray()) {
+                for (Object tgtObject : (Object[]) relatedObject) {
+                    tgtObjects.add(tgtObject);
+                }
+            } else {
+                tgtObjects.add(relatedObject);
+            }
+            if (changedElements != null) {
+                deregisterRemovedElements(context, srcIdentity, directedRelationship, startNodeType, endNodeType,
+                    changedElements, tgtObjects);
+            }
+            if (tgtObjects.isEmpty()) {
+                return;
+            }
+
+            boolean mapBothWays = bothWayMappingRequired(entity, relationshipType, tgtObjects.get(0),
+                relationshipDirection);
+            DirectedRelationship linkedRelationship = directedRelationship;
+            for (int i = tgtObjects.size() - 1; i >= 0; i--) {
+                RelationshipNodes relNodes = new RelationshipNodes(entity, tgtObjects.get(i), startNodeType,
+                    endNodeType);
                 relNodes.sourceId = srcIdentity;
-                Boolean mapBothWays = null;
-                if (relatedObject instanceof Iterable) {
-                    for (Object tgtObject : (Iterable<?>) relatedObject) {
-                        if (mapBothWays == null) {
-                            mapBothWays = bothWayMappingRequired(entity, relationshipType, tgtObject,
-                                relationshipDirection);
-                        }
-                        relNodes.target = tgtObject;
-                        link(directedRelationship, nodeBuilder, horizon, mapBothWays, relNodes);
-                    }
-                } else if (relatedObject.getClass().isArray()) {
-                    for (Object tgtObject : (Object[]) relatedObject) {
-                        if (mapBothWays == null) {
-                            mapBothWays = bothWayMappingRequired(entity, relationshipType, tgtObject,
-                                relationshipDirection);
-                        }
-                        relNodes.target = tgtObject;
-                        link(directedRelationship, nodeBuilder, horizon, mapBothWays, relNodes);
-                    }
-                } else {
-                    mapBothWays = bothWayMappingRequired(entity, relationshipType, relatedObject,
-                        relationshipDirection);
-                    link(directedRelationship, nodeBuilder, horizon, mapBothWays, relNodes);
+                relNodes.unchanged = changedElements != null && !changedElements.contains(tgtObjects.get(i));
+                pendingMappings.push(() -> link(linkedRelationship, nodeBuilder, horizon, mapBothWays, relNodes));
+            }
+        }
+    }
+
+    /**
+     * Marks the relationships to the elements removed from a tracked collection as deleted. These are the changed
+     * elements that aren't part of the collection anymore and that are related to the owner of the collection in the
+     * graph.
+     *
+     * @param context              the {@link CompileContext} for the current compiler instance
+     * @param srcIdentity          the id of the node owning the collection
+     * @param directedRelationship {@link DirectedRelationship} representing the relationships of the collection
+     * @param startNodeType        the class of the node owning the collection
+     * @param endNodeType          the class of the elements of the collection
+     * @param changedElements      the elements added to or removed from the collection
+     * @param elements             the current elements of the collection
+     */
+    private void deregisterRemovedElements(CompileContext context, Long srcIdentity,
+        DirectedRelationship directedRelationship, Class startNodeType, Class endNodeType,
+        Set<Object> changedElements, List<Object> elements) {
+
+        Set<Object> removedElements = Collections.newSetFromMap(new IdentityHashMap<>());
+        removedElements.addAll(changedElements);
+        elements.forEach(removedElements::remove);
+
+        String type = directedRelationship.type();
+        String direction = directedRelationship.direction();
+        for (Object removedElement : removedElements) {
+            if (removedElement == null || metaData.classInfo(removedElement) == null) {
+                continue;
+            }
+            Long tgtIdentity = mappingContext.nativeId(removedElement);
+            if (tgtIdentity < 0) {
+                continue;
+            }
+            List<MappedRelationship> candidates = new ArrayList<>(2);
+            if (!direction.equals(Relationship.INCOMING)) {
+                candidates.add(new MappedRelationship(srcIdentity, type, tgtIdentity, startNodeType, endNodeType));
+            }
+            if (!direction.equals(Relationship.OUTGOING)) {
+                candidates.add(new MappedRelationship(tgtIdentity, type, srcIdentity, startNodeType, endNodeType));
+            }
+            for (MappedRelationship candidate : candidates) {
+                if (mappingContext.containsRelationship(candidate)) {
+                    LOGGER.debug("context-del: {}", candidate);
+                    // the removed element is the node with fewer relationships
+                    context.deregisterRelationship(candidate, tgtIdentity);
                 }
             }
         }
@@ -574,19 +894,17 @@ public class EntityGraphMapper implements EntityMapper {
         Long tgtIdentity = mappingContext.nativeId(targetEntity);
         Long srcIdentity = mappingContext.nativeId(startEntity);
 
-        boolean relationshipEndsChanged = false;
+        if (relId == null) {
+            return false;
+        }
 
-        for (MappedRelationship mappedRelationship : mappingContext.getRelationships()) {
-            if (mappedRelationship.getRelationshipId() != null && relId != null && mappedRelationship
-                .getRelationshipId().equals(relId)) {
-                if (srcIdentity == null || tgtIdentity == null || mappedRelationship.getStartNodeId() != srcIdentity
-                    || mappedRelationship.getEndNodeId() != tgtIdentity) {
-                    relationshipEndsChanged = true;
-                    break;
-                }
+        for (MappedRelationship mappedRelationship : mappingContext.getRelationshipsWithId(relId)) {
+            if (srcIdentity == null || tgtIdentity == null || mappedRelationship.getStartNodeId() != srcIdentity
+                || mappedRelationship.getEndNodeId() != tgtIdentity) {
+                return true;
             }
         }
-        return relationshipEndsChanged;
+        return false;
     }
 
     /**
@@ -612,6 +930,12 @@ public class EntityGraphMapper implements EntityMapper {
         Object startEntity = getStartEntity(relEntityClassInfo, relationshipEntity);
         Object targetEntity = getTargetEntity(relEntityClassInfo, relationshipEntity);
 
+        // the relationship entity might have been re-pointed to other nodes since it has been registered
+        Long reIdentity = mappingContext.nativeId(relationshipEntity);
+        if (reIdentity >= 0) {
+            mappingContext.reindexRelationshipEntity(relationshipEntity, reIdentity);
+        }
+
         Long tgtIdentity = mappingContext.nativeId(targetEntity);
         Long srcIdentity = mappingContext.nativeId(startEntity);
 
@@ -685,17 +1009,25 @@ public class EntityGraphMapper implements EntityMapper {
             context.registerNewObject(reIdentity, relationshipEntity);
         }
 
+        if (reIdentity < 0 || mappingContext.isDirty(relationshipEntity)) {
+            changedEntityListener.accept(relationshipEntity);
+        }
         updateFieldsOnBuilder(relationshipEntity, relationshipBuilder, relEntityClassInfo);
     }
 
     private <T> void updateFieldsOnBuilder(Object entity, PropertyContainerBuilder<T> builder, ClassInfo classInfo) {
+        // Only properties that changed since the entity has been loaded or saved need to be written
+        Set<FieldInfo> changedPropertyFields = mappingContext.getSnapshotOf(entity)
+            .map(snapshot -> snapshot.getChangedPropertyFields(classInfo, entity))
+            .orElse(null);
+
         for (FieldInfo fieldInfo : classInfo.propertyFields()) {
             if (fieldInfo.isComposite()) {
                 Map<String, ?> properties = fieldInfo.readComposite(entity);
                 builder.addCompositeProperties(properties);
             } else if (fieldInfo.isVersionField()) {
                 updateVersionField(entity, builder, fieldInfo);
-            } else {
+            } else if (changedPropertyFields == null || changedPropertyFields.contains(fieldInfo)) {
                 builder.addProperty(fieldInfo.propertyName(), fieldInfo.readProperty(entity));
             }
         }
@@ -776,9 +1108,9 @@ public class EntityGraphMapper implements EntityMapper {
 
     /**
      * Attempts to build a simple directed relationship in the graph between
-     * two objects represented as srcEntity and tgtEntity. This function recursively calls mapEntity on the
-     * target entity first before attempting to create the relationship. In this way, the object graph
-     * is traversed in depth-first order, and the relationships between the leaf nodes are created
+     * two objects represented as srcEntity and tgtEntity. This function maps the target entity first
+     * and creates the relationship only once all objects reachable from the target have been mapped. In this way,
+     * the object graph is traversed in depth-first order, and the relationships between the leaf nodes are created
      * first.
      *
      * @param srcNodeBuilder      a {@link NodeBuilder} that knows how to create cypher phrases about nodes
@@ -789,15 +1121,16 @@ public class EntityGraphMapper implements EntityMapper {
     private void mapRelatedEntity(NodeBuilder srcNodeBuilder,
         RelationshipBuilder relationshipBuilder, int horizon, RelationshipNodes relNodes) {
 
-        NodeBuilder tgtNodeBuilder = mapEntity(relNodes.target, horizon);
+        mapEntity(relNodes.target, horizon, tgtNodeBuilder -> {
 
-        // tgtNodeBuilder will be null if tgtObject is a transient class, or a subclass of a transient class
-        if (tgtNodeBuilder != null) {
-            LOGGER.debug("trying to map relationship between {} and {}", relNodes.source, relNodes.target);
-            CompileContext context = compiler.context();
-            relNodes.targetId = mappingContext.nativeId(relNodes.target);
-            updateRelationship(context, srcNodeBuilder, tgtNodeBuilder, relationshipBuilder, relNodes);
-        }
+            // tgtNodeBuilder will be null if tgtObject is a transient class, or a subclass of a transient class
+            if (tgtNodeBuilder != null) {
+                LOGGER.debug("trying to map relationship between {} and {}", relNodes.source, relNodes.target);
+                CompileContext context = compiler.context();
+                relNodes.targetId = mappingContext.nativeId(relNodes.target);
+                updateRelationship(context, srcNodeBuilder, tgtNodeBuilder, relationshipBuilder, relNodes);
+            }
+        });
     }
 
     /**
@@ -831,6 +1164,9 @@ public class EntityGraphMapper implements EntityMapper {
             if (!mappingContext.containsRelationship(mappedRelationship)) {
                 maybeCreateRelationship(context, srcNodeBuilder.reference(), relationshipBuilder,
                     tgtNodeBuilder.reference(), relNodes.sourceType, relNodes.targetType);
+            } else if (relNodes.unchanged && !context.getDeletedRelationships().contains(mappedRelationship)) {
+                // an unchanged element of a tracked collection, its relationship has not been deregistered
+                LOGGER.debug("context-keep: {}", mappedRelationship);
             } else {
                 LOGGER.debug("context-add: ({})-[{}:{}]->({})", mappedRelationship.getStartNodeId(),
                     relationshipBuilder.reference(), mappedRelationship.getRelationshipType(),
@@ -1027,6 +1363,8 @@ public class EntityGraphMapper implements EntityMapper {
         Class targetType;
         Object source;
         Object target;
+        // true for an element of a tracked collection that has not changed since the collection has been saved
+        boolean unchanged;
 
         RelationshipNodes(Long sourceId, Long targetId, Class sourceType, Class targetType) {
             this.sourceId = sourceId;
@@ -1054,4 +1392,15 @@ public class EntityGraphMapper implements EntityMapper {
                 '}';
         }
     }
+
+    private static final class EntityAtHorizon {
+
+        private final Object entity;
+        private final int horizon;
+
+        EntityAtHorizon(Object entity, int horizon) {
+            this.entity = entity;
+            this.horizon = horizon;
+        }
+    }
 }
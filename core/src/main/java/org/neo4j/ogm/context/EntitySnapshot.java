@@ -20,9 +20,12 @@ package org.neo4j.ogm.context;
 
 import static java.util.stream.Collectors.*;
 
+import java.lang.reflect.Array;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -39,6 +42,22 @@ import org.neo4j.ogm.metadata.MetaData;
  * @since 3.1.6
  */
 class EntitySnapshot {
+
+    /**
+     * Tells whether instances of a class are hashed by their values. Instances of other classes are hashed by their
+     * identity, so their fingerprint doesn't change when they are changed in place.
+     */
+    private static final ClassValue<Boolean> VALUE_HASHING = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("hashCode").getDeclaringClass() != Object.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
     /**
      * The set of dynamic labels a node had during the time the snapshot was taken.
      */
@@ -50,9 +69,17 @@ class EntitySnapshot {
      */
     private final Set<String> dynamicCompositeProperties;
 
-    private EntitySnapshot(Set<String> dynamicLabels, Set<String> dynamicCompositeProperties) {
+    /**
+     * Fingerprints of the values of all property fields during the time the snapshot was taken, in the order of
+     * {@link ClassInfo#propertyFields()}. Composite fields are not fingerprinted.
+     */
+    private final long[] propertyFingerprints;
+
+    private EntitySnapshot(Set<String> dynamicLabels, Set<String> dynamicCompositeProperties,
+        long[] propertyFingerprints) {
         this.dynamicLabels = dynamicLabels;
         this.dynamicCompositeProperties = dynamicCompositeProperties;
+        this.propertyFingerprints = propertyFingerprints;
     }
 
     /**
@@ -69,6 +96,97 @@ class EntitySnapshot {
         return dynamicCompositeProperties;
     }
 
+    /**
+     * Determines the simple (neither composite nor version) property fields of the entity whose values differ from
+     * the values they had when the snapshot was taken.
+     *
+     * @param classInfo The class info of the entity
+     * @param entity    The entity to compare with this snapshot
+     * @return The changed property fields
+     */
+    Set<FieldInfo> getChangedPropertyFields(ClassInfo classInfo, Object entity) {
+
+        Set<FieldInfo> changedPropertyFields = new HashSet<>();
+        Collection<FieldInfo> propertyFields = classInfo.propertyFields();
+        boolean comparable = propertyFields.size() == propertyFingerprints.length;
+
+        int i = 0;
+        for (FieldInfo fieldInfo : propertyFields) {
+            if (!(fieldInfo.isComposite() || fieldInfo.isVersionField())
+                && (!comparable || isChanged(propertyFingerprints[i], fieldInfo.read(entity)))) {
+                changedPropertyFields.add(fieldInfo);
+            }
+            i++;
+        }
+        return changedPropertyFields;
+    }
+
+    private static boolean isChanged(long propertyFingerprint, Object value) {
+        // Values hashed by their identity may have been changed in place, so they are always written
+        return !isFingerprintable(value) || propertyFingerprint != fingerprint(value);
+    }
+
+    /**
+     * @param value The value of a property field
+     * @return True if the fingerprint of the value changes whenever the value changes, false if the value or one of its
+     * elements is hashed by its identity.
+     */
+    static boolean isFingerprintable(Object value) {
+        if (value == null || !value.getClass().isArray()) {
+            return isHashedByValue(value);
+        }
+        if (value.getClass().getComponentType().isPrimitive()) {
+            return true;
+        }
+        for (Object element : (Object[]) value) {
+            if (!isHashedByValue(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isHashedByValue(Object value) {
+        if (value == null) {
+            return true;
+        }
+        // Arrays are hashed by their identity as well
+        if (!VALUE_HASHING.get(value.getClass())) {
+            return false;
+        }
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                if (!isHashedByValue(element)) {
+                    return false;
+                }
+            }
+        } else if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!(isHashedByValue(entry.getKey()) && isHashedByValue(entry.getValue()))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    static long fingerprint(Object value) {
+        if (value == null) {
+            return 0L;
+        }
+        if (!value.getClass().isArray()) {
+            return 31L + value.hashCode();
+        }
+
+        long result = 1;
+        int len = Array.getLength(value);
+        for (int i = 0; i < len; i++) {
+            Object element = Array.get(value, i);
+            result = 31L * result + (element == null ? 0 : element.hashCode());
+        }
+        return result;
+    }
+
     /**
      * Starts a new snapshot based on the given metadata
      *
@@ -98,8 +216,23 @@ class EntitySnapshot {
 
             Set<String> labels = extractLabels(classInfo, entity);
             Set<String> compositeProperties = extractCompositeProperties(classInfo, entity);
+            long[] propertyFingerprints = fingerprintProperties(classInfo, entity);
+
+            return new EntitySnapshot(labels, compositeProperties, propertyFingerprints);
+        }
+
+        private static long[] fingerprintProperties(ClassInfo classInfo, Object entity) {
+            Collection<FieldInfo> propertyFields = classInfo.propertyFields();
+            long[] propertyFingerprints = new long[propertyFields.size()];
 
-            return new EntitySnapshot(labels, compositeProperties);
+            Iterator<FieldInfo> fields = propertyFields.iterator();
+            for (int i = 0; i < propertyFingerprints.length; i++) {
+                FieldInfo fieldInfo = fields.next();
+                if (!fieldInfo.isComposite()) {
+                    propertyFingerprints[i] = fingerprint(fieldInfo.read(entity));
+                }
+            }
+            return propertyFingerprints;
         }
 
         private static Set<String> extractLabels(ClassInfo classInfo, Object entity) {
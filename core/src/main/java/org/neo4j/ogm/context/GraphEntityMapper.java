@@ -91,14 +91,7 @@ public class GraphEntityMapper implements ResponseMapper<GraphModel> {
 
         GraphModel graphModel;
         while ((graphModel = model.next()) != null) {
-            List<T> mappedEntities = map(type, graphModel, nodeIds, edgeIds);
-            for (T entity : mappedEntities) {
-                Long identity = mappingContext.nativeId(entity);
-                if (!objectIds.contains(identity)) {
-                    objects.add(entity);
-                    objectIds.add(identity);
-                }
-            }
+            addMappedEntities(type, graphModel, nodeIds, edgeIds, objects, objectIds);
         }
         executePostLoad(nodeIds, edgeIds);
 
@@ -106,6 +99,40 @@ public class GraphEntityMapper implements ResponseMapper<GraphModel> {
         return objects;
     }
 
+    /**
+     * Maps graph models that have already been read from a response, for example models kept in a cache.
+     *
+     * @param type        class of entities to return
+     * @param graphModels graph models to map
+     * @param <T>         type
+     * @return the entities of the given type, in the order they were found
+     */
+    public <T> Iterable<T> map(Class<T> type, List<GraphModel> graphModels) {
+
+        List<T> objects = new ArrayList<>();
+        Set<Long> objectIds = new HashSet<>();
+        Set<Long> nodeIds = new LinkedHashSet<>();
+        Set<Long> edgeIds = new LinkedHashSet<>();
+
+        for (GraphModel graphModel : graphModels) {
+            addMappedEntities(type, graphModel, nodeIds, edgeIds, objects, objectIds);
+        }
+        executePostLoad(nodeIds, edgeIds);
+
+        return objects;
+    }
+
+    private <T> void addMappedEntities(Class<T> type, GraphModel graphModel, Set<Long> nodeIds, Set<Long> edgeIds,
+        List<T> objects, Set<Long> objectIds) {
+        List<T> mappedEntities = map(type, graphModel, nodeIds, edgeIds);
+        for (T entity : mappedEntities) {
+            Long identity = mappingContext.nativeId(entity);
+            if (objectIds.add(identity)) {
+                objects.add(entity);
+            }
+        }
+    }
+
     Map<Long, Object> mapRelationships(GraphModel model) {
         Map<Long, Object> results = new HashMap<>();
         Set<Long> edgeIds = new LinkedHashSet<>();
@@ -174,6 +201,16 @@ public class GraphEntityMapper implements ResponseMapper<GraphModel> {
      * @param edgeIds edgeIds
      */
     public void executePostLoad(Set<Long> nodeIds, Set<Long> edgeIds) {
+        // references are remembered as loaded, before any callback gets a chance to change them
+        if (mappingContext.tracksReferences()) {
+            for (Long id : nodeIds) {
+                Object entity = mappingContext.getNodeEntity(id);
+                if (entity != null) {
+                    mappingContext.rememberLoadedReferences(entity);
+                }
+            }
+        }
+
         for (Long id : nodeIds) {
             Object o = mappingContext.getNodeEntity(id);
             executePostLoad(o);
@@ -564,8 +601,10 @@ public class GraphEntityMapper implements ResponseMapper<GraphModel> {
                     if (writer.type().isArray()) {
                         values = EntityAccessManager.merge(writer.type(), values, (Object[]) currentValues, valueType);
                     } else {
+                        Collection<?> loadedValues = (Collection<?>) values;
                         values = EntityAccessManager
                             .merge(writer.type(), values, (Collection) currentValues, valueType);
+                        values = trackChanges(instance, valueType, values, loadedValues, currentValues);
                     }
                 }
             }
@@ -576,6 +615,20 @@ public class GraphEntityMapper implements ResponseMapper<GraphModel> {
         logger.debug("Unable to map iterable of type: {} onto property of {}", valueType, classInfo.name());
     }
 
+    /**
+     * Wraps the values of a relationship field into a collection tracking its changes, unless the values are
+     * relationship entities. See {@link TrackedCollection}. If references are tracked, a change marks the entity as
+     * changed, so that it is part of the dirty frontier of the next save.
+     */
+    private Object trackChanges(Object instance, Class<?> valueType, Object values, Collection<?> loadedValues,
+        Object currentValues) {
+        if (metadata.isRelationshipEntity(valueType.getName())) {
+            return values;
+        }
+        return CollectionChanges.track(instance, values, loadedValues, currentValues,
+            mappingContext.tracksReferences() ? mappingContext::markDirty : null);
+    }
+
     // Find the correct RE associated with the edge. The edge type may be polymorphic, so we need to do a bit of work
     // to identify the correct RE to bind to. We must not cache the value when found, because the correct determination
     // depends on the runtime values of the edge in the mapping context, which may vary for the same edge pattern.
@@ -20,6 +20,7 @@ package org.neo4j.ogm.context;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +29,7 @@ import java.util.Optional;
 import org.neo4j.ogm.metadata.ClassInfo;
 import org.neo4j.ogm.metadata.FieldInfo;
 import org.neo4j.ogm.metadata.MetaData;
+import org.neo4j.ogm.session.DirtyTracking;
 
 /**
  * Maintains entity footprints for dirty checking.
@@ -46,35 +48,52 @@ class IdentityMap {
 
     private final Map<Long, Long> relEntityHashes;
 
+    // native node id -> hash of the identities of the entities the node refers to through its relationship fields
+    private final Map<Long, Long> nodeReferenceHashes;
+
     private final Map<Long, EntitySnapshot> snapshotsOfNodeEntities;
 
     private final Map<Long, EntitySnapshot> snapshotsOfRelationshipEntities;
 
     private final MetaData metaData;
 
-    IdentityMap(MetaData metaData) {
-        this.nodeHashes = new HashMap<>();
-        this.relEntityHashes = new HashMap<>();
-        this.snapshotsOfNodeEntities = new HashMap<>();
-        this.snapshotsOfRelationshipEntities = new HashMap<>();
+    IdentityMap(MetaData metaData, boolean usePrimitiveRegisters) {
+        this.nodeHashes = usePrimitiveRegisters ? new LongLongHashMap() : new HashMap<>();
+        this.relEntityHashes = usePrimitiveRegisters ? new LongLongHashMap() : new HashMap<>();
+        this.nodeReferenceHashes = usePrimitiveRegisters ? new LongLongHashMap() : new HashMap<>();
+        this.snapshotsOfNodeEntities = MappingContext.newRegister(usePrimitiveRegisters);
+        this.snapshotsOfRelationshipEntities = MappingContext.newRegister(usePrimitiveRegisters);
         this.metaData = metaData;
     }
 
     /**
      * constructs a 64-bit hash of this object's node properties
-     * and maps the object to that hash. The object must not be null
+     * and maps the object to that hash. The object must not be null.
+     * Objects tracking their changes themselves are not hashed but marked as clean. Their properties are fingerprinted
+     * all the same, so that only the properties that have changed are written once they are dirty.
      *
      * @param object   the object whose persistable properties we want to hash
      * @param entityId the native id of the entity
      */
     void remember(Object object, Long entityId) {
         ClassInfo classInfo = metaData.classInfo(object);
+
+        long hash;
+        if (object instanceof DirtyTracking) {
+            ((DirtyTracking) object).clearDirtyProperties();
+            // the hash is never compared for those objects, it only marks them as remembered
+            hash = SEED;
+        } else {
+            hash = hash(object, classInfo);
+        }
+        EntitySnapshot snapshot = EntitySnapshot.basedOn(metaData).take(object);
+
         if (metaData.isRelationshipEntity(classInfo.name())) {
-            this.relEntityHashes.put(entityId, hash(object, classInfo));
-            this.snapshotsOfRelationshipEntities.put(entityId, EntitySnapshot.basedOn(metaData).take(object));
+            this.relEntityHashes.put(entityId, hash);
+            this.snapshotsOfRelationshipEntities.put(entityId, snapshot);
         } else {
-            this.nodeHashes.put(entityId, hash(object, classInfo));
-            this.snapshotsOfNodeEntities.put(entityId, EntitySnapshot.basedOn(metaData).take(object));
+            this.nodeHashes.put(entityId, hash);
+            this.snapshotsOfNodeEntities.put(entityId, snapshot);
         }
     }
 
@@ -98,12 +117,66 @@ class IdentityMap {
         ClassInfo classInfo = metaData.classInfo(object);
         boolean isRelEntity = metaData.isRelationshipEntity(classInfo.name());
 
-        long actual = hash(object, classInfo);
-        long expected = isRelEntity ? relEntityHashes.get(entityId) : nodeHashes.get(entityId);
+        // Nodes and relationships don't share an id space, so the id might be known for the other kind of entity only.
+        Long expected = isRelEntity ? relEntityHashes.get(entityId) : nodeHashes.get(entityId);
+        if (expected == null) {
+            return false;
+        }
+
+        if (object instanceof DirtyTracking) {
+            return !((DirtyTracking) object).hasDirtyProperties();
+        }
 
+        long actual = hash(object, classInfo);
         return actual == expected;
     }
 
+    /**
+     * constructs a 64-bit hash of the identities of the entities this node entity refers to through its relationship
+     * fields and maps the entity to that hash. Collections and arrays are hashed by their identity, their size and the
+     * identities of their elements, so that replacing, growing or shrinking them changes the hash.
+     *
+     * @param object   the node entity whose references we want to hash
+     * @param entityId the native id of the entity
+     */
+    void rememberReferences(Object object, Long entityId) {
+        this.nodeReferenceHashes.put(entityId, hashReferences(object, metaData.classInfo(object)));
+    }
+
+    /**
+     * determines whether the node entity still refers to the same entities as it did when its references have been
+     * remembered.
+     *
+     * @param object   the node entity whose references we want to check
+     * @param entityId the native id of the entity
+     * @return true if the references haven't changed since they were remembered, false otherwise
+     */
+    boolean referencesRemembered(Object object, Long entityId) {
+        if (entityId == null) {
+            return false;
+        }
+        Long expected = nodeReferenceHashes.get(entityId);
+        return expected != null && expected == hashReferences(object, metaData.classInfo(object));
+    }
+
+    /**
+     * Removes the hash and the snapshot of the given object. The object must not be null.
+     *
+     * @param object   the object to forget
+     * @param entityId the native id of the entity
+     */
+    void forget(Object object, Long entityId) {
+        ClassInfo classInfo = metaData.classInfo(object);
+        if (metaData.isRelationshipEntity(classInfo.name())) {
+            this.relEntityHashes.remove(entityId);
+            this.snapshotsOfRelationshipEntities.remove(entityId);
+        } else {
+            this.nodeHashes.remove(entityId);
+            this.nodeReferenceHashes.remove(entityId);
+            this.snapshotsOfNodeEntities.remove(entityId);
+        }
+    }
+
     /**
      * Returns the snapshot for the given id. The snapshot contains the corresponding entity's dynamic labels and properties
      * as stored during initial load of the entity.
@@ -130,6 +203,7 @@ class IdentityMap {
 
         this.nodeHashes.clear();
         this.relEntityHashes.clear();
+        this.nodeReferenceHashes.clear();
         this.snapshotsOfNodeEntities.clear();
         this.snapshotsOfRelationshipEntities.clear();
     }
@@ -156,6 +230,32 @@ class IdentityMap {
         return hash;
     }
 
+    private static long hashReferences(Object object, ClassInfo classInfo) {
+
+        long hash = SEED;
+        for (FieldInfo fieldInfo : classInfo.relationshipFields()) {
+
+            Object value = fieldInfo.read(object);
+            hash = hash * 31L + System.identityHashCode(value);
+            if (value instanceof Collection) {
+                Collection<?> collection = (Collection<?>) value;
+                long elements = 0;
+                for (Object element : collection) {
+                    elements += System.identityHashCode(element);
+                }
+                hash = (hash * 31L + collection.size()) * 31L + elements;
+            } else if (value != null && value.getClass().isArray()) {
+                int len = Array.getLength(value);
+                long elements = 0;
+                for (int i = 0; i < len; i++) {
+                    elements += System.identityHashCode(Array.get(value, i));
+                }
+                hash = (hash * 31L + len) * 31L + elements;
+            }
+        }
+        return hash;
+    }
+
     /**
      * hashes an array of objects or primitives
      *
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.context;
+
+import static java.util.Objects.*;
+
+/**
+ * A map from primitive {@code long} keys to primitive {@code long} values, see {@link AbstractLongKeyedHashMap}.
+ * Values are only boxed when accessed through the {@link java.util.Map} interface, {@literal null} values are not
+ * supported.
+ */
+class LongLongHashMap extends AbstractLongKeyedHashMap<Long> {
+
+    private long[] values;
+
+    @Override
+    void allocateValues(int capacity) {
+        this.values = new long[capacity];
+    }
+
+    @Override
+    Long valueAt(int slot) {
+        return values[slot];
+    }
+
+    @Override
+    void storeValue(int slot, Long value) {
+        values[slot] = requireNonNull(value, "LongLongHashMap doesn't support null values.");
+    }
+
+    @Override
+    void releaseValue(int slot) {
+        values[slot] = 0L;
+    }
+
+    @Override
+    Object detachValues() {
+        return values;
+    }
+
+    @Override
+    Long valueAt(Object detachedValues, int slot) {
+        return ((long[]) detachedValues)[slot];
+    }
+}
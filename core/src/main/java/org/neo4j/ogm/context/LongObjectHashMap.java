@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.context;
+
+/**
+ * A map from primitive {@code long} keys to objects, see {@link AbstractLongKeyedHashMap}.
+ *
+ * @param <V> Type of the values
+ */
+class LongObjectHashMap<V> extends AbstractLongKeyedHashMap<V> {
+
+    private Object[] values;
+
+    @Override
+    void allocateValues(int capacity) {
+        this.values = new Object[capacity];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    @Override
+    void storeValue(int slot, V value) {
+        values[slot] = value;
+    }
+
+    @Override
+    void releaseValue(int slot) {
+        values[slot] = null;
+    }
+
+    @Override
+    Object detachValues() {
+        return values;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    V valueAt(Object detachedValues, int slot) {
+        return (V) ((Object[]) detachedValues)[slot];
+    }
+}
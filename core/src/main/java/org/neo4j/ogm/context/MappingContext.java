@@ -19,7 +19,6 @@
 package org.neo4j.ogm.context;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 import org.neo4j.ogm.annotation.NodeEntity;
 import org.neo4j.ogm.exception.core.MappingException;
@@ -29,6 +28,7 @@ import org.neo4j.ogm.id.UuidStrategy;
 import org.neo4j.ogm.metadata.ClassInfo;
 import org.neo4j.ogm.metadata.FieldInfo;
 import org.neo4j.ogm.metadata.MetaData;
+import org.neo4j.ogm.session.DirtyTracking;
 import org.neo4j.ogm.utils.EntityUtils;
 
 /**
@@ -53,23 +53,96 @@ public class MappingContext {
 
     private final Map<Long, Object> relationshipEntityRegister;
 
+    // start or end node (by identity) -> native ids of the relationship entities registered with that node
+    private final Map<Object, Set<Long>> relationshipEntitiesByNode;
+
+    // native id of a relationship entity -> start and end node it is indexed with in relationshipEntitiesByNode
+    private final Map<Long, Object[]> relationshipEntityEndpoints;
+
     private final Map<LabelPrimaryId, Object> primaryIdToRelationship;
 
+    // class of the entities -> native ids of the registered node or relationship entities of exactly that class
+    private final Map<Class<?>, Set<Long>> nodeEntityIdsByType;
+
+    private final Map<Class<?>, Set<Long>> relationshipEntityIdsByType;
+
     private final Set<MappedRelationship> relationshipRegister;
 
+    // native node id -> mapped relationships having that node as start or end node
+    private final Map<Long, Set<MappedRelationship>> relationshipsByNode;
+
+    // native relationship entity id -> mapped relationships carrying that id
+    private final Map<Long, Set<MappedRelationship>> relationshipsById;
+
     private final IdentityMap identityMap;
 
     private final MetaData metaData;
 
+    // native ids of the registered node entities in least recently used order, only maintained if the context is bounded
+    private final LinkedHashMap<Long, Boolean> nodeEntityUsage;
+
+    private final int maxNodeEntities;
+
+    private final boolean trackChanges;
+
+    // entities marked as changed, so that they are saved even if they are only reachable through unchanged entities
+    private final Set<Object> markedDirty = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // registered entities tracking their changes themselves, only collected if references are tracked
+    private final Set<Object> dirtyTrackingEntities = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // node entities referring to collections or arrays that don't report their changes, see #rememberReferences
+    private final Set<Object> ownersOfUntrackedCollections = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private boolean trackReferences;
+
     public MappingContext(MetaData metaData) {
+        this(metaData, false);
+    }
+
+    public MappingContext(MetaData metaData, boolean usePrimitiveRegisters) {
+        this(metaData, usePrimitiveRegisters, 0);
+    }
+
+    public MappingContext(MetaData metaData, boolean usePrimitiveRegisters, int maxNodeEntities) {
+        this(metaData, usePrimitiveRegisters, maxNodeEntities, true);
+    }
+
+    /**
+     * Creates a new mapping context.
+     *
+     * @param metaData              The meta data for the mapped domain
+     * @param usePrimitiveRegisters Flag, if the registers keyed by native ids should use open addressing maps with
+     *                              primitive keys instead of {@link HashMap}s. This reduces the footprint of sessions
+     *                              holding many entities.
+     * @param maxNodeEntities       The number of node entities above which {@link #evict()} starts evicting the least
+     *                              recently used clean node entities. A value less than or equal to zero turns eviction off.
+     * @param trackChanges          Flag, if the state of registered entities and the mapped relationships between them
+     *                              should be tracked. Without tracking, entities are only registered by their ids so that
+     *                              they can be wired up, but there is nothing to detect changes against.
+     */
+    public MappingContext(MetaData metaData, boolean usePrimitiveRegisters, int maxNodeEntities, boolean trackChanges) {
         this.metaData = metaData;
-        this.identityMap = new IdentityMap(metaData);
-        this.nodeEntityRegister = new HashMap<>();
+        this.identityMap = new IdentityMap(metaData, usePrimitiveRegisters);
+        this.nodeEntityRegister = newRegister(usePrimitiveRegisters);
         this.primaryIndexNodeRegister = new HashMap<>();
         this.primaryIdToNativeId = new HashMap<>();
-        this.relationshipEntityRegister = new HashMap<>();
+        this.relationshipEntityRegister = newRegister(usePrimitiveRegisters);
+        this.relationshipEntitiesByNode = new IdentityHashMap<>();
+        this.relationshipEntityEndpoints = newRegister(usePrimitiveRegisters);
         this.primaryIdToRelationship = new HashMap<>();
+        this.nodeEntityIdsByType = new HashMap<>();
+        this.relationshipEntityIdsByType = new HashMap<>();
         this.relationshipRegister = new HashSet<>();
+        this.relationshipsByNode = newRegister(usePrimitiveRegisters);
+        this.relationshipsById = newRegister(usePrimitiveRegisters);
+        this.maxNodeEntities = maxNodeEntities;
+        this.nodeEntityUsage = maxNodeEntities > 0 ? new LinkedHashMap<>(16, 0.75f, true) : null;
+        this.trackChanges = trackChanges;
+    }
+
+    static <V> Map<Long, V> newRegister(boolean usePrimitiveRegisters) {
+        return usePrimitiveRegisters ? new LongObjectHashMap<>() : new HashMap<>();
     }
 
     /**
@@ -81,7 +154,11 @@ public class MappingContext {
      * @return The entity or null if not found.
      */
     public Object getNodeEntity(Long graphId) {
-        return nodeEntityRegister.get(graphId);
+        Object entity = nodeEntityRegister.get(graphId);
+        if (entity != null && nodeEntityUsage != null) {
+            nodeEntityUsage.get(graphId);
+        }
+        return entity;
     }
 
     /**
@@ -106,18 +183,11 @@ public class MappingContext {
         }
 
         // the retrieved node is an implementation/extension of the abstract type / interface queried for.
-        Queue<ClassInfo> queue = new LinkedList<>(classInfo.directSubclasses());
-        while (!queue.isEmpty()) {
-
-            ClassInfo subClassInfo = queue.poll();
-
+        for (ClassInfo subClassInfo : classInfo.concreteSubclasses()) {
             node = primaryIndexNodeRegister.get(new LabelPrimaryId(subClassInfo, id));
             if (node != null) {
                 return node;
             }
-
-            List<ClassInfo> deepSubClassInfos = subClassInfo.directSubclasses();
-            queue.addAll(deepSubClassInfos);
         }
 
         return null;
@@ -146,6 +216,7 @@ public class MappingContext {
 
         if (!nodeEntityRegister.containsKey(id)) {
             nodeEntityRegister.put(id, entity);
+            indexType(nodeEntityIdsByType, entity, id);
             final Object primaryIndexValue = classInfo.readPrimaryIndexValueOf(entity);
             if (primaryIndexValue != null) {
                 LabelPrimaryId key = new LabelPrimaryId(classInfo, primaryIndexValue);
@@ -153,6 +224,9 @@ public class MappingContext {
                 primaryIdToNativeId.put(key, id);
             }
             remember(entity, id);
+            if (nodeEntityUsage != null) {
+                nodeEntityUsage.put(id, Boolean.TRUE);
+            }
         }
 
         return entity;
@@ -170,7 +244,10 @@ public class MappingContext {
 
         Long id = nativeId(entity);
 
-        nodeEntityRegister.remove(id);
+        unindexType(nodeEntityIdsByType, nodeEntityRegister.remove(id), id);
+        if (nodeEntityUsage != null) {
+            nodeEntityUsage.remove(id);
+        }
         final ClassInfo classInfo = metaData.classInfo(entity);
         final Object primaryIndexValue = classInfo.readPrimaryIndexValueOf(entity);
         if (primaryIndexValue != null) {
@@ -197,7 +274,7 @@ public class MappingContext {
     }
 
     public void replaceRelationshipEntity(Object entity, Long id) {
-        relationshipEntityRegister.remove(id);
+        removeFromRelationshipEntityRegister(id);
         ClassInfo classInfo = metaData.classInfo(entity);
         if (classInfo.hasPrimaryIndexField()) {
             final Object primaryIndexValue = classInfo.readPrimaryIndexValueOf(entity);
@@ -216,19 +293,44 @@ public class MappingContext {
      * but also all entities that are assignable to it (sub types)
      */
     Collection<Object> getEntities(Class<?> type) {
-        Collection<Object> result;
+        Map<Long, Object> register;
+        Map<Class<?>, Set<Long>> idsByType;
         if (metaData.isRelationshipEntity(type.getName())) {
-            result = relationshipEntityRegister.values().stream()
-                .filter((c) -> c.getClass().isAssignableFrom(type))
-                .collect(Collectors.toList());
+            register = relationshipEntityRegister;
+            idsByType = relationshipEntityIdsByType;
         } else {
-            result = nodeEntityRegister.values().stream()
-                .filter((c) -> c.getClass().isAssignableFrom(type))
-                .collect(Collectors.toList());
+            register = nodeEntityRegister;
+            idsByType = nodeEntityIdsByType;
         }
+
+        Collection<Object> result = new ArrayList<>();
+        idsByType.forEach((entityType, ids) -> {
+            if (type.isAssignableFrom(entityType)) {
+                for (Long id : ids) {
+                    result.add(register.get(id));
+                }
+            }
+        });
         return result;
     }
 
+    private static void indexType(Map<Class<?>, Set<Long>> idsByType, Object entity, Long id) {
+        idsByType.computeIfAbsent(entity.getClass(), k -> new HashSet<>()).add(id);
+    }
+
+    private static void unindexType(Map<Class<?>, Set<Long>> idsByType, Object entity, Long id) {
+        if (entity == null) {
+            return;
+        }
+        Set<Long> ids = idsByType.get(entity.getClass());
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                idsByType.remove(entity.getClass());
+            }
+        }
+    }
+
     /**
      * Gets the initial snapshot of the objects dynamic labels and properties as stored during initial load of the entity.
      *
@@ -251,29 +353,365 @@ public class MappingContext {
         return !identityMap.remembered(entity, graphId);
     }
 
+    /**
+     * Turns on tracking the entities node entities refer to, so that a save can skip the graph behind node entities
+     * that haven't changed at all. See {@link #hasUnchangedReferences(Object)}.
+     */
+    public void trackReferences() {
+        this.trackReferences = trackChanges;
+    }
+
+    /**
+     * @return true if the references of node entities are tracked
+     */
+    public boolean tracksReferences() {
+        return trackReferences;
+    }
+
+    /**
+     * Remembers the entities a registered node entity refers to through its relationship fields, replacing what has
+     * been remembered before. Does nothing unless references are tracked.
+     *
+     * @param entity The node entity whose references are in sync with the graph
+     */
+    public void rememberReferences(Object entity) {
+        rememberReferences(entity, true);
+    }
+
+    /**
+     * Remembers the entities a freshly loaded node entity refers to. References already remembered for the entity are
+     * kept, as the entity might have been changed before being loaded again. Does nothing unless references are
+     * tracked.
+     *
+     * @param entity The loaded node entity
+     */
+    public void rememberLoadedReferences(Object entity) {
+        rememberReferences(entity, false);
+    }
+
+    private void rememberReferences(Object entity, boolean replace) {
+        if (!trackReferences) {
+            return;
+        }
+        Long id = nativeId(entity);
+        if (id >= 0 && nodeEntityRegister.get(id) == entity
+            && (replace || !identityMap.referencesRemembered(entity, id))) {
+            identityMap.rememberReferences(entity, id);
+            if (hasUntrackedCollections(entity)) {
+                ownersOfUntrackedCollections.add(entity);
+            } else {
+                ownersOfUntrackedCollections.remove(entity);
+            }
+        }
+    }
+
+    /**
+     * Checks if a relationship field of the entity holds a collection or array that doesn't report its changes to this
+     * context. Changes of a {@link TrackedCollection} hydrated for the entity mark the entity as changed, other
+     * collections have to be checked against the remembered references.
+     */
+    private boolean hasUntrackedCollections(Object entity) {
+        for (FieldInfo fieldInfo : metaData.classInfo(entity).relationshipFields()) {
+            Object value = fieldInfo.read(entity);
+            if (value instanceof TrackedCollection) {
+                TrackedCollection<?> trackedCollection = (TrackedCollection<?>) value;
+                if (!trackedCollection.isOwnedBy(entity) || !trackedCollection.isTrackingChanges()) {
+                    return true;
+                }
+            } else if (value instanceof Collection || (value != null && value.getClass().isArray())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a node entity still refers to the same entities through its relationship fields as it did when it has
+     * been loaded or saved, and hasn't been marked as changed since. Always false unless references are tracked.
+     *
+     * @param entity The node entity to check
+     * @return true if the references of the entity haven't changed
+     */
+    public boolean hasUnchangedReferences(Object entity) {
+        if (!trackReferences || markedDirty.contains(entity)) {
+            return false;
+        }
+        Long id = nativeId(entity);
+        return id >= 0 && nodeEntityRegister.get(id) == entity && identityMap.referencesRemembered(entity, id);
+    }
+
+    /**
+     * Marks an entity as changed, so that it is saved along with the next save, regardless of whether it can be
+     * reached from the saved entities through changed entities.
+     *
+     * @param entity The changed entity
+     */
+    public void markDirty(Object entity) {
+        markedDirty.add(entity);
+    }
+
+    /**
+     * Returns the entities that must be saved along with any save, because the traversal from the saved entities
+     * might not reach them:
+     * <ul>
+     * <li>the entities marked as changed, including the owners of changed {@link TrackedCollection}s,</li>
+     * <li>the registered entities tracking their changes themselves that have changed,</li>
+     * <li>the node entities whose untracked collections or arrays changed their size or elements.</li>
+     * </ul>
+     * Only the entities collected for those purposes are visited, not all registered entities.
+     *
+     * @return the dirty frontier of this context, never null
+     */
+    public Collection<Object> getDirtyFrontier() {
+        Set<Object> dirtyFrontier = Collections.newSetFromMap(new IdentityHashMap<>());
+        dirtyFrontier.addAll(markedDirty);
+
+        for (Iterator<Object> entities = dirtyTrackingEntities.iterator(); entities.hasNext(); ) {
+            Object entity = entities.next();
+            Long id = nativeId(entity);
+            if (nodeEntityRegister.get(id) != entity && relationshipEntityRegister.get(id) != entity) {
+                entities.remove();
+            } else if (((DirtyTracking) entity).hasDirtyProperties()) {
+                dirtyFrontier.add(entity);
+            }
+        }
+
+        for (Iterator<Object> entities = ownersOfUntrackedCollections.iterator(); entities.hasNext(); ) {
+            Object entity = entities.next();
+            Long id = nativeId(entity);
+            if (nodeEntityRegister.get(id) != entity) {
+                entities.remove();
+            } else if (!identityMap.referencesRemembered(entity, id)) {
+                dirtyFrontier.add(entity);
+            }
+        }
+        return new ArrayList<>(dirtyFrontier);
+    }
+
+    /**
+     * Forgets all entities marked as changed, after they have been saved.
+     */
+    public void clearMarkedDirty() {
+        markedDirty.clear();
+    }
+
     public boolean containsRelationship(MappedRelationship relationship) {
         return relationshipRegister.contains(relationship);
     }
 
+    /**
+     * @return An unmodifiable view of all relationships registered in this context. Use {@link #addRelationship(MappedRelationship)}
+     * and {@link #removeRelationship(MappedRelationship)} to change them.
+     */
     public Set<MappedRelationship> getRelationships() {
-        return relationshipRegister;
+        return Collections.unmodifiableSet(relationshipRegister);
+    }
+
+    /**
+     * Get all registered relationships that have the node with the given native id either as start or as end node.
+     *
+     * @param nodeId The native id of the node
+     * @return An unmodifiable view of the relationships of the node, never null.
+     */
+    public Set<MappedRelationship> getRelationshipsOf(Long nodeId) {
+        Set<MappedRelationship> relationships = relationshipsByNode.get(nodeId);
+        return relationships == null ? Collections.emptySet() : Collections.unmodifiableSet(relationships);
+    }
+
+    /**
+     * Get all registered relationships that belong to the relationship entity with the given native id.
+     *
+     * @param relationshipId The native id of the relationship entity
+     * @return An unmodifiable view of the relationships carrying that id, never null.
+     */
+    public Set<MappedRelationship> getRelationshipsWithId(Long relationshipId) {
+        Set<MappedRelationship> relationships = relationshipsById.get(relationshipId);
+        return relationships == null ? Collections.emptySet() : Collections.unmodifiableSet(relationships);
     }
 
     public void addRelationship(MappedRelationship relationship) {
+        if (!trackChanges) {
+            return;
+        }
         if (relationship.getRelationshipId() != null
             && relationshipEntityRegister.get(relationship.getRelationshipId()) == null) {
             relationship.setRelationshipId(null); //We're only interested in id's of relationship entities
         }
-        relationshipRegister.add(relationship);
+        if (relationshipRegister.add(relationship)) {
+            indexRelationship(relationshipsByNode, relationship.getStartNodeId(), relationship);
+            indexRelationship(relationshipsByNode, relationship.getEndNodeId(), relationship);
+            if (relationship.getRelationshipId() != null) {
+                indexRelationship(relationshipsById, relationship.getRelationshipId(), relationship);
+            }
+        }
+    }
+
+    /**
+     * Removes a relationship from this context.
+     *
+     * @param relationship The relationship to remove
+     * @return true if the relationship was registered
+     */
+    public boolean removeRelationship(MappedRelationship relationship) {
+        if (!relationshipRegister.remove(relationship)) {
+            return false;
+        }
+        unindexRelationship(relationshipsByNode, relationship.getStartNodeId(), relationship);
+        unindexRelationship(relationshipsByNode, relationship.getEndNodeId(), relationship);
+        if (relationship.getRelationshipId() != null) {
+            unindexRelationship(relationshipsById, relationship.getRelationshipId(), relationship);
+        }
+        return true;
+    }
+
+    private static void indexRelationship(Map<Long, Set<MappedRelationship>> index, Long id,
+        MappedRelationship relationship) {
+        index.computeIfAbsent(id, k -> new HashSet<>()).add(relationship);
+    }
+
+    private static void unindexRelationship(Map<Long, Set<MappedRelationship>> index, Long id,
+        MappedRelationship relationship) {
+        Set<MappedRelationship> relationships = index.get(id);
+        if (relationships != null) {
+            relationships.remove(relationship);
+            if (relationships.isEmpty()) {
+                index.remove(id);
+            }
+        }
     }
 
     public void clear() {
         identityMap.clear();
+        markedDirty.clear();
+        dirtyTrackingEntities.clear();
+        ownersOfUntrackedCollections.clear();
         relationshipRegister.clear();
+        relationshipsByNode.clear();
+        relationshipsById.clear();
         primaryIdToRelationship.clear();
         nodeEntityRegister.clear();
         primaryIndexNodeRegister.clear();
         relationshipEntityRegister.clear();
+        relationshipEntitiesByNode.clear();
+        relationshipEntityEndpoints.clear();
+        nodeEntityIdsByType.clear();
+        relationshipEntityIdsByType.clear();
+        if (nodeEntityUsage != null) {
+            nodeEntityUsage.clear();
+        }
+    }
+
+    /**
+     * Evicts the least recently used node entities until the number of registered node entities doesn't exceed the
+     * bound this context has been created with. Only clean entities are evicted: Entities that have been modified since
+     * they have been registered, or that are attached to modified relationship entities, are kept.
+     * <p>
+     * Evicting a node entity removes it from all registers and forgets its hash and snapshot, together with the
+     * relationship entities attached to it. Mapped relationships are kept as long as their other node is still
+     * registered, so that changes made through that node can still be detected. An evicted instance is treated like
+     * an instance loaded in another session afterwards: It is fully written when saved and a new instance is created
+     * when the node is loaded again.
+     *
+     * @return The number of evicted node entities.
+     */
+    public int evict() {
+        if (nodeEntityUsage == null || nodeEntityUsage.size() <= maxNodeEntities) {
+            return 0;
+        }
+
+        int excess = nodeEntityUsage.size() - maxNodeEntities;
+        List<Long> evictableIds = new ArrayList<>();
+        Iterator<Long> leastRecentlyUsedIds = nodeEntityUsage.keySet().iterator();
+        while (leastRecentlyUsedIds.hasNext() && evictableIds.size() < excess) {
+            Long id = leastRecentlyUsedIds.next();
+            Object entity = nodeEntityRegister.get(id);
+            if (entity == null) {
+                leastRecentlyUsedIds.remove();
+                excess--;
+            } else if (isEvictable(entity, id)) {
+                evictableIds.add(id);
+            }
+        }
+
+        for (Long id : evictableIds) {
+            evictNodeEntity(id);
+        }
+        return evictableIds.size();
+    }
+
+    private boolean isEvictable(Object entity, Long id) {
+        if (!trackChanges) {
+            return true;
+        }
+        if (!identityMap.remembered(entity, id)) {
+            return false;
+        }
+        for (Long relationshipEntityId : relationshipEntitiesOf(entity, id)) {
+            Object relationshipEntity = relationshipEntityRegister.get(relationshipEntityId);
+            if (relationshipEntity != null && !identityMap.remembered(relationshipEntity, relationshipEntityId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Set<Long> relationshipEntitiesOf(Object entity, Long id) {
+        Set<Long> relationshipEntityIds = new HashSet<>(
+            relationshipEntitiesByNode.getOrDefault(entity, Collections.emptySet()));
+        for (MappedRelationship mappedRelationship : getRelationshipsOf(id)) {
+            if (mappedRelationship.getRelationshipId() != null) {
+                relationshipEntityIds.add(mappedRelationship.getRelationshipId());
+            }
+        }
+        return relationshipEntityIds;
+    }
+
+    private void evictNodeEntity(Long id) {
+        Object entity = nodeEntityRegister.get(id);
+        if (entity == null) {
+            return;
+        }
+
+        Set<Long> relationshipEntityIds = relationshipEntitiesOf(entity, id);
+        for (Long relationshipEntityId : relationshipEntityIds) {
+            evictRelationshipEntity(relationshipEntityId);
+        }
+
+        for (MappedRelationship mappedRelationship : new ArrayList<>(getRelationshipsOf(id))) {
+            long otherNodeId = mappedRelationship.getStartNodeId() == id ?
+                mappedRelationship.getEndNodeId() :
+                mappedRelationship.getStartNodeId();
+            if (relationshipEntityIds.contains(mappedRelationship.getRelationshipId())
+                || otherNodeId == id || !nodeEntityRegister.containsKey(otherNodeId)) {
+                removeRelationship(mappedRelationship);
+            }
+        }
+
+        unindexType(nodeEntityIdsByType, nodeEntityRegister.remove(id), id);
+        nodeEntityUsage.remove(id);
+        forgetPrimaryIndexOf(entity, primaryIndexNodeRegister);
+        identityMap.forget(entity, id);
+    }
+
+    private void evictRelationshipEntity(Long id) {
+        Object relationshipEntity = removeFromRelationshipEntityRegister(id);
+        if (relationshipEntity != null) {
+            forgetPrimaryIndexOf(relationshipEntity, primaryIdToRelationship);
+            identityMap.forget(relationshipEntity, id);
+        }
+    }
+
+    private void forgetPrimaryIndexOf(Object entity, Map<LabelPrimaryId, Object> primaryIndexRegister) {
+        ClassInfo classInfo = metaData.classInfo(entity);
+        Object primaryIndexValue = classInfo.readPrimaryIndexValueOf(entity);
+        if (primaryIndexValue != null) {
+            LabelPrimaryId key = new LabelPrimaryId(classInfo, primaryIndexValue);
+            primaryIndexRegister.remove(key);
+            // Without an identity field the native id can only be looked up through its primary id
+            if (classInfo.hasIdentityField()) {
+                primaryIdToNativeId.remove(key);
+            }
+        }
     }
 
     public Object getRelationshipEntity(Long relationshipId) {
@@ -297,6 +735,8 @@ public class MappingContext {
         if (relationshipEntityRegister.putIfAbsent(id, relationshipEntity) == null) {
             relationshipEntity = relationshipEntityRegister.get(id);
             remember(relationshipEntity, id);
+            indexRelationshipEntity(relationshipEntity, id);
+            indexType(relationshipEntityIdsByType, relationshipEntity, id);
 
             ClassInfo classInfo = metaData.classInfo(relationshipEntity);
             if (classInfo.hasPrimaryIndexField()) {
@@ -310,28 +750,14 @@ public class MappingContext {
 
     /**
      * purges all information about objects of the supplied type
-     * from the mapping context. If the type is an interface, purges all implementing classes
-     * in the interface hierarchy
+     * from the mapping context. Purges objects of all subclasses or, if the type is an interface,
+     * all implementing classes as well.
      *
      * @param type the type whose object references and relationship mappings we want to purge
      */
     public void removeType(Class<?> type) {
-
-        ClassInfo classInfo = metaData.classInfo(type.getName());
-
-        if (classInfo.isInterface()) {
-            List<ClassInfo> implementingClasses = metaData.getImplementingClassInfos(classInfo.name());
-            for (ClassInfo implementingClass : implementingClasses) {
-                try {
-                    removeType(classInfo.getUnderlyingClass());
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-            }
-        } else {
-            for (Object entity : getEntities(type)) {
-                purge(entity, type);
-            }
+        for (Object entity : getEntities(type)) {
+            removeEntity(entity);
         }
     }
 
@@ -399,16 +825,12 @@ public class MappingContext {
         Class<?> type = entity.getClass();
         if (!metaData.isRelationshipEntity(type.getName())) {
             if (getNodeEntity(id) != null) {
-                // todo: this will be very slow for many objects
-                // todo: refactor to create a list of mappedRelationships from a nodeEntity id.
-                for (MappedRelationship mappedRelationship : relationshipRegister) {
-                    if (mappedRelationship.getStartNodeId() == id || mappedRelationship.getEndNodeId() == id) {
-                        Object affectedObject = mappedRelationship.getEndNodeId() == id ?
-                            getNodeEntity(mappedRelationship.getStartNodeId()) :
-                            getNodeEntity(mappedRelationship.getEndNodeId());
-                        if (affectedObject != null) {
-                            neighbours.add(affectedObject);
-                        }
+                for (MappedRelationship mappedRelationship : getRelationshipsOf(id)) {
+                    Object affectedObject = mappedRelationship.getEndNodeId() == id ?
+                        getNodeEntity(mappedRelationship.getStartNodeId()) :
+                        getNodeEntity(mappedRelationship.getEndNodeId());
+                    if (affectedObject != null) {
+                        neighbours.add(affectedObject);
                     }
                 }
             }
@@ -429,20 +851,88 @@ public class MappingContext {
      * @param startOrEndEntity the entity that might be the start or end node of a relationship entity
      */
     private void deregisterDependentRelationshipEntity(Object startOrEndEntity) {
-        Iterator<Long> relationshipEntityIdIterator = relationshipEntityRegister.keySet().iterator();
-        while (relationshipEntityIdIterator.hasNext()) {
-            Long relationshipEntityId = relationshipEntityIdIterator.next();
+        Set<Long> relationshipEntityIds = relationshipEntitiesByNode.get(startOrEndEntity);
+        if (relationshipEntityIds == null) {
+            return;
+        }
+
+        for (Long relationshipEntityId : new ArrayList<>(relationshipEntityIds)) {
             Object relationshipEntity = relationshipEntityRegister.get(relationshipEntityId);
+            if (relationshipEntity == null) {
+                continue;
+            }
+            // The index is built when the relationship entity is registered or saved, so verify that the entity is
+            // still attached to the node before removing it
             final ClassInfo classInfo = metaData.classInfo(relationshipEntity);
             FieldInfo startNodeReader = classInfo.getStartNodeReader();
             FieldInfo endNodeReader = classInfo.getEndNodeReader();
             if (startOrEndEntity == startNodeReader.read(relationshipEntity) || startOrEndEntity == endNodeReader
                 .read(relationshipEntity)) {
-                relationshipEntityIdIterator.remove();
+                removeFromRelationshipEntityRegister(relationshipEntityId);
             }
         }
     }
 
+    /**
+     * Indexes a registered relationship entity under its current start and end node again, after they might have
+     * been changed. The entity graph mapper calls this for every relationship entity it saves, so that the
+     * relationship entity is found by the nodes it is saved with.
+     *
+     * @param relationshipEntity the relationship entity
+     * @param id                 its native id
+     */
+    public void reindexRelationshipEntity(Object relationshipEntity, Long id) {
+        if (relationshipEntityRegister.get(id) != relationshipEntity) {
+            return;
+        }
+        unindexRelationshipEntity(id);
+        indexRelationshipEntity(relationshipEntity, id);
+    }
+
+    private void indexRelationshipEntity(Object relationshipEntity, Long id) {
+        final ClassInfo classInfo = metaData.classInfo(relationshipEntity);
+        Object startNode = classInfo.getStartNodeReader().read(relationshipEntity);
+        Object endNode = classInfo.getEndNodeReader().read(relationshipEntity);
+        if (startNode != null) {
+            relationshipEntitiesByNode.computeIfAbsent(startNode, k -> new HashSet<>()).add(id);
+        }
+        if (endNode != null) {
+            relationshipEntitiesByNode.computeIfAbsent(endNode, k -> new HashSet<>()).add(id);
+        }
+        // unindexed by the nodes it has been indexed with, even if the relationship entity is re-pointed later
+        relationshipEntityEndpoints.put(id, new Object[] { startNode, endNode });
+    }
+
+    private void unindexRelationshipEntity(Long id) {
+        Object[] endpoints = relationshipEntityEndpoints.remove(id);
+        if (endpoints != null) {
+            removeFromRelationshipEntityIndex(endpoints[0], id);
+            removeFromRelationshipEntityIndex(endpoints[1], id);
+        }
+    }
+
+    private void removeFromRelationshipEntityIndex(Object startOrEndEntity, Long id) {
+        if (startOrEndEntity == null) {
+            return;
+        }
+        Set<Long> relationshipEntityIds = relationshipEntitiesByNode.get(startOrEndEntity);
+        if (relationshipEntityIds != null) {
+            relationshipEntityIds.remove(id);
+            if (relationshipEntityIds.isEmpty()) {
+                relationshipEntitiesByNode.remove(startOrEndEntity);
+            }
+        }
+    }
+
+    private Object removeFromRelationshipEntityRegister(Long id) {
+        Object relationshipEntity = relationshipEntityRegister.remove(id);
+        if (relationshipEntity != null) {
+            unindexRelationshipEntity(id);
+            unindexType(relationshipEntityIdsByType, relationshipEntity, id);
+        }
+        return relationshipEntity;
+    }
+
     private void purge(Object entity, Class type) {
 
         Long id = nativeId(entity);
@@ -461,7 +951,7 @@ public class MappingContext {
                 removeAllInAndOutcomingRelationshipsOf(id);
             }
         } else if (relationshipEntityRegister.containsKey(id)) {
-            relationshipEntityRegister.remove(id);
+            removeFromRelationshipEntityRegister(id);
             final ClassInfo classInfo = metaData.classInfo(entity);
             FieldInfo startNodeReader = classInfo.getStartNodeReader();
             Object startNode = startNodeReader.read(entity);
@@ -474,23 +964,24 @@ public class MappingContext {
 
     private void removeAllInAndOutcomingRelationshipsOf(Long id) {
 
+        Set<MappedRelationship> relationshipsOfNode = relationshipsByNode.get(id);
+        if (relationshipsOfNode == null) {
+            return;
+        }
+
         Set<Object> relEntitiesToPurge = new HashSet<>();
-        Iterator<MappedRelationship> mappedRelationshipIterator = relationshipRegister.iterator();
-        while (mappedRelationshipIterator.hasNext()) {
-            MappedRelationship mappedRelationship = mappedRelationshipIterator.next();
-            if (mappedRelationship.getStartNodeId() == id || mappedRelationship.getEndNodeId() == id) {
-
-                // first purge any RE mappings (if its a RE)
-                if (mappedRelationship.getRelationshipId() != null) {
-                    Object relEntity = relationshipEntityRegister
-                        .get(mappedRelationship.getRelationshipId());
-                    if (relEntity != null) {
-                        relEntitiesToPurge.add(relEntity);
-                    }
+        for (MappedRelationship mappedRelationship : new ArrayList<>(relationshipsOfNode)) {
+
+            // first purge any RE mappings (if its a RE)
+            if (mappedRelationship.getRelationshipId() != null) {
+                Object relEntity = relationshipEntityRegister
+                    .get(mappedRelationship.getRelationshipId());
+                if (relEntity != null) {
+                    relEntitiesToPurge.add(relEntity);
                 }
-                // finally remove the mapped relationship
-                mappedRelationshipIterator.remove();
             }
+            // finally remove the mapped relationship
+            removeRelationship(mappedRelationship);
         }
 
         // Purge the relationship entities.
@@ -501,7 +992,12 @@ public class MappingContext {
     }
 
     private void remember(Object entity, Long id) {
-        identityMap.remember(entity, id);
+        if (trackChanges) {
+            identityMap.remember(entity, id);
+        }
+        if (trackReferences && entity instanceof DirtyTracking) {
+            dirtyTrackingEntities.add(entity);
+        }
     }
 
     public Long nativeId(Object entity) {
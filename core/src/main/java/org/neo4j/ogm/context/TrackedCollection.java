@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.context;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * A collection of related node entities hydrated into a relationship field, that records the elements added to or
+ * removed from it since the relationships it holds have last been in sync with the graph. A save then only needs to
+ * look at the recorded elements to find out which relationships to create or delete, instead of comparing the whole
+ * collection with the relationships known to the mapping context.
+ * <br>
+ * Changes are only recorded for the entity the collection has been hydrated for. Collections assigned to a relationship
+ * field by the user are compared in full, as before.
+ */
+interface TrackedCollection<E> extends Collection<E> {
+
+    /**
+     * @param entity an entity
+     * @return true if this collection has been hydrated into a relationship field of the given entity
+     */
+    boolean isOwnedBy(Object entity);
+
+    /**
+     * @return true if all elements added or removed since the last sync with the graph have been recorded
+     */
+    boolean isTrackingChanges();
+
+    /**
+     * @return the elements added or removed since the last sync with the graph, compared by identity
+     */
+    Set<Object> getChangedElements();
+
+    /**
+     * Forgets the recorded changes after they have been saved and (again) tracks all further changes.
+     */
+    void changesSaved();
+
+    /**
+     * Stops tracking changes until the next save, because changes might not have been recorded or applied.
+     */
+    void stopTrackingChanges();
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.context;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * An {@link ArrayList} of related entities recording the elements added or removed. See {@link TrackedCollection}.
+ * Changes made through a sub list are not recorded, tracking stops as soon as a sub list is requested.
+ */
+final class TrackedList<E> extends ArrayList<E> implements TrackedCollection<E> {
+
+    private static final long serialVersionUID = 5117285264376316412L;
+
+    private transient CollectionChanges changes;
+
+    TrackedList(Collection<? extends E> elements, CollectionChanges changes) {
+        super(elements);
+        this.changes = changes;
+    }
+
+    @Override
+    public boolean isOwnedBy(Object entity) {
+        return changes != null && changes.isOwnedBy(entity);
+    }
+
+    @Override
+    public boolean isTrackingChanges() {
+        return changes != null && changes.isTracking();
+    }
+
+    @Override
+    public Set<Object> getChangedElements() {
+        return changes.getChangedElements();
+    }
+
+    @Override
+    public void changesSaved() {
+        changes.saved();
+    }
+
+    @Override
+    public void stopTrackingChanges() {
+        changes.stopTracking();
+    }
+
+    @Override
+    public boolean add(E element) {
+        changed(element);
+        return super.add(element);
+    }
+
+    @Override
+    public void add(int index, E element) {
+        changed(element);
+        super.add(index, element);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> elements) {
+        changedAll(elements);
+        return super.addAll(elements);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> elements) {
+        changedAll(elements);
+        return super.addAll(index, elements);
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E previousElement = super.set(index, element);
+        changed(previousElement);
+        changed(element);
+        return previousElement;
+    }
+
+    @Override
+    public E remove(int index) {
+        E element = super.remove(index);
+        changed(element);
+        return element;
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        // the element removed may be an equal but different instance than the one given
+        int index = indexOf(element);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> elements) {
+        Objects.requireNonNull(elements);
+        return removeIf(elements::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> elements) {
+        Objects.requireNonNull(elements);
+        return removeIf(element -> !elements.contains(element));
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        return super.removeIf(element -> {
+            if (filter.test(element)) {
+                changed(element);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            changed(get(i));
+        }
+        super.removeRange(fromIndex, toIndex);
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<E> operator) {
+        changedAll(this);
+        super.replaceAll(operator);
+        changedAll(this);
+    }
+
+    @Override
+    public void clear() {
+        changedAll(this);
+        super.clear();
+    }
+
+    @Override
+    public List<E> subList(int fromIndex, int toIndex) {
+        if (changes != null) {
+            changes.stopTracking();
+        }
+        return super.subList(fromIndex, toIndex);
+    }
+
+    private void changed(Object element) {
+        // elements added while the list is being created are not changes
+        if (changes != null) {
+            changes.changed(element);
+        }
+    }
+
+    private void changedAll(Iterable<?> elements) {
+        if (changes != null) {
+            changes.changedAll(elements);
+        }
+    }
+}
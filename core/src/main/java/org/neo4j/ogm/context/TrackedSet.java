@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.context;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link HashSet} of related entities recording the elements added or removed. See {@link TrackedCollection}.
+ */
+final class TrackedSet<E> extends HashSet<E> implements TrackedCollection<E> {
+
+    private static final long serialVersionUID = -3318209436290867375L;
+
+    /**
+     * Whether instances of a class may be equal to other instances. Only then the set needs to be searched for the
+     * instance actually removed.
+     */
+    private static final ClassValue<Boolean> VALUE_EQUALITY = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+            } catch (NoSuchMethodException e) {
+                return true;
+            }
+        }
+    };
+
+    private transient CollectionChanges changes;
+
+    TrackedSet(Collection<? extends E> elements, CollectionChanges changes) {
+        super(elements);
+        this.changes = changes;
+    }
+
+    @Override
+    public boolean isOwnedBy(Object entity) {
+        return changes != null && changes.isOwnedBy(entity);
+    }
+
+    @Override
+    public boolean isTrackingChanges() {
+        return changes != null && changes.isTracking();
+    }
+
+    @Override
+    public Set<Object> getChangedElements() {
+        return changes.getChangedElements();
+    }
+
+    @Override
+    public void changesSaved() {
+        changes.saved();
+    }
+
+    @Override
+    public void stopTrackingChanges() {
+        changes.stopTracking();
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (super.add(element)) {
+            changed(element);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        if (changes == null || element == null || !VALUE_EQUALITY.get(element.getClass())) {
+            if (super.remove(element)) {
+                changed(element);
+                return true;
+            }
+            return false;
+        }
+        // the element removed may be an equal but different instance than the one given
+        for (Iterator<E> iterator = iterator(); iterator.hasNext(); ) {
+            if (Objects.equals(iterator.next(), element)) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        if (changes != null) {
+            changes.changedAll(this);
+        }
+        super.clear();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<E> iterator = super.iterator();
+        return new Iterator<E>() {
+
+            private E current;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public E next() {
+                current = iterator.next();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                changed(current);
+            }
+        };
+    }
+
+    private void changed(Object element) {
+        // elements added while the set is being created are not changes
+        if (changes != null) {
+            changes.changed(element);
+        }
+    }
+}
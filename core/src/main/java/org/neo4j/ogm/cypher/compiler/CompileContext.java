@@ -19,6 +19,7 @@
 package org.neo4j.ogm.cypher.compiler;
 
 import java.util.Collection;
+import java.util.function.Function;
 
 import org.neo4j.ogm.compiler.SrcTargetKey;
 import org.neo4j.ogm.context.Mappable;
@@ -31,6 +32,20 @@ import org.neo4j.ogm.context.Mappable;
  */
 public interface CompileContext {
 
+    /**
+     * Sets the source of the relationships already known to exist in the graph. Instead of registering all of them
+     * upfront, the relationships of a node are registered the first time the node is touched while compiling.
+     *
+     * @param knownRelationshipsOfNode function returning the known relationships having the node with the given
+     *                                 native id as start or end node
+     */
+    void setKnownRelationships(Function<Long, ? extends Collection<? extends Mappable>> knownRelationshipsOfNode);
+
+    /**
+     * @return the native ids of the nodes whose known relationships have been registered with this context
+     */
+    Collection<Long> getNodesWithKnownRelationships();
+
     void registerRelationship(Mappable mappable);
 
     boolean removeRegisteredRelationship(Mappable mappable);
@@ -62,6 +77,17 @@ public interface CompileContext {
 
     boolean deregisterOutgoingRelationships(Long identity, String type, Class endNodeType);
 
+    /**
+     * Marks a single relationship existing in the graph as deleted, leaving the other relationships of its nodes
+     * alone. Of the relationships known for its nodes, only the ones of the given node are registered, which should
+     * be the node with fewer relationships.
+     *
+     * @param relationship the relationship to mark as deleted
+     * @param nodeId       the native id of the start or end node of the relationship
+     * @return true if the relationship was marked as deleted, false if it already has been
+     */
+    boolean deregisterRelationship(Mappable relationship, Long nodeId);
+
     Object getNewObject(Long id);
 
     Compiler getCompiler();
@@ -74,7 +100,29 @@ public interface CompileContext {
 
     Collection<Mappable> getDeletedRelationships();
 
+    /**
+     * Registers an entity at either end of a relationship that is deleted by the statements compiled. The entity may
+     * be removed from the mapping context before the statements are executed, so it is kept here.
+     *
+     * @param entity the entity at the start or end of a deleted relationship
+     */
+    void registerEndOfDeletedRelationship(Object entity);
+
+    /**
+     * @return the entities at the ends of the relationships deleted by the statements compiled
+     */
+    Collection<Object> getEndsOfDeletedRelationships();
+
+    /**
+     * @param reference the compiler's reference of a visited node, i.e. its native id or a negative id if it is new
+     * @return the entity visited as that node or null
+     */
     Object getVisitedObject(Long reference);
 
+    /**
+     * @return all entities visited as nodes
+     */
+    Collection<Object> getVisitedObjects();
+
     Collection<Object> getTransientRelationships(SrcTargetKey key);
 }
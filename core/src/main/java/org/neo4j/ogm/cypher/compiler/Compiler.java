@@ -20,6 +20,7 @@ package org.neo4j.ogm.cypher.compiler;
 
 import java.util.List;
 
+import org.neo4j.ogm.cypher.compiler.builders.statement.StatementTemplateCache;
 import org.neo4j.ogm.request.Statement;
 import org.neo4j.ogm.request.StatementFactory;
 
@@ -101,6 +102,16 @@ public interface Compiler {
      */
     List<Statement> createRelationshipsStatements();
 
+    /**
+     * Returns Cypher statements that create the new nodes and all new relationships. Unlike executing
+     * {@link #createNodesStatements()} before {@link #createRelationshipsStatements()}, the ids of the new nodes don't
+     * need to be known upfront: A single statement creates the new nodes together with the relationships depending on
+     * them. The statements don't respect the maximum number of rows per statement.
+     *
+     * @return A {@link List} of Cypher queries to be executed or an empty list if there aren't any, never <code>null</code>
+     */
+    List<Statement> createNodesAndRelationshipsStatements();
+
     /**
      * Retrieves the Cypher statements that update nodes built up through this {@link Compiler}.
      *
@@ -161,4 +172,29 @@ public interface Compiler {
      * @param statementFactory The {@link StatementFactory}
      */
     void useStatementFactory(StatementFactory statementFactory);
+
+    /**
+     * Specify the maximum number of rows a single {@link Statement} produced by this {@link Compiler} may carry.
+     * Larger groups of nodes or relationships are split into several statements with the same Cypher.
+     *
+     * @param maxRowsPerStatement The maximum number of rows, values less than or equal to zero mean unbounded
+     */
+    void useMaxRowsPerStatement(int maxRowsPerStatement);
+
+    /**
+     * Specify the {@link StatementTemplateCache} from which this {@link Compiler} takes the Cypher of the
+     * {@link Statement}s it produces. By default, the Cypher is built anew for every {@link Statement}.
+     *
+     * @param statementTemplates The {@link StatementTemplateCache}
+     */
+    void useStatementTemplates(StatementTemplateCache statementTemplates);
+
+    /**
+     * Specify whether this {@link Compiler} orders the rows of its {@link Statement}s by the native ids of the nodes
+     * they touch, and statements of the same kind by label or relationship type. Concurrent saves then lock
+     * overlapping nodes in the same order.
+     *
+     * @param orderedRows true to order rows and statements, false to keep the order in which they were compiled
+     */
+    void useOrderedRows(boolean orderedRows);
 }
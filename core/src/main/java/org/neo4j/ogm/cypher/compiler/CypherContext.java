@@ -22,7 +22,6 @@ import static java.util.Collections.*;
 
 import java.util.*;
 import java.util.function.Function;
-import java.util.function.Predicate;
 
 import org.neo4j.ogm.compiler.SrcTargetKey;
 import org.neo4j.ogm.context.Mappable;
@@ -39,13 +38,21 @@ import org.neo4j.ogm.context.Mappable;
 public class CypherContext implements CompileContext {
 
     private final Map<Object, NodeBuilderHorizonPair> visitedObjects = new IdentityHashMap<>();
+    private final Map<Long, Object> visitedObjectsByReference = new HashMap<>();
     private final Set<Long> visitedRelationshipEntities = new HashSet<>();
 
     private final Map<Long, Object> createdObjectsWithId = new HashMap<>();
     private final Map<Long, Long> newNodeIds = new HashMap<>();
 
     private final Set<Mappable> registeredRelationships = new HashSet<>();
+    // registered relationships by the native id of their start node respectively end node and their type
+    private final Map<NodeAndType, Set<Mappable>> registeredOutgoingRelationships = new HashMap<>();
+    private final Map<NodeAndType, Set<Mappable>> registeredIncomingRelationships = new HashMap<>();
     private final Set<Mappable> deletedRelationships = new HashSet<>();
+    private final Set<Object> endsOfDeletedRelationships = newSetFromMap(new IdentityHashMap<>());
+
+    private Function<Long, ? extends Collection<? extends Mappable>> knownRelationshipsOfNode = id -> emptySet();
+    private final Set<Long> nodesWithKnownRelationships = new HashSet<>();
 
     private final Set<Object> registry = new HashSet<>();
     private final Map<SrcTargetKey, Set<Object>> transientRelsIndex = new HashMap<>();
@@ -64,14 +71,86 @@ public class CypherContext implements CompileContext {
     @Override
     public void visit(Object entity, NodeBuilder nodeBuilder, int horizon) {
         this.visitedObjects.put(entity, new NodeBuilderHorizonPair(nodeBuilder, horizon));
+        this.visitedObjectsByReference.put(nodeBuilder.reference(), entity);
+    }
+
+    @Override
+    public void setKnownRelationships(
+        Function<Long, ? extends Collection<? extends Mappable>> relationshipsOfNode) {
+        this.knownRelationshipsOfNode = relationshipsOfNode;
+        this.nodesWithKnownRelationships.clear();
+    }
+
+    @Override
+    public Collection<Long> getNodesWithKnownRelationships() {
+        return Collections.unmodifiableSet(nodesWithKnownRelationships);
     }
 
     public void registerRelationship(Mappable mappedRelationship) {
-        this.registeredRelationships.add(mappedRelationship);
+        registerKnownRelationshipsOf(mappedRelationship);
+        addRegisteredRelationship(mappedRelationship);
     }
 
     public boolean removeRegisteredRelationship(Mappable mappedRelationship) {
-        return this.registeredRelationships.remove(mappedRelationship);
+        registerKnownRelationshipsOf(mappedRelationship);
+        return deleteRegisteredRelationship(mappedRelationship);
+    }
+
+    private void addRegisteredRelationship(Mappable mappedRelationship) {
+        if (this.registeredRelationships.add(mappedRelationship)) {
+            registeredOutgoingRelationships
+                .computeIfAbsent(NodeAndType.outgoing(mappedRelationship), k -> new HashSet<>())
+                .add(mappedRelationship);
+            registeredIncomingRelationships
+                .computeIfAbsent(NodeAndType.incoming(mappedRelationship), k -> new HashSet<>())
+                .add(mappedRelationship);
+        }
+    }
+
+    private boolean deleteRegisteredRelationship(Mappable mappedRelationship) {
+        if (!this.registeredRelationships.remove(mappedRelationship)) {
+            return false;
+        }
+        unindex(registeredOutgoingRelationships, NodeAndType.outgoing(mappedRelationship), mappedRelationship);
+        unindex(registeredIncomingRelationships, NodeAndType.incoming(mappedRelationship), mappedRelationship);
+        return true;
+    }
+
+    private static void unindex(Map<NodeAndType, Set<Mappable>> index, NodeAndType key, Mappable mappedRelationship) {
+        Set<Mappable> relationships = index.get(key);
+        if (relationships != null) {
+            relationships.remove(mappedRelationship);
+            if (relationships.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private void registerKnownRelationshipsOf(Mappable mappedRelationship) {
+        if (!nodesWithKnownRelationships.contains(mappedRelationship.getEndNodeId())) {
+            registerKnownRelationshipsOf(mappedRelationship.getStartNodeId());
+        }
+    }
+
+    /**
+     * Registers the known relationships of the given node once. A relationship whose other node already had its
+     * known relationships registered is skipped, as it has been registered back then and may have been
+     * deregistered since.
+     *
+     * @param nodeId the native id of the node
+     */
+    private void registerKnownRelationshipsOf(Long nodeId) {
+        if (nodeId == null || !nodesWithKnownRelationships.add(nodeId)) {
+            return;
+        }
+        for (Mappable knownRelationship : knownRelationshipsOfNode.apply(nodeId)) {
+            long otherNodeId = knownRelationship.getStartNodeId() == nodeId ?
+                knownRelationship.getEndNodeId() :
+                knownRelationship.getStartNodeId();
+            if (otherNodeId == nodeId || !nodesWithKnownRelationships.contains(otherNodeId)) {
+                addRegisteredRelationship(knownRelationship);
+            }
+        }
     }
 
     @Override
@@ -128,7 +207,7 @@ public class CypherContext implements CompileContext {
      */
     public boolean deregisterOutgoingRelationships(Long src, String relationshipType, Class endNodeType) {
 
-        return deregisterRelationshipsImpl(src, relationshipType, endNodeType, Mappable::getStartNodeId,
+        return deregisterRelationshipsImpl(src, relationshipType, endNodeType, registeredOutgoingRelationships,
             Mappable::getEndNodeType);
     }
 
@@ -155,52 +234,57 @@ public class CypherContext implements CompileContext {
             Mappable::getEndNodeType :
             Mappable::getStartNodeType;
 
-        return deregisterRelationshipsImpl(tgt, relationshipType, endNodeType, Mappable::getEndNodeId,
+        return deregisterRelationshipsImpl(tgt, relationshipType, endNodeType, registeredIncomingRelationships,
             endNodeTypeExtractor);
     }
 
+    @Override
+    public boolean deregisterRelationship(Mappable relationship, Long nodeId) {
+        registerKnownRelationshipsOf(nodeId);
+        if (isAlreadyDeleted(relationship) || !deleteRegisteredRelationship(relationship)) {
+            return false;
+        }
+        deletedRelationships.add(relationship);
+        return true;
+    }
+
     /**
      * Shared implementation for deregistering relationships for both
      * {@link #deregisterIncomingRelationships(Long, String, Class, boolean)} and
-     * {@link #deregisterOutgoingRelationships(Long, String, Class)} methods. The extractors passed to this method here
-     * are used to extract the relevant information of all candidates that might need to be deregistered. Candidates are
-     * all registered relationships.
+     * {@link #deregisterOutgoingRelationships(Long, String, Class)} methods. Candidates are the registered relationships
+     * indexed under the given node and type in the index passed to this method, the extractor is used to extract the
+     * node type of the entity at the other end of a candidate.
      *
-     * @param nodeId                     the native id of the relationship to deregister
+     * @param nodeId                     the native id of the node of the relationships to deregister
      * @param relationshipType           the type of the relationship to deregister
      * @param endNodeType                the node type of the entity at the other end of the relationship to deregister
-     * @param candidateNodeIdExtractor   a function to extract the native id from a candidate relationship
+     * @param candidateIndex             the index of registered relationships by start or end node and type
      * @param candidateNodeTypeExtractor a function to extract the node type from a candidate relationship
      * @return true if the relationship was deleted or doesn't exist in the graph, false otherwise
      */
     private boolean deregisterRelationshipsImpl(Long nodeId, String relationshipType, Class endNodeType,
-        Function<Mappable, Long> candidateNodeIdExtractor,
+        Map<NodeAndType, Set<Mappable>> candidateIndex,
         Function<Mappable, Class> candidateNodeTypeExtractor) {
 
-        List<Mappable> boundForDeletion = new ArrayList<>();
-        Iterator<Mappable> candidatesForDeletion = this.registeredRelationships.iterator();
+        registerKnownRelationshipsOf(nodeId);
 
-        boolean existsInGraph = false;
-        while (candidatesForDeletion.hasNext()) {
-
-            Mappable candidate = candidatesForDeletion.next();
-
-            long candidateNodeId = candidateNodeIdExtractor.apply(candidate);
-            String candidateRelationshipType = candidate.getRelationshipType();
-            Class candidateNodeType = candidateNodeTypeExtractor.apply(candidate);
-
-            if (candidateNodeId == nodeId &&
-                candidateRelationshipType.equals(relationshipType) &&
-                candidateNodeType.equals(endNodeType)) {
+        Set<Mappable> candidates = candidateIndex.get(new NodeAndType(nodeId, relationshipType));
+        if (candidates == null) {
+            return true;
+        }
 
+        List<Mappable> boundForDeletion = new ArrayList<>();
+        boolean existsInGraph = false;
+        for (Mappable candidate : candidates) {
+            if (candidateNodeTypeExtractor.apply(candidate).equals(endNodeType)) {
                 existsInGraph = true;
                 if (!isAlreadyDeleted(candidate)) {
                     boundForDeletion.add(candidate);
-                    candidatesForDeletion.remove();
                 }
             }
         }
 
+        boundForDeletion.forEach(this::deleteRegisteredRelationship);
         this.deletedRelationships.addAll(boundForDeletion);
         boolean aCandidateMarkedForDeletion = !boundForDeletion.isEmpty();
 
@@ -241,9 +325,24 @@ public class CypherContext implements CompileContext {
         return deletedRelationships;
     }
 
+    @Override
+    public void registerEndOfDeletedRelationship(Object entity) {
+        endsOfDeletedRelationships.add(entity);
+    }
+
+    @Override
+    public Collection<Object> getEndsOfDeletedRelationships() {
+        return Collections.unmodifiableSet(endsOfDeletedRelationships);
+    }
+
     @Override
     public Object getVisitedObject(Long reference) {
-        return visitedObjects.get(reference);
+        return visitedObjectsByReference.get(reference);
+    }
+
+    @Override
+    public Collection<Object> getVisitedObjects() {
+        return Collections.unmodifiableSet(visitedObjects.keySet());
     }
 
     @Override
@@ -264,9 +363,46 @@ public class CypherContext implements CompileContext {
      * @return True if {@code mappedRelationship} was already marked as deleted
      */
     private boolean isAlreadyDeleted(Mappable mappedRelationship) {
+        return deletedRelationships.contains(mappedRelationship);
+    }
+
+    /**
+     * Key of the registered relationships having a given node as start respectively end node and a given type.
+     */
+    private static final class NodeAndType {
+
+        private final Long nodeId;
+        private final String type;
+
+        private NodeAndType(Long nodeId, String type) {
+            this.nodeId = nodeId;
+            this.type = type;
+        }
+
+        static NodeAndType outgoing(Mappable mappedRelationship) {
+            return new NodeAndType(mappedRelationship.getStartNodeId(), mappedRelationship.getRelationshipType());
+        }
+
+        static NodeAndType incoming(Mappable mappedRelationship) {
+            return new NodeAndType(mappedRelationship.getEndNodeId(), mappedRelationship.getRelationshipType());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof NodeAndType)) {
+                return false;
+            }
+            NodeAndType that = (NodeAndType) o;
+            return Objects.equals(nodeId, that.nodeId) && Objects.equals(type, that.type);
+        }
 
-        Predicate<Mappable> describesSameRelationship = mappedRelationship::equals;
-        return deletedRelationships.stream().anyMatch(describesSameRelationship);
+        @Override
+        public int hashCode() {
+            return Objects.hash(nodeId, type);
+        }
     }
 
     private static class NodeBuilderHorizonPair {
@@ -21,12 +21,17 @@ package org.neo4j.ogm.cypher.compiler;
 import static java.util.stream.Collectors.*;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -37,7 +42,9 @@ import org.neo4j.ogm.cypher.compiler.builders.statement.DeletedRelationshipState
 import org.neo4j.ogm.cypher.compiler.builders.statement.ExistingNodeStatementBuilder;
 import org.neo4j.ogm.cypher.compiler.builders.statement.ExistingRelationshipStatementBuilder;
 import org.neo4j.ogm.cypher.compiler.builders.statement.NewNodeStatementBuilder;
+import org.neo4j.ogm.cypher.compiler.builders.statement.NewNodesAndRelationshipsStatementBuilder;
 import org.neo4j.ogm.cypher.compiler.builders.statement.NewRelationshipStatementBuilder;
+import org.neo4j.ogm.cypher.compiler.builders.statement.StatementTemplateCache;
 import org.neo4j.ogm.exception.core.UnknownStatementTypeException;
 import org.neo4j.ogm.model.Edge;
 import org.neo4j.ogm.model.Node;
@@ -53,6 +60,20 @@ import org.neo4j.ogm.response.model.RelationshipModel;
  */
 public class MultiStatementCypherCompiler implements Compiler {
 
+    /**
+     * Order of node rows taking locks, by native id.
+     */
+    private static final Comparator<Node> NODE_LOCK_ORDER = Comparator.comparing(Node::getId);
+
+    /**
+     * Order of relationship rows taking locks, by the smaller and then the larger native id of their nodes.
+     */
+    private static final Comparator<Edge> EDGE_LOCK_ORDER = Comparator
+        .comparing((Edge edge) -> Math.min(edge.getStartNode(), edge.getEndNode()))
+        .thenComparing(edge -> Math.max(edge.getStartNode(), edge.getEndNode()))
+        .thenComparing(Edge::getStartNode)
+        .thenComparing(Edge::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
     private final CompileContext context;
     private final List<NodeBuilder> newNodeBuilders;
     private final List<RelationshipBuilder> newRelationshipBuilders;
@@ -61,6 +82,9 @@ public class MultiStatementCypherCompiler implements Compiler {
     private final List<RelationshipBuilder> deletedRelationshipBuilders;
     private final List<RelationshipBuilder> deletedRelationshipEntityBuilders;
     private StatementFactory statementFactory;
+    private int maxRowsPerStatement;
+    private boolean orderedRows;
+    private StatementTemplateCache statementTemplates = StatementTemplateCache.NONE;
 
     public MultiStatementCypherCompiler() {
         this.context = new CypherContext(this);
@@ -128,9 +152,12 @@ public class MultiStatementCypherCompiler implements Compiler {
         assertStatementFactoryExists();
         Map<String, Set<Node>> newNodesByLabels = groupNodesByLabel(newNodeBuilders);
         List<Statement> statements = new ArrayList<>(newNodesByLabels.size());
-        for (Set<Node> nodeModels : newNodesByLabels.values()) {
-            NewNodeStatementBuilder newNodeBuilder = new NewNodeStatementBuilder(nodeModels, statementFactory);
-            statements.add(newNodeBuilder.build());
+        for (Set<Node> nodeModels : ordered(newNodesByLabels, NODE_LOCK_ORDER)) {
+            for (Set<Node> rows : chunked(nodeModels)) {
+                NewNodeStatementBuilder newNodeBuilder = new NewNodeStatementBuilder(rows, statementFactory,
+                    statementTemplates);
+                statements.add(newNodeBuilder.build());
+            }
         }
 
         return statements;
@@ -139,37 +166,51 @@ public class MultiStatementCypherCompiler implements Compiler {
     @Override
     public List<Statement> createRelationshipsStatements() {
         assertStatementFactoryExists();
-        //Group relationships by type and non-null properties
-        //key: relationship type, value: Map where key=Set<Property strings>, value: Set of edges with those properties
-        Map<String, Map<String, Set<Edge>>> relsByTypeAndProps = new HashMap<>();
-        for (RelationshipBuilder relationshipBuilder : newRelationshipBuilders) {
-            if (relationshipBuilder.edge().getStartNode() == null || relationshipBuilder.edge().getEndNode() == null) {
-                continue; //TODO this is a carry forward from the old emitters. We want to prevent this rel builder getting created or remove it
+        Map<String, Map<String, Set<Edge>>> relsByTypeAndProps = groupRelationshipsByTypeAndProperties(
+            newRelationshipBuilders);
+
+        List<Statement> statements = new ArrayList<>();
+        //For each relationship type and set of unique property keys
+        for (Set<Edge> edges : ordered(relsByTypeAndProps)) {
+            for (Set<Edge> rows : chunked(edges)) {
+                NewRelationshipStatementBuilder newRelationshipBuilder = new NewRelationshipStatementBuilder(rows,
+                    statementFactory, statementTemplates);
+                statements.add(newRelationshipBuilder.build());
             }
-            Map<String, Set<Edge>> relsByProps = relsByTypeAndProps
-                .computeIfAbsent(relationshipBuilder.type(), (key) -> new HashMap<>());
+        }
 
-            RelationshipModel edge = (RelationshipModel) relationshipBuilder.edge();
+        return statements;
+    }
 
-            String primaryId = edge.getPrimaryIdName();
+    @Override
+    public List<Statement> createNodesAndRelationshipsStatements() {
+        assertStatementFactoryExists();
+        if (newNodeBuilders.isEmpty()) {
+            return createRelationshipsStatements();
+        }
 
-            Set<Edge> rels = relsByProps.computeIfAbsent(primaryId, (s) -> new HashSet<>());
-            edge.setStartNode(context.getId(edge.getStartNode()));
-            edge.setEndNode(context.getId(edge.getEndNode()));
-            rels.add(edge);
+        List<RelationshipBuilder> dependentRelationshipBuilders = new ArrayList<>();
+        List<RelationshipBuilder> independentRelationshipBuilders = new ArrayList<>();
+        for (RelationshipBuilder relationshipBuilder : newRelationshipBuilders) {
+            if (isDependentOnNewNodes(relationshipBuilder.edge())) {
+                dependentRelationshipBuilders.add(relationshipBuilder);
+            } else {
+                independentRelationshipBuilders.add(relationshipBuilder);
+            }
         }
 
+        List<Set<Edge>> dependentEdges = ordered(groupRelationshipsByTypeAndProperties(dependentRelationshipBuilders));
+
         List<Statement> statements = new ArrayList<>();
-        //For each relationship type
-        for (Map<String, Set<Edge>> edgesByProperties : relsByTypeAndProps.values()) {
-            //For each set of unique property keys
-            for (Set<Edge> edges : edgesByProperties.values()) {
-                NewRelationshipStatementBuilder newRelationshipBuilder = new NewRelationshipStatementBuilder(edges,
-                    statementFactory);
-                statements.add(newRelationshipBuilder.build());
+        statements.add(new NewNodesAndRelationshipsStatementBuilder(
+            ordered(groupNodesByLabel(newNodeBuilders), NODE_LOCK_ORDER), dependentEdges, statementFactory).build());
+
+        for (Set<Edge> edges : ordered(groupRelationshipsByTypeAndProperties(independentRelationshipBuilders))) {
+            for (Set<Edge> rows : chunked(edges)) {
+                statements.add(new NewRelationshipStatementBuilder(rows, statementFactory, statementTemplates)
+                    .build());
             }
         }
-
         return statements;
     }
 
@@ -179,10 +220,12 @@ public class MultiStatementCypherCompiler implements Compiler {
         Map<String, Set<Node>> existingNodesByLabels = groupNodesByLabel(existingNodeBuilders);
 
         List<Statement> statements = new ArrayList<>(existingNodesByLabels.size());
-        for (Set<Node> nodeModels : existingNodesByLabels.values()) {
-            ExistingNodeStatementBuilder existingNodeBuilder = new ExistingNodeStatementBuilder(nodeModels,
-                statementFactory);
-            statements.add(existingNodeBuilder.build());
+        for (Set<Node> nodeModels : ordered(existingNodesByLabels, NODE_LOCK_ORDER)) {
+            for (Set<Node> rows : chunked(nodeModels)) {
+                ExistingNodeStatementBuilder existingNodeBuilder = new ExistingNodeStatementBuilder(rows,
+                    statementFactory, statementTemplates);
+                statements.add(existingNodeBuilder.build());
+            }
         }
 
         return statements;
@@ -197,9 +240,14 @@ public class MultiStatementCypherCompiler implements Compiler {
             for (RelationshipBuilder relBuilder : existingRelationshipBuilders) {
                 relationships.add(relBuilder.edge());
             }
-            ExistingRelationshipStatementBuilder existingRelationshipBuilder = new ExistingRelationshipStatementBuilder(
-                relationships, statementFactory);
-            statements.add(existingRelationshipBuilder.build());
+            if (orderedRows) {
+                relationships = sorted(relationships, EDGE_LOCK_ORDER);
+            }
+            for (Set<Edge> rows : chunked(relationships)) {
+                ExistingRelationshipStatementBuilder existingRelationshipBuilder = new ExistingRelationshipStatementBuilder(
+                    rows, statementFactory, statementTemplates);
+                statements.add(existingRelationshipBuilder.build());
+            }
         }
         return statements;
     }
@@ -211,10 +259,12 @@ public class MultiStatementCypherCompiler implements Compiler {
         Map<String, Set<Edge>> deletedRelsByType = groupRelationshipsByType(deletedRelationshipBuilders);
         List<Statement> statements = new ArrayList<>();
 
-        for (Set<Edge> edges : deletedRelsByType.values()) {
-            DeletedRelationshipStatementBuilder deletedRelationshipBuilder = new DeletedRelationshipStatementBuilder(
-                edges, statementFactory);
-            statements.add(deletedRelationshipBuilder.build());
+        for (Set<Edge> edges : ordered(deletedRelsByType, EDGE_LOCK_ORDER)) {
+            for (Set<Edge> rows : chunked(edges)) {
+                DeletedRelationshipStatementBuilder deletedRelationshipBuilder = new DeletedRelationshipStatementBuilder(
+                    rows, statementFactory, statementTemplates);
+                statements.add(deletedRelationshipBuilder.build());
+            }
         }
         return statements;
     }
@@ -227,10 +277,12 @@ public class MultiStatementCypherCompiler implements Compiler {
 
         List<Statement> statements = new ArrayList<>();
 
-        for (Set<Edge> edges : deletedRelsByType.values()) {
-            DeletedRelationshipEntityStatementBuilder deletedRelationshipBuilder = new DeletedRelationshipEntityStatementBuilder(
-                edges, statementFactory);
-            statements.add(deletedRelationshipBuilder.build());
+        for (Set<Edge> edges : ordered(deletedRelsByType, EDGE_LOCK_ORDER)) {
+            for (Set<Edge> rows : chunked(edges)) {
+                DeletedRelationshipEntityStatementBuilder deletedRelationshipBuilder = new DeletedRelationshipEntityStatementBuilder(
+                    rows, statementFactory, statementTemplates);
+                statements.add(deletedRelationshipBuilder.build());
+            }
         }
         return statements;
     }
@@ -256,21 +308,105 @@ public class MultiStatementCypherCompiler implements Compiler {
     @Override
     public boolean hasStatementsDependentOnNewNodes() {
         for (RelationshipBuilder builder : newRelationshipBuilders) {
-            Edge edge = builder.edge();
-            //TODO the null check is a carry forward from the old cypher builders. We want to prevent this rel builder getting created or remove it
-            if ((edge.getStartNode() != null && edge.getStartNode() < 0)
-                || (edge.getEndNode() != null && edge.getEndNode() < 0)) {
+            if (isDependentOnNewNodes(builder.edge())) {
                 return true;
             }
         }
         return false;
     }
 
+    private static boolean isDependentOnNewNodes(Edge edge) {
+        //TODO the null check is a carry forward from the old cypher builders. We want to prevent this rel builder getting created or remove it
+        return (edge.getStartNode() != null && edge.getStartNode() < 0)
+            || (edge.getEndNode() != null && edge.getEndNode() < 0);
+    }
+
     @Override
     public void useStatementFactory(StatementFactory newStatementFactory) {
         this.statementFactory = newStatementFactory;
     }
 
+    @Override
+    public void useMaxRowsPerStatement(int newMaxRowsPerStatement) {
+        this.maxRowsPerStatement = newMaxRowsPerStatement;
+    }
+
+    @Override
+    public void useStatementTemplates(StatementTemplateCache newStatementTemplates) {
+        this.statementTemplates = newStatementTemplates;
+    }
+
+    @Override
+    public void useOrderedRows(boolean newOrderedRows) {
+        this.orderedRows = newOrderedRows;
+    }
+
+    /**
+     * Returns the groups of rows, each becoming one or more statements. If rows are ordered, the groups are returned
+     * in the order of their keys, i.e. label signatures or relationship types, and the rows of each group in the
+     * given order, so that concurrent saves take their locks in the same order.
+     *
+     * @param groups   the groups of rows by label signature or relationship type
+     * @param rowOrder the order of the rows within a group
+     * @param <T>      type of the rows
+     * @return the groups in the order they should be executed
+     */
+    private <T> List<Set<T>> ordered(Map<String, Set<T>> groups, Comparator<? super T> rowOrder) {
+        if (!orderedRows) {
+            return new ArrayList<>(groups.values());
+        }
+        List<Set<T>> orderedGroups = new ArrayList<>(groups.size());
+        for (Set<T> rows : new TreeMap<>(groups).values()) {
+            orderedGroups.add(sorted(rows, rowOrder));
+        }
+        return orderedGroups;
+    }
+
+    /**
+     * Flattens the groups of new relationships by type and properties, ordered as by
+     * {@link #ordered(Map, Comparator)}.
+     *
+     * @param relsByTypeAndProps the groups as returned by {@link #groupRelationshipsByTypeAndProperties(List)}
+     * @return the groups in the order they should be executed
+     */
+    private List<Set<Edge>> ordered(Map<String, Map<String, Set<Edge>>> relsByTypeAndProps) {
+        Collection<Map<String, Set<Edge>>> relsByProps = orderedRows ?
+            new TreeMap<>(relsByTypeAndProps).values() :
+            relsByTypeAndProps.values();
+        List<Set<Edge>> groups = new ArrayList<>();
+        relsByProps.forEach(edgesByProperties -> groups.addAll(ordered(edgesByProperties, EDGE_LOCK_ORDER)));
+        return groups;
+    }
+
+    private static <T> Set<T> sorted(Set<T> rows, Comparator<? super T> rowOrder) {
+        List<T> sortedRows = new ArrayList<>(rows);
+        sortedRows.sort(rowOrder);
+        return new LinkedHashSet<>(sortedRows);
+    }
+
+    /**
+     * Splits the rows of one statement into chunks not exceeding the configured maximum number of rows per statement.
+     *
+     * @param rows the rows sharing the same statement
+     * @param <T>  type of the rows
+     * @return the chunks, a single one holding all rows if the number of rows per statement is unbounded
+     */
+    private <T> List<Set<T>> chunked(Set<T> rows) {
+        if (maxRowsPerStatement <= 0 || rows.size() <= maxRowsPerStatement) {
+            return Collections.singletonList(rows);
+        }
+        List<Set<T>> chunks = new ArrayList<>(rows.size() / maxRowsPerStatement + 1);
+        Set<T> chunk = null;
+        for (T row : rows) {
+            if (chunk == null || chunk.size() == maxRowsPerStatement) {
+                chunk = new LinkedHashSet<>();
+                chunks.add(chunk);
+            }
+            chunk.add(row);
+        }
+        return chunks;
+    }
+
     private boolean unmap(RelationshipBuilder relationshipBuilder) {
         boolean unmapped = false;
         Iterator<RelationshipBuilder> relIterator = newRelationshipBuilders.iterator();
@@ -307,6 +443,34 @@ public class MultiStatementCypherCompiler implements Compiler {
             .collect(groupingBy(Node::labelSignature, Collectors.mapping(Function.identity(), Collectors.toSet())));
     }
 
+    /**
+     * Groups relationships by type, primary id and whether they have properties at all, as those define the statement.
+     *
+     * @param relationshipBuilders the builders of the new relationships
+     * @return key: relationship type, value: Map where key=primary id and properties flag, value: Set of edges
+     */
+    private Map<String, Map<String, Set<Edge>>> groupRelationshipsByTypeAndProperties(
+        List<RelationshipBuilder> relationshipBuilders) {
+        Map<String, Map<String, Set<Edge>>> relsByTypeAndProps = new HashMap<>();
+        for (RelationshipBuilder relationshipBuilder : relationshipBuilders) {
+            if (relationshipBuilder.edge().getStartNode() == null || relationshipBuilder.edge().getEndNode() == null) {
+                continue; //TODO this is a carry forward from the old emitters. We want to prevent this rel builder getting created or remove it
+            }
+            Map<String, Set<Edge>> relsByProps = relsByTypeAndProps
+                .computeIfAbsent(relationshipBuilder.type(), (key) -> new HashMap<>());
+
+            RelationshipModel edge = (RelationshipModel) relationshipBuilder.edge();
+
+            String signature = edge.getPrimaryIdName() + "," + !edge.getPropertyList().isEmpty();
+
+            Set<Edge> rels = relsByProps.computeIfAbsent(signature, (s) -> new HashSet<>());
+            edge.setStartNode(context.getId(edge.getStartNode()));
+            edge.setEndNode(context.getId(edge.getEndNode()));
+            rels.add(edge);
+        }
+        return relsByTypeAndProps;
+    }
+
     private Map<String, Set<Edge>> groupRelationshipsByType(List<RelationshipBuilder> relationshipBuilders) {
         Map<String, Set<Edge>> relsByType = new HashMap<>();
         for (RelationshipBuilder relationshipBuilder : relationshipBuilders) {
@@ -19,6 +19,7 @@
 package org.neo4j.ogm.cypher.compiler.builders.statement;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,26 +42,31 @@ public class DeletedRelationshipEntityStatementBuilder extends BaseBuilder imple
 
     private final Set<Edge> deletedEdges;
 
+    private final StatementTemplateCache templates;
+
     public DeletedRelationshipEntityStatementBuilder(Set<Edge> deletedEdges, StatementFactory statementFactory) {
+        this(deletedEdges, statementFactory, StatementTemplateCache.NONE);
+    }
+
+    public DeletedRelationshipEntityStatementBuilder(Set<Edge> deletedEdges, StatementFactory statementFactory,
+        StatementTemplateCache templates) {
         this.deletedEdges = deletedEdges;
         this.statementFactory = statementFactory;
+        this.templates = templates;
     }
 
     @Override
     public Statement build() {
 
         final Map<String, Object> parameters = new HashMap<>();
-        final StringBuilder queryBuilder = new StringBuilder();
+        String query = "";
 
         if (deletedEdges != null && deletedEdges.size() > 0) {
             Edge firstEdge = deletedEdges.iterator().next();
 
-            queryBuilder.append("UNWIND {rows} AS row MATCH ()-[r]-() WHERE ID(r) = row.relId ");
-
-            if (firstEdge.hasVersionProperty()) {
-                appendVersionPropertyCheck(queryBuilder, firstEdge, "r");
-            }
-            queryBuilder.append("DELETE r RETURN ID(r) as ref, ID(r) as id, {type} as type");
+            query = templates.get(Arrays.asList("deleted relationship entity",
+                firstEdge.hasVersionProperty() ? firstEdge.getVersion().getKey() : null),
+                () -> deletedRelationshipEntityQuery(firstEdge));
 
             List<Map> rows = new ArrayList<>();
             for (Edge edge : deletedEdges) {
@@ -78,10 +84,23 @@ public class DeletedRelationshipEntityStatementBuilder extends BaseBuilder imple
             if (firstEdge.hasVersionProperty()) {
                 OptimisticLockingConfig olConfig = new OptimisticLockingConfig(rows.size(),
                     new String[] { firstEdge.getType() }, firstEdge.getVersion().getKey());
-                return statementFactory.statement(queryBuilder.toString(), parameters, olConfig);
+                return statementFactory.statement(query, parameters, olConfig);
             }
         }
 
-        return statementFactory.statement(queryBuilder.toString(), parameters);
+        return statementFactory.statement(query, parameters);
+    }
+
+    private String deletedRelationshipEntityQuery(Edge firstEdge) {
+
+        final StringBuilder queryBuilder = new StringBuilder();
+
+        queryBuilder.append("UNWIND {rows} AS row MATCH ()-[r]-() WHERE ID(r) = row.relId ");
+
+        if (firstEdge.hasVersionProperty()) {
+            appendVersionPropertyCheck(queryBuilder, firstEdge, "r");
+        }
+        queryBuilder.append("DELETE r RETURN ID(r) as ref, ID(r) as id, {type} as type");
+        return queryBuilder.toString();
     }
 }
@@ -19,6 +19,7 @@
 package org.neo4j.ogm.cypher.compiler.builders.statement;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,24 +40,33 @@ public class DeletedRelationshipStatementBuilder implements CypherStatementBuild
 
     private final Set<Edge> deletedEdges;
 
+    private final StatementTemplateCache templates;
+
     public DeletedRelationshipStatementBuilder(Set<Edge> deletedEdges, StatementFactory statementFactory) {
+        this(deletedEdges, statementFactory, StatementTemplateCache.NONE);
+    }
+
+    public DeletedRelationshipStatementBuilder(Set<Edge> deletedEdges, StatementFactory statementFactory,
+        StatementTemplateCache templates) {
         this.deletedEdges = deletedEdges;
         this.statementFactory = statementFactory;
+        this.templates = templates;
     }
 
     @Override
     public Statement build() {
         final Map<String, Object> parameters = new HashMap<>();
-        final StringBuilder queryBuilder = new StringBuilder();
+        String query = "";
 
         if (deletedEdges != null && deletedEdges.size() > 0) {
             Edge firstEdge = deletedEdges.iterator().next();
 
-            queryBuilder.append("UNWIND {rows} as row ")
-                .append("MATCH (startNode) WHERE ID(startNode) = row.startNodeId WITH row,startNode ")
-                .append("MATCH (endNode) WHERE ID(endNode) = row.endNodeId ")
-                .append("MATCH (startNode)-[rel:`").append(firstEdge.getType()).append("`]->(endNode) ")
-                .append("DELETE rel");
+            query = templates.get(Arrays.asList("deleted relationship", firstEdge.getType()),
+                () -> "UNWIND {rows} as row "
+                    + "MATCH (startNode) WHERE ID(startNode) = row.startNodeId WITH row,startNode "
+                    + "MATCH (endNode) WHERE ID(endNode) = row.endNodeId "
+                    + "MATCH (startNode)-[rel:`" + firstEdge.getType() + "`]->(endNode) "
+                    + "DELETE rel");
 
             List<Map> rows = new ArrayList<>();
             for (Edge edge : deletedEdges) {
@@ -68,6 +78,6 @@ public class DeletedRelationshipStatementBuilder implements CypherStatementBuild
             parameters.put("rows", rows);
         }
 
-        return statementFactory.statement(queryBuilder.toString(), parameters);
+        return statementFactory.statement(query, parameters);
     }
 }
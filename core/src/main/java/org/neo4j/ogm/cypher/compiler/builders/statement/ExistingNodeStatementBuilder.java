@@ -19,6 +19,7 @@
 package org.neo4j.ogm.cypher.compiler.builders.statement;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,40 +42,38 @@ public class ExistingNodeStatementBuilder extends BaseBuilder implements CypherS
 
     private final Set<Node> existingNodes;
 
+    private final StatementTemplateCache templates;
+
     public ExistingNodeStatementBuilder(Set<Node> existingNodes, StatementFactory statementFactory) {
+        this(existingNodes, statementFactory, StatementTemplateCache.NONE);
+    }
+
+    public ExistingNodeStatementBuilder(Set<Node> existingNodes, StatementFactory statementFactory,
+        StatementTemplateCache templates) {
         this.existingNodes = existingNodes;
         this.statementFactory = statementFactory;
+        this.templates = templates;
     }
 
     @Override
     public Statement build() {
 
         final Map<String, Object> parameters = new HashMap<>();
-        final StringBuilder queryBuilder = new StringBuilder();
+        String query = "";
 
         if (existingNodes != null && existingNodes.size() > 0) {
             Node firstNode = existingNodes.iterator().next();
 
-            queryBuilder.append("UNWIND {rows} as row ")
-                .append("MATCH (n) WHERE ID(n)=row.nodeId ");
-
-            if (firstNode.hasVersionProperty()) {
-                appendVersionPropertyCheck(queryBuilder, firstNode, "n");
-            }
-
-            Set<String> previousDynamicLabels = firstNode.getPreviousDynamicLabels();
-            for (String label : previousDynamicLabels) {
-                queryBuilder.append(String.format(" REMOVE n:`%s` ", label));
-            }
-
-            queryBuilder.append(firstNode.createPropertyRemovalFragment("n"));
-
-            queryBuilder.append("SET n");
-            for (String label : firstNode.getLabels()) {
-                queryBuilder.append(":`").append(label).append("`");
+            String propertyRemovalFragment = firstNode.createPropertyRemovalFragment("n");
+            if (firstNode.getPreviousDynamicLabels().isEmpty() && propertyRemovalFragment.isEmpty()) {
+                query = templates.get(Arrays.asList("existing node", Arrays.asList(firstNode.getLabels()),
+                    firstNode.hasVersionProperty() ? firstNode.getVersion().getKey() : null),
+                    () -> existingNodeQuery(firstNode, propertyRemovalFragment));
+            } else {
+                // labels and properties to be removed depend on the data, so are not worth caching
+                query = existingNodeQuery(firstNode, propertyRemovalFragment);
             }
 
-            queryBuilder.append(" SET n += row.props RETURN row.nodeId as ref, ID(n) as id, {type} as type");
             List<Map> rows = new ArrayList<>();
             for (Node node : existingNodes) {
                 Map<String, Object> rowMap = new HashMap<>();
@@ -99,10 +98,37 @@ public class ExistingNodeStatementBuilder extends BaseBuilder implements CypherS
             if (firstNode.hasVersionProperty()) {
                 OptimisticLockingConfig olConfig = new OptimisticLockingConfig(rows.size(),
                     firstNode.getLabels(), firstNode.getVersion().getKey());
-                return statementFactory.statement(queryBuilder.toString(), parameters, olConfig);
+                return statementFactory.statement(query, parameters, olConfig);
             }
         }
 
-        return statementFactory.statement(queryBuilder.toString(), parameters);
+        return statementFactory.statement(query, parameters);
+    }
+
+    private String existingNodeQuery(Node firstNode, String propertyRemovalFragment) {
+
+        final StringBuilder queryBuilder = new StringBuilder();
+
+        queryBuilder.append("UNWIND {rows} as row ")
+            .append("MATCH (n) WHERE ID(n)=row.nodeId ");
+
+        if (firstNode.hasVersionProperty()) {
+            appendVersionPropertyCheck(queryBuilder, firstNode, "n");
+        }
+
+        Set<String> previousDynamicLabels = firstNode.getPreviousDynamicLabels();
+        for (String label : previousDynamicLabels) {
+            queryBuilder.append(String.format(" REMOVE n:`%s` ", label));
+        }
+
+        queryBuilder.append(propertyRemovalFragment);
+
+        queryBuilder.append("SET n");
+        for (String label : firstNode.getLabels()) {
+            queryBuilder.append(":`").append(label).append("`");
+        }
+
+        queryBuilder.append(" SET n += row.props RETURN row.nodeId as ref, ID(n) as id, {type} as type");
+        return queryBuilder.toString();
     }
 }
@@ -19,6 +19,7 @@
 package org.neo4j.ogm.cypher.compiler.builders.statement;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,28 +42,36 @@ public class ExistingRelationshipStatementBuilder extends BaseBuilder implements
 
     private final Set<Edge> edges;
 
+    private final StatementTemplateCache templates;
+
     public ExistingRelationshipStatementBuilder(Set<Edge> edges, StatementFactory statementFactory) {
+        this(edges, statementFactory, StatementTemplateCache.NONE);
+    }
+
+    public ExistingRelationshipStatementBuilder(Set<Edge> edges, StatementFactory statementFactory,
+        StatementTemplateCache templates) {
         this.edges = edges;
         this.statementFactory = statementFactory;
+        this.templates = templates;
     }
 
     @Override
     public Statement build() {
         final Map<String, Object> parameters = new HashMap<>();
-        final StringBuilder queryBuilder = new StringBuilder();
+        String query = "";
 
         Edge firstEdge = edges.iterator().next();
         if (edges.size() > 0) {
-            queryBuilder.append("UNWIND {rows} AS row MATCH ()-[r]-() WHERE ID(r) = row.relId ");
-
-            if (firstEdge.hasVersionProperty()) {
-                appendVersionPropertyCheck(queryBuilder, firstEdge, "r");
+            String propertyRemovalFragment = firstEdge.createPropertyRemovalFragment("r");
+            if (propertyRemovalFragment.isEmpty()) {
+                query = templates.get(Arrays.asList("existing relationship",
+                    firstEdge.hasVersionProperty() ? firstEdge.getVersion().getKey() : null),
+                    () -> existingRelationshipQuery(firstEdge, propertyRemovalFragment));
+            } else {
+                // properties to be removed depend on the data, so are not worth caching
+                query = existingRelationshipQuery(firstEdge, propertyRemovalFragment);
             }
 
-            queryBuilder.append(firstEdge.createPropertyRemovalFragment("r"));
-
-            queryBuilder.append("SET r += row.props ");
-            queryBuilder.append("RETURN ID(r) as ref, ID(r) as id, {type} as type");
             List<Map> rows = new ArrayList<>();
             for (Edge edge : edges) {
                 Map<String, Object> rowMap = new HashMap<>();
@@ -85,11 +94,28 @@ public class ExistingRelationshipStatementBuilder extends BaseBuilder implements
             if (firstEdge.hasVersionProperty()) {
                 OptimisticLockingConfig olConfig = new OptimisticLockingConfig(rows.size(),
                     new String[] { firstEdge.getType() }, firstEdge.getVersion().getKey());
-                return statementFactory.statement(queryBuilder.toString(), parameters, olConfig);
+                return statementFactory.statement(query, parameters, olConfig);
             }
 
         }
 
-        return statementFactory.statement(queryBuilder.toString(), parameters);
+        return statementFactory.statement(query, parameters);
+    }
+
+    private String existingRelationshipQuery(Edge firstEdge, String propertyRemovalFragment) {
+
+        final StringBuilder queryBuilder = new StringBuilder();
+
+        queryBuilder.append("UNWIND {rows} AS row MATCH ()-[r]-() WHERE ID(r) = row.relId ");
+
+        if (firstEdge.hasVersionProperty()) {
+            appendVersionPropertyCheck(queryBuilder, firstEdge, "r");
+        }
+
+        queryBuilder.append(propertyRemovalFragment);
+
+        queryBuilder.append("SET r += row.props ");
+        queryBuilder.append("RETURN ID(r) as ref, ID(r) as id, {type} as type");
+        return queryBuilder.toString();
     }
 }
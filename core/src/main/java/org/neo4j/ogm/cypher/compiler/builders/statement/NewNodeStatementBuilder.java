@@ -19,6 +19,7 @@
 package org.neo4j.ogm.cypher.compiler.builders.statement;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,41 +41,32 @@ public class NewNodeStatementBuilder implements CypherStatementBuilder {
 
     private final Set<Node> newNodes;
 
+    private final StatementTemplateCache templates;
+
     public NewNodeStatementBuilder(Set<Node> newNodes, StatementFactory statementFactory) {
+        this(newNodes, statementFactory, StatementTemplateCache.NONE);
+    }
+
+    public NewNodeStatementBuilder(Set<Node> newNodes, StatementFactory statementFactory,
+        StatementTemplateCache templates) {
         this.newNodes = newNodes;
         this.statementFactory = statementFactory;
+        this.templates = templates;
     }
 
     @Override
     public Statement build() {
 
         final Map<String, Object> parameters = new HashMap<>();
-        final StringBuilder queryBuilder = new StringBuilder();
+        String query = "";
 
         if (newNodes != null && newNodes.size() > 0) {
             Node firstNode = newNodes.iterator().next();
 
-            queryBuilder.append("UNWIND {rows} as row ");
-
-            if (firstNode.getPrimaryIndex() != null) {
-                queryBuilder.append("MERGE (n");
-            } else {
-                queryBuilder.append("CREATE (n");
-            }
+            query = templates.get(
+                Arrays.asList("new node", Arrays.asList(firstNode.getLabels()), firstNode.getPrimaryIndex()),
+                () -> newNodeQuery(firstNode));
 
-            for (String label : firstNode.getLabels()) {
-                queryBuilder.append(":`").append(label).append("`");
-            }
-
-            if (firstNode.getPrimaryIndex() != null) {
-                queryBuilder.append("{")
-                    .append(firstNode.getPrimaryIndex())
-                    .append(": row.props.")
-                    .append(firstNode.getPrimaryIndex())
-                    .append("}");
-            }
-
-            queryBuilder.append(") SET n=row.props RETURN row.nodeRef as ref, ID(n) as id, {type} as type");
             List<Map> rows = new ArrayList<>();
             for (Node node : newNodes) {
                 Map<String, Object> rowMap = new HashMap<>();
@@ -92,6 +84,34 @@ public class NewNodeStatementBuilder implements CypherStatementBuilder {
             parameters.put("rows", rows);
         }
 
-        return statementFactory.statement(queryBuilder.toString(), parameters);
+        return statementFactory.statement(query, parameters);
+    }
+
+    private static String newNodeQuery(Node firstNode) {
+
+        final StringBuilder queryBuilder = new StringBuilder();
+
+        queryBuilder.append("UNWIND {rows} as row ");
+
+        if (firstNode.getPrimaryIndex() != null) {
+            queryBuilder.append("MERGE (n");
+        } else {
+            queryBuilder.append("CREATE (n");
+        }
+
+        for (String label : firstNode.getLabels()) {
+            queryBuilder.append(":`").append(label).append("`");
+        }
+
+        if (firstNode.getPrimaryIndex() != null) {
+            queryBuilder.append("{")
+                .append(firstNode.getPrimaryIndex())
+                .append(": row.props.")
+                .append(firstNode.getPrimaryIndex())
+                .append("}");
+        }
+
+        queryBuilder.append(") SET n=row.props RETURN row.nodeRef as ref, ID(n) as id, {type} as type");
+        return queryBuilder.toString();
     }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.cypher.compiler.builders.statement;
+
+import static java.util.Collections.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.ogm.cypher.compiler.CypherStatementBuilder;
+import org.neo4j.ogm.model.Edge;
+import org.neo4j.ogm.model.Node;
+import org.neo4j.ogm.model.Property;
+import org.neo4j.ogm.request.Statement;
+import org.neo4j.ogm.request.StatementFactory;
+
+/**
+ * Builds a single statement that creates new nodes together with the new relationships having at least one of them
+ * as start or end node. The new nodes are collected in the order they are created, relationships refer to them by
+ * their position in that list instead of their id, so that no round trip is needed to learn the ids of the new nodes
+ * first. The statement returns the reference and id of every node and relationship created, just as the separate
+ * statements do.
+ */
+public class NewNodesAndRelationshipsStatementBuilder implements CypherStatementBuilder {
+
+    private final StatementFactory statementFactory;
+
+    private final Collection<Set<Node>> newNodesByLabels;
+
+    private final Collection<Set<Edge>> newEdgesByTypeAndProperties;
+
+    /**
+     * @param newNodesByLabels            the new nodes, grouped by their label signature
+     * @param newEdgesByTypeAndProperties the new relationships touching at least one new node, grouped by type,
+     *                                    primary id and whether they have properties
+     * @param statementFactory            the factory of the statement to build
+     */
+    public NewNodesAndRelationshipsStatementBuilder(Collection<Set<Node>> newNodesByLabels,
+        Collection<Set<Edge>> newEdgesByTypeAndProperties, StatementFactory statementFactory) {
+        this.newNodesByLabels = newNodesByLabels;
+        this.newEdgesByTypeAndProperties = newEdgesByTypeAndProperties;
+        this.statementFactory = statementFactory;
+    }
+
+    @Override
+    public Statement build() {
+
+        final Map<String, Object> parameters = new HashMap<>();
+        final StringBuilder queryBuilder = new StringBuilder();
+
+        // position of each new node in the list of created nodes by its reference
+        Map<Long, Integer> indexByReference = new HashMap<>();
+
+        int group = 0;
+        for (Set<Node> nodes : newNodesByLabels) {
+            Node firstNode = nodes.iterator().next();
+            String rowsParameter = "nodeRows" + group;
+
+            queryBuilder.append("UNWIND {").append(rowsParameter).append("} as row ");
+            appendCreateNode(queryBuilder, firstNode);
+            if (group == 0) {
+                queryBuilder.append("WITH collect({ref: row.nodeRef, node: n}) as created ");
+            } else {
+                queryBuilder.append("WITH head(collect(created)) as created, ")
+                    .append("collect({ref: row.nodeRef, node: n}) as nodes WITH created + nodes as created ");
+            }
+
+            List<Map> rows = new ArrayList<>();
+            for (Node node : nodes) {
+                indexByReference.put(node.getId(), indexByReference.size());
+                Map<String, Object> rowMap = new HashMap<>();
+                rowMap.put("nodeRef", node.getId());
+                Map<String, Object> props = new HashMap<>();
+                for (Property property : node.getPropertyList()) {
+                    if (property.getValue() != null) {
+                        props.put((String) property.getKey(), property.getValue());
+                    }
+                }
+                rowMap.put("props", props);
+                rows.add(rowMap);
+            }
+            parameters.put(rowsParameter, rows);
+            group++;
+        }
+
+        queryBuilder.append("WITH created, [] as rels ");
+
+        group = 0;
+        for (Set<Edge> edges : newEdgesByTypeAndProperties) {
+            Edge firstEdge = edges.iterator().next();
+            boolean hasProperties = firstEdge.getPropertyList().size() > 0;
+            String rowsParameter = "relationshipRows" + group;
+
+            queryBuilder.append("UNWIND {").append(rowsParameter).append("} as row ")
+                .append("OPTIONAL MATCH (existingStartNode) WHERE ID(existingStartNode) = row.startNodeId ")
+                .append("OPTIONAL MATCH (existingEndNode) WHERE ID(existingEndNode) = row.endNodeId ")
+                .append("WITH created, rels, row, ")
+                .append("coalesce(created[row.startNodeIndex].node, existingStartNode) as startNode, ")
+                .append("coalesce(created[row.endNodeIndex].node, existingEndNode) as endNode ");
+            appendCreateRelationship(queryBuilder, firstEdge, hasProperties);
+            queryBuilder.append("WITH head(collect(created)) as created, head(collect(rels)) as rels, ")
+                .append("collect({ref: row.relRef, id: ID(rel), type: 'rel'}) as newRels ")
+                .append("WITH created, rels + newRels as rels ");
+
+            List<Map> rows = new ArrayList<>();
+            for (Edge edge : edges) {
+                Map<String, Object> rowMap = new HashMap<>();
+                putNode(rowMap, "startNode", edge.getStartNode(), indexByReference);
+                putNode(rowMap, "endNode", edge.getEndNode(), indexByReference);
+                rowMap.put("relRef", edge.getId());
+                Map<String, Object> props = new HashMap<>();
+                for (Property property : edge.getPropertyList()) {
+                    props.put((String) property.getKey(), property.getValue());
+                }
+                rowMap.put("props", hasProperties ? props : emptyMap());
+                rows.add(rowMap);
+            }
+            parameters.put(rowsParameter, rows);
+            group++;
+        }
+
+        queryBuilder.append("UNWIND [c IN created | {ref: c.ref, id: ID(c.node), type: 'node'}] + rels as result ")
+            .append("RETURN result.ref as ref, result.id as id, result.type as type");
+
+        return statementFactory.statement(queryBuilder.toString(), parameters);
+    }
+
+    private static void appendCreateNode(StringBuilder queryBuilder, Node firstNode) {
+        if (firstNode.getPrimaryIndex() != null) {
+            queryBuilder.append("MERGE (n");
+        } else {
+            queryBuilder.append("CREATE (n");
+        }
+        for (String label : firstNode.getLabels()) {
+            queryBuilder.append(":`").append(label).append("`");
+        }
+        if (firstNode.getPrimaryIndex() != null) {
+            queryBuilder.append("{")
+                .append(firstNode.getPrimaryIndex())
+                .append(": row.props.")
+                .append(firstNode.getPrimaryIndex())
+                .append("}");
+        }
+        queryBuilder.append(") SET n=row.props ");
+    }
+
+    private static void appendCreateRelationship(StringBuilder queryBuilder, Edge firstEdge, boolean hasProperties) {
+        boolean hasPrimaryId = firstEdge.getPrimaryIdName() != null;
+        if (hasProperties && !hasPrimaryId) {
+            queryBuilder.append("CREATE ");
+        } else {
+            queryBuilder.append("MERGE ");
+        }
+        queryBuilder.append("(startNode)-[rel:`").append(firstEdge.getType()).append("`");
+        if (hasPrimaryId) {
+            queryBuilder.append(" {`")
+                .append(firstEdge.getPrimaryIdName())
+                .append("`: row.props.`")
+                .append(firstEdge.getPrimaryIdName())
+                .append("`}");
+        }
+        queryBuilder.append("]->(endNode) ");
+        if (hasProperties) {
+            queryBuilder.append("SET rel += row.props ");
+        }
+    }
+
+    /**
+     * Puts either the position of a new node or the id of an existing node into a row.
+     */
+    private static void putNode(Map<String, Object> rowMap, String key, Long reference,
+        Map<Long, Integer> indexByReference) {
+        Integer index = indexByReference.get(reference);
+        if (index != null) {
+            rowMap.put(key + "Index", index);
+        } else {
+            rowMap.put(key + "Id", reference);
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.neo4j.ogm.cypher.compiler.builders.statement;
 import static java.util.Collections.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,52 +43,34 @@ public class NewRelationshipStatementBuilder implements CypherStatementBuilder {
 
     private final Set<Edge> edges;
 
+    private final StatementTemplateCache templates;
+
     public NewRelationshipStatementBuilder(Set<Edge> edges, StatementFactory statementFactory) {
+        this(edges, statementFactory, StatementTemplateCache.NONE);
+    }
+
+    public NewRelationshipStatementBuilder(Set<Edge> edges, StatementFactory statementFactory,
+        StatementTemplateCache templates) {
         this.edges = edges;
         this.statementFactory = statementFactory;
+        this.templates = templates;
     }
 
     @Override
     public Statement build() {
 
         final Map<String, Object> parameters = new HashMap<>();
-        final StringBuilder queryBuilder = new StringBuilder();
+        String query = "";
 
         boolean hasProperties = false;
         if (edges != null && edges.size() > 0) {
             Edge firstEdge = edges.iterator().next();
-            String relType = firstEdge.getType();
             hasProperties = firstEdge.getPropertyList().size() > 0;
-            boolean hasPrimaryId = firstEdge.getPrimaryIdName() != null;
-
-            queryBuilder.append("UNWIND {rows} as row ")
-                .append("MATCH (startNode) WHERE ID(startNode) = row.startNodeId WITH row,startNode ")
-                .append("MATCH (endNode) WHERE ID(endNode) = row.endNodeId ");
-
-            if (hasProperties && !hasPrimaryId) {
-                queryBuilder.append("CREATE ");
-            } else {
-                queryBuilder.append("MERGE ");
-            }
+            boolean withProperties = hasProperties;
 
-            queryBuilder.append("(startNode)-[rel:`")
-                .append(relType)
-                .append("`");
-
-            if (hasPrimaryId) {
-                queryBuilder.append(" {`")
-                    .append(firstEdge.getPrimaryIdName())
-                    .append("`: row.props.`")
-                    .append(firstEdge.getPrimaryIdName())
-                    .append("`}");
-            }
-            queryBuilder.append("]->(endNode) ");
-
-            if (hasProperties) {
-                queryBuilder.append("SET rel += row.props ");
-
-            }
-            queryBuilder.append("RETURN row.relRef as ref, ID(rel) as id, {type} as type");
+            query = templates.get(
+                Arrays.asList("new relationship", firstEdge.getType(), hasProperties, firstEdge.getPrimaryIdName()),
+                () -> newRelationshipQuery(firstEdge, withProperties));
 
             List<Map> rows = new ArrayList<>();
             for (Edge edge : edges) {
@@ -112,6 +95,44 @@ public class NewRelationshipStatementBuilder implements CypherStatementBuilder {
             parameters.put("rows", rows);
         }
 
-        return statementFactory.statement(queryBuilder.toString(), parameters);
+        return statementFactory.statement(query, parameters);
+    }
+
+    private static String newRelationshipQuery(Edge firstEdge, boolean hasProperties) {
+
+        final StringBuilder queryBuilder = new StringBuilder();
+
+        String relType = firstEdge.getType();
+        boolean hasPrimaryId = firstEdge.getPrimaryIdName() != null;
+
+        queryBuilder.append("UNWIND {rows} as row ")
+            .append("MATCH (startNode) WHERE ID(startNode) = row.startNodeId WITH row,startNode ")
+            .append("MATCH (endNode) WHERE ID(endNode) = row.endNodeId ");
+
+        if (hasProperties && !hasPrimaryId) {
+            queryBuilder.append("CREATE ");
+        } else {
+            queryBuilder.append("MERGE ");
+        }
+
+        queryBuilder.append("(startNode)-[rel:`")
+            .append(relType)
+            .append("`");
+
+        if (hasPrimaryId) {
+            queryBuilder.append(" {`")
+                .append(firstEdge.getPrimaryIdName())
+                .append("`: row.props.`")
+                .append(firstEdge.getPrimaryIdName())
+                .append("`}");
+        }
+        queryBuilder.append("]->(endNode) ");
+
+        if (hasProperties) {
+            queryBuilder.append("SET rel += row.props ");
+
+        }
+        queryBuilder.append("RETURN row.relRef as ref, ID(rel) as id, {type} as type");
+        return queryBuilder.toString();
     }
 }
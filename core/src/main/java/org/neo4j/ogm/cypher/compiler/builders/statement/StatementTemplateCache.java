@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.cypher.compiler.builders.statement;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches the Cypher text of write statements by the shape of the rows they are built for: the kind of statement,
+ * the labels or relationship type and the primary index or version property involved. Rows of the same shape always
+ * get the very same text, which is built only once.
+ * <br>
+ * The number of cached templates is bounded. Once the bound is reached, the text of new shapes is built on every use.
+ * Shapes that depend on the data, such as labels or composite properties to be removed, are not cached at all.
+ */
+public class StatementTemplateCache {
+
+    /**
+     * A cache that doesn't keep any template.
+     */
+    public static final StatementTemplateCache NONE = new StatementTemplateCache(0);
+
+    private static final int DEFAULT_MAX_TEMPLATES = 1_000;
+
+    private final int maxTemplates;
+
+    private final Map<List<Object>, String> templates = new ConcurrentHashMap<>();
+
+    public StatementTemplateCache() {
+        this(DEFAULT_MAX_TEMPLATES);
+    }
+
+    /**
+     * @param maxTemplates the maximum number of templates to keep
+     */
+    public StatementTemplateCache(int maxTemplates) {
+        this.maxTemplates = maxTemplates;
+    }
+
+    /**
+     * Returns the cached text of the statement with the given shape, building and caching it first if necessary.
+     *
+     * @param shape    the kind of statement followed by everything its text depends on
+     * @param template builds the text of the statement
+     * @return the text of the statement
+     */
+    public String get(List<Object> shape, Supplier<String> template) {
+        String text = templates.get(shape);
+        if (text == null) {
+            text = template.get();
+            if (templates.size() < maxTemplates) {
+                String cachedText = templates.putIfAbsent(shape, text);
+                if (cachedText != null) {
+                    text = cachedText;
+                }
+            }
+        }
+        return text;
+    }
+}
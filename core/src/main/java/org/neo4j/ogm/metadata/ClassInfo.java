@@ -92,6 +92,7 @@ public class ClassInfo {
     private volatile boolean labelFieldMapped = false;
     private volatile boolean isPostLoadMethodMapped = false;
     private volatile MethodInfo postLoadMethod;
+    private volatile List<ClassInfo> concreteSubclasses;
     private boolean primaryIndexFieldChecked = false;
     private Class<?> cls;
     private Class<? extends IdStrategy> idStrategyClass;
@@ -266,6 +267,30 @@ public class ClassInfo {
         return directSubclasses;
     }
 
+    /**
+     * Returns all classes that directly or indirectly extend this class and are neither abstract nor interfaces, in
+     * breadth-first order. The list is computed once, the class hierarchy doesn't change after the metadata is built.
+     *
+     * @return An unmodifiable list of all concrete subclasses
+     */
+    public List<ClassInfo> concreteSubclasses() {
+        List<ClassInfo> subclasses = concreteSubclasses;
+        if (subclasses == null) {
+            subclasses = new ArrayList<>();
+            Queue<ClassInfo> queue = new ArrayDeque<>(directSubclasses);
+            while (!queue.isEmpty()) {
+                ClassInfo subclass = queue.poll();
+                if (!(subclass.isAbstract() || subclass.isInterface())) {
+                    subclasses.add(subclass);
+                }
+                queue.addAll(subclass.directSubclasses());
+            }
+            subclasses = Collections.unmodifiableList(subclasses);
+            concreteSubclasses = subclasses;
+        }
+        return subclasses;
+    }
+
     List<ClassInfo> directImplementingClasses() {
         return directImplementingClasses;
     }
@@ -28,6 +28,7 @@ import java.util.Set;
 
 import org.neo4j.ogm.annotation.NodeEntity;
 import org.neo4j.ogm.annotation.RelationshipEntity;
+import org.neo4j.ogm.cypher.compiler.builders.statement.StatementTemplateCache;
 import org.neo4j.ogm.driver.TypeSystem;
 import org.neo4j.ogm.driver.TypeSystem.NoNativeTypes;
 import org.neo4j.ogm.exception.core.AmbiguousBaseClassException;
@@ -47,6 +48,7 @@ public class MetaData {
 
     private final DomainInfo domainInfo;
     private final Schema schema;
+    private final StatementTemplateCache statementTemplates = new StatementTemplateCache();
     private Map<String, ClassInfo> classInfos = new HashMap<>();
 
     public MetaData(String... packages) {
@@ -62,6 +64,13 @@ public class MetaData {
         return schema;
     }
 
+    /**
+     * @return the Cypher of the write statements built for the entities of this domain, by the shape of their rows
+     */
+    public StatementTemplateCache getStatementTemplates() {
+        return statementTemplates;
+    }
+
     /**
      * Finds the ClassInfo for the supplied partial class name or label.
      * The supplied ClassInfo, if found can represent either a Class or an Interface
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import org.neo4j.ogm.context.MappingContext;
+import org.neo4j.ogm.cypher.query.DefaultRowModelRequest;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.model.RowModel;
+import org.neo4j.ogm.request.Statement;
+import org.neo4j.ogm.response.Response;
+import org.neo4j.ogm.session.event.Event;
+import org.neo4j.ogm.session.event.PersistenceEvent;
+import org.neo4j.ogm.session.request.strategy.DeleteStatements;
+import org.neo4j.ogm.session.request.strategy.impl.NodeDeleteStatements;
+import org.neo4j.ogm.session.request.strategy.impl.RelationshipDeleteStatements;
+import org.neo4j.ogm.transaction.Transaction;
+
+/**
+ * Deletes all entities of one type, or the whole graph, in batches. This is the batched counterpart of
+ * {@link Session#deleteAll(Class)} and {@link Session#purgeDatabase()} for stores too large to be deleted in a
+ * single transaction.
+ * <br>
+ * If no transaction is open in the session, each batch is committed in its own transaction, so that the memory needed
+ * by the database doesn't grow with the number of deleted entities. Otherwise all batches take part in the open
+ * transaction. The entities deleted by a batch are detached from the session once the batch has been deleted.
+ * <br>
+ * The deletion can be cancelled at any time, for example from a progress listener or from another thread. The batch
+ * being deleted is completed, no further batch is started.
+ */
+@SuppressWarnings("HiddenField")
+public class BatchDeleter {
+
+    private final Neo4jSession session;
+
+    private final Class<?> type;
+
+    private final DeleteStatements deleteStatements;
+
+    private final String label;
+
+    private int batchSize = 10_000;
+
+    private LongConsumer progressListener = deleted -> {
+    };
+
+    private volatile boolean cancelled;
+
+    /**
+     * @param session the session to delete from
+     * @param type    the type of the entities to delete or null to delete the whole graph
+     */
+    BatchDeleter(Neo4jSession session, Class<?> type) {
+        this.session = session;
+        this.type = type;
+        if (type == null) {
+            this.deleteStatements = new NodeDeleteStatements();
+            this.label = null;
+        } else {
+            ClassInfo classInfo = session.metaData().classInfo(type.getName());
+            if (classInfo == null) {
+                throw new IllegalArgumentException(type.getName() + " is not a persistable class");
+            }
+            if (classInfo.neo4jName() == null) {
+                throw new IllegalArgumentException("Unable to find database label for entity " + type.getName()
+                    + ". Make sure the class is registered, and not abstract without @NodeEntity annotation");
+            }
+            this.deleteStatements = classInfo.isRelationshipEntity() ?
+                new RelationshipDeleteStatements() :
+                new NodeDeleteStatements();
+            this.label = classInfo.neo4jName();
+        }
+    }
+
+    /**
+     * @param batchSize number of entities deleted together, defaults to 10000
+     * @return this deleter
+     */
+    public BatchDeleter batchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than zero, was " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * @param progressListener called with the total number of deleted entities after each batch
+     * @return this deleter
+     */
+    public BatchDeleter onProgress(LongConsumer progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * Stops the deletion after the current batch.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * @return true if the deletion has been cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Deletes batch after batch until there is nothing left to delete or the deletion has been cancelled.
+     *
+     * @return number of deleted entities
+     */
+    public long execute() {
+        if (type != null && session.eventsEnabled()) {
+            session.notifyListeners(new PersistenceEvent(type, Event.TYPE.PRE_DELETE));
+        }
+
+        long deleted = 0;
+        int deletedInBatch = batchSize;
+        while (deletedInBatch == batchSize && !cancelled) {
+            boolean ownTransaction = session.getTransaction() == null;
+            deletedInBatch = session.doInTransaction(this::deleteBatch, ownTransaction, Transaction.Type.READ_WRITE);
+            deleted += deletedInBatch;
+            if (deletedInBatch > 0) {
+                progressListener.accept(deleted);
+            }
+        }
+
+        if (!cancelled) {
+            if (type == null) {
+                session.context().clear();
+            } else {
+                session.context().removeType(type);
+                if (session.eventsEnabled()) {
+                    session.notifyListeners(new PersistenceEvent(type, Event.TYPE.POST_DELETE));
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private int deleteBatch() {
+        Statement statement = label == null ?
+            deleteStatements.deleteAllBatch(batchSize) :
+            deleteStatements.deleteBatch(label, batchSize);
+
+        List<Long> ids = new ArrayList<>();
+        try (Response<RowModel> response = session.requestHandler()
+            .execute(new DefaultRowModelRequest(statement.getStatement(), statement.getParameters()))) {
+            RowModel rowModel;
+            while ((rowModel = response.next()) != null) {
+                ids.add(((Number) rowModel.getValues()[0]).longValue());
+            }
+        }
+
+        session.invalidateCachedEntities();
+        MappingContext mappingContext = session.context();
+        if (deleteStatements instanceof RelationshipDeleteStatements) {
+            ids.forEach(mappingContext::detachRelationshipEntity);
+        } else {
+            ids.forEach(mappingContext::detachNodeEntity);
+        }
+        return ids.size();
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.session;
+
+/**
+ * Interface to be implemented by node and relationship entities that track changes to their persistent properties
+ * themselves. Entities may implement it on their own, for example in their setters, and must then flag every write to a
+ * property or label field. Alternatively, the agent of the {@code neo4j-ogm-enhancer} module enhances the entities of
+ * the given packages to implement it while they are loaded, flagging every write to one of their fields.
+ * <p>
+ * The session trusts the flag of such entities when checking them for changes, instead of hashing all their properties.
+ * Once such an entity is dirty, its properties are compared with the ones it had when it was loaded or saved, so that
+ * only the changed properties are written. Entities not implementing this interface are checked by hashing their
+ * properties.
+ *
+ * @since 3.2
+ */
+public interface DirtyTracking {
+
+    /**
+     * @return True, if a property or label field of this entity has been written since
+     * {@link #clearDirtyProperties()} has been called the last time.
+     */
+    boolean hasDirtyProperties();
+
+    /**
+     * Called by the session after the entity has been loaded or saved, marking the current state as clean.
+     */
+    void clearDirtyProperties();
+}
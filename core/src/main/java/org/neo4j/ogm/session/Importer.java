@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.session;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.neo4j.ogm.context.MappingContext;
+import org.neo4j.ogm.cypher.compiler.CompileContext;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.transaction.Transaction;
+
+/**
+ * Imports a possibly unbounded number of entities of one type. The entities are saved in batches: Each batch is
+ * compiled and flushed on its own, with the same statements a {@link Session#save(Object, int)} of the batch would use.
+ * <br>
+ * If no transaction is open in the session, each batch is committed in its own transaction, so a failing batch only
+ * rolls back itself. Otherwise all batches take part in the open transaction.
+ * <br>
+ * By default imported entities are tracked by the session like any saved entity. Turning tracking off detaches the
+ * entities written by a batch once it has been flushed, so that the memory used by the session doesn't grow with the
+ * number of imported entities. Entities that have already been known to the session and haven't been changed by the
+ * import stay attached.
+ *
+ * @param <T> type of the imported entities
+ */
+@SuppressWarnings("HiddenField")
+public class Importer<T> {
+
+    private final Neo4jSession session;
+
+    private int batchSize = 1_000;
+
+    private int depth = -1;
+
+    private boolean trackEntities = true;
+
+    Importer(Neo4jSession session, Class<T> type) {
+        if (session.metaData().classInfo(type.getName()) == null) {
+            throw new IllegalArgumentException("Class " + type + " is not a valid entity class. "
+                + "Please check the entity mapping.");
+        }
+        this.session = session;
+    }
+
+    /**
+     * @param batchSize number of entities compiled and flushed together, defaults to 1000
+     * @return this importer
+     */
+    public Importer<T> batchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than zero, was " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * @param depth depth up to which the graph of each imported entity is saved, defaults to -1 (the whole graph)
+     * @return this importer
+     */
+    public Importer<T> depth(int depth) {
+        this.depth = depth;
+        return this;
+    }
+
+    /**
+     * @param trackEntities flag, if the imported entities should stay attached to the session, defaults to true
+     * @return this importer
+     */
+    public Importer<T> trackEntities(boolean trackEntities) {
+        this.trackEntities = trackEntities;
+        return this;
+    }
+
+    /**
+     * Imports all entities of the given stream.
+     *
+     * @param entities the entities to import
+     * @return number of imported entities
+     */
+    public long importAll(Stream<? extends T> entities) {
+        return importAll(entities.iterator());
+    }
+
+    /**
+     * Imports all entities of the given iterable.
+     *
+     * @param entities the entities to import
+     * @return number of imported entities
+     */
+    public long importAll(Iterable<? extends T> entities) {
+        return importAll(entities.iterator());
+    }
+
+    /**
+     * Imports all remaining entities of the given iterator. The iterator is consumed lazily, one batch at a time.
+     *
+     * @param entities the entities to import
+     * @return number of imported entities
+     */
+    public long importAll(Iterator<? extends T> entities) {
+        long imported = 0;
+        List<T> batch = new ArrayList<>(batchSize);
+        while (entities.hasNext()) {
+            batch.add(entities.next());
+            if (batch.size() == batchSize) {
+                imported += flush(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            imported += flush(batch);
+        }
+        return imported;
+    }
+
+    private int flush(List<T> batch) {
+        boolean ownTransaction = session.getTransaction() == null;
+        CompileContext context = session.doInTransaction(() -> session.saveBatch(batch, depth), ownTransaction,
+            Transaction.Type.READ_WRITE);
+        if (!trackEntities) {
+            detach(context);
+        }
+        return batch.size();
+    }
+
+    private void detach(CompileContext context) {
+        MappingContext mappingContext = session.context();
+        for (Object object : context.registry()) {
+            ClassInfo classInfo = session.metaData().classInfo(object);
+            if (classInfo == null) {
+                continue; // transient relationships of the compiler
+            }
+            Long id = mappingContext.nativeId(object);
+            if (id == null || id < 0) {
+                continue;
+            }
+            if (classInfo.isRelationshipEntity()) {
+                mappingContext.detachRelationshipEntity(id);
+            } else {
+                mappingContext.detachNodeEntity(id);
+            }
+        }
+    }
+}
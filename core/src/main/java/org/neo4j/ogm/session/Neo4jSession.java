@@ -22,14 +22,18 @@ import static java.util.Collections.*;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 
+import org.neo4j.ogm.config.Configuration;
 import org.neo4j.ogm.context.MappingContext;
 import org.neo4j.ogm.context.WriteProtectionTarget;
 import org.neo4j.ogm.cypher.Filter;
+import org.neo4j.ogm.cypher.compiler.CompileContext;
 import org.neo4j.ogm.cypher.Filters;
 import org.neo4j.ogm.cypher.query.Pagination;
 import org.neo4j.ogm.cypher.query.SortOrder;
@@ -40,6 +44,7 @@ import org.neo4j.ogm.metadata.MetaData;
 import org.neo4j.ogm.metadata.reflect.ReflectionEntityInstantiator;
 import org.neo4j.ogm.model.Result;
 import org.neo4j.ogm.request.Request;
+import org.neo4j.ogm.session.cache.EntityCache;
 import org.neo4j.ogm.session.delegates.DeleteDelegate;
 import org.neo4j.ogm.session.delegates.ExecuteQueriesDelegate;
 import org.neo4j.ogm.session.delegates.GraphIdDelegate;
@@ -95,15 +100,55 @@ public class Neo4jSession implements Session {
 
     private Driver driver;
     private String bookmark;
+    private final boolean readOnlySession;
+    private final int maxRowsPerStatement;
+    private final boolean singleRoundTripSave;
+    private final boolean writeBehind;
+    private final boolean orderSaveRows;
+    private EntityCache entityCache;
+
+    // native ids of the nodes and relationships to invalidate in the entity cache once more when the transaction commits
+    private final Set<Long> staleNodeIds = new HashSet<>();
+    private final Set<Long> staleRelationshipIds = new HashSet<>();
+    private boolean allCachedEntitiesStale;
 
     private List<EventListener> registeredEventListeners = new LinkedList<>();
 
     public Neo4jSession(MetaData metaData, Driver driver) {
+        this(metaData, driver, false);
+    }
+
+    /**
+     * Creates a new session.
+     *
+     * @param metaData The meta data for the mapped domain
+     * @param driver   The driver to use
+     * @param readOnly Flag, if the session is only used for reading. A read-only session doesn't track the state of
+     *                 the entities it loads and rejects saving them.
+     */
+    public Neo4jSession(MetaData metaData, Driver driver, boolean readOnly) {
 
         this.metaData = metaData;
         this.driver = driver;
-
-        this.mappingContext = new MappingContext(metaData);
+        this.readOnlySession = readOnly;
+
+        Configuration configuration = driver.getConfiguration();
+        this.mappingContext = new MappingContext(metaData,
+            configuration != null && Boolean.TRUE.equals(configuration.getUsePrimitiveRegisters()),
+            configuration != null && configuration.getMappingContextMaxSize() != null ?
+                configuration.getMappingContextMaxSize() :
+                0,
+            !readOnly);
+        if (configuration != null && Boolean.TRUE.equals(configuration.getSkipCleanSubgraphs())) {
+            this.mappingContext.trackReferences();
+        }
+        this.maxRowsPerStatement = configuration != null && configuration.getMaxRowsPerStatement() != null ?
+            configuration.getMaxRowsPerStatement() :
+            0;
+        this.singleRoundTripSave = configuration != null
+            && Boolean.TRUE.equals(configuration.getUseSingleRoundTripSave());
+        this.writeBehind = configuration != null && Boolean.TRUE.equals(configuration.getWriteBehind());
+        this.orderSaveRows = configuration != null && Boolean.TRUE.equals(configuration.getOrderSaveRows());
         this.txManager = new DefaultTransactionManager(this, driver);
         this.loadStrategy = LoadStrategy.PATH_LOAD_STRATEGY;
         this.entityInstantiator = new ReflectionEntityInstantiator(metaData);
@@ -111,11 +156,22 @@ public class Neo4jSession implements Session {
 
     public Neo4jSession(MetaData metaData, Driver driver, List<EventListener> eventListeners,
         LoadStrategy loadStrategy, EntityInstantiator entityInstantiator) {
-        this(metaData, driver);
+        this(metaData, driver, eventListeners, loadStrategy, entityInstantiator, false);
+    }
+
+    public Neo4jSession(MetaData metaData, Driver driver, List<EventListener> eventListeners,
+        LoadStrategy loadStrategy, EntityInstantiator entityInstantiator, boolean readOnly) {
+        this(metaData, driver, eventListeners, loadStrategy, entityInstantiator, null, readOnly);
+    }
+
+    public Neo4jSession(MetaData metaData, Driver driver, List<EventListener> eventListeners,
+        LoadStrategy loadStrategy, EntityInstantiator entityInstantiator, EntityCache entityCache, boolean readOnly) {
+        this(metaData, driver, readOnly);
         registeredEventListeners.addAll(eventListeners);
 
         this.loadStrategy = loadStrategy;
         this.entityInstantiator = entityInstantiator;
+        this.entityCache = entityCache;
     }
 
     @Override
@@ -444,8 +500,15 @@ public class Neo4jSession implements Session {
         deleteDelegate.purgeDatabase();
     }
 
+    @Override
+    public BatchDeleter purgeDatabaseInBatches() {
+        return new BatchDeleter(this, null);
+    }
+
     @Override
     public <T> void delete(T object) {
+        // the ids of the objects to delete are resolved before any statement is run
+        saveDelegate.flush();
         deleteDelegate.delete(object);
     }
 
@@ -454,6 +517,11 @@ public class Neo4jSession implements Session {
         deleteDelegate.deleteAll(type);
     }
 
+    @Override
+    public <T> BatchDeleter deleteAllInBatches(Class<T> type) {
+        return new BatchDeleter(this, type);
+    }
+
     @Override
     public <T> Object delete(Class<T> type, Iterable<Filter> filters, boolean listResults) {
         return deleteDelegate.delete(type, filters, listResults);
@@ -466,12 +534,55 @@ public class Neo4jSession implements Session {
     */
     @Override
     public <T> void save(T object) {
-        saveDelegate.save(object);
+        save(object, -1);
     }
 
     @Override
     public <T> void save(T object, int depth) {
-        saveDelegate.save(object, depth);
+        assertWritable();
+        if (writeBehind && getTransaction() != null) {
+            saveDelegate.saveLater(object, depth);
+        } else {
+            saveDelegate.save(object, depth);
+        }
+    }
+
+    @Override
+    public void flush() {
+        saveDelegate.flush();
+    }
+
+    @Override
+    public <T> Importer<T> importer(Class<T> type) {
+        assertWritable();
+        return new Importer<>(this, type);
+    }
+
+    @Override
+    public void markDirty(Object entity) {
+        if (metaData.classInfo(entity) == null) {
+            throw new IllegalArgumentException("Class " + entity.getClass() + " is not a valid entity class. "
+                + "Please check the entity mapping.");
+        }
+        mappingContext.markDirty(entity);
+    }
+
+    <T> CompileContext saveBatch(List<T> batch, int depth) {
+        assertWritable();
+        return saveDelegate.save(batch, depth);
+    }
+
+    /**
+     * @return True if this session has been opened as a read-only session
+     */
+    public boolean isReadOnly() {
+        return readOnlySession;
+    }
+
+    private void assertWritable() {
+        if (readOnlySession) {
+            throw new UnsupportedOperationException("Entities cannot be saved in a read-only session");
+        }
     }
 
     // Not part of {@link Session} interface on purpose for the time being
@@ -567,6 +678,9 @@ public class Neo4jSession implements Session {
 
         Transaction transaction = txManager.getCurrentTransaction();
 
+        // whatever runs next has to see the saves held back so far
+        saveDelegate.flush();
+
         // If we (force) create a new transaction, we are in charge of handling rollback in case of errors
         // and cleaning up afterwards.
         boolean newTransaction = false;
@@ -580,6 +694,7 @@ public class Neo4jSession implements Session {
             if (newTransaction && txManager.canCommit()) {
                 transaction.commit();
             }
+            mappingContext.evict();
             return result;
         } catch (CypherException e) {
             if (newTransaction && txManager.canRollback()) {
@@ -647,6 +762,84 @@ public class Neo4jSession implements Session {
         return mappingContext;
     }
 
+    /**
+     * @return The entity cache shared by the sessions of the session factory, {@literal null} if there is none
+     */
+    public EntityCache entityCache() {
+        return entityCache;
+    }
+
+    /**
+     * @return The maximum number of rows a single statement of a save may carry, zero or less if unbounded
+     */
+    public int maxRowsPerStatement() {
+        return maxRowsPerStatement;
+    }
+
+    /**
+     * @return True if new nodes and the relationships depending on them should be saved in a single request
+     */
+    public boolean useSingleRoundTripSave() {
+        return singleRoundTripSave && maxRowsPerStatement <= 0;
+    }
+
+    /**
+     * @return True if the rows and statements of a save should be ordered by the nodes they lock
+     */
+    public boolean orderSaveRows() {
+        return orderSaveRows;
+    }
+
+    /**
+     * Invalidates the cached graph data containing any of the given nodes or relationships. If a transaction is open,
+     * they are invalidated once more when it commits, so that other sessions don't keep data read before the commit.
+     *
+     * @param nodeIds         The native ids of the written nodes
+     * @param relationshipIds The native ids of the written relationships
+     */
+    public void invalidateCachedEntities(Collection<Long> nodeIds, Collection<Long> relationshipIds) {
+        if (entityCache == null) {
+            return;
+        }
+        entityCache.invalidate(nodeIds, relationshipIds);
+        if (getTransaction() != null) {
+            staleNodeIds.addAll(nodeIds);
+            staleRelationshipIds.addAll(relationshipIds);
+        }
+    }
+
+    /**
+     * Invalidates all cached graph data, used for writes that cannot be tracked to single nodes or relationships.
+     */
+    public void invalidateCachedEntities() {
+        if (entityCache == null) {
+            return;
+        }
+        entityCache.invalidateAll();
+        if (getTransaction() != null) {
+            allCachedEntitiesStale = true;
+        }
+    }
+
+    /**
+     * Called by the transaction manager after the current transaction has been committed or rolled back.
+     *
+     * @param committed True if the transaction has been committed
+     */
+    public void afterTransactionCompletion(boolean committed) {
+        saveDelegate.discardPendingSaves();
+        if (entityCache != null && committed) {
+            if (allCachedEntitiesStale) {
+                entityCache.invalidateAll();
+            } else if (!staleNodeIds.isEmpty() || !staleRelationshipIds.isEmpty()) {
+                entityCache.invalidate(staleNodeIds, staleRelationshipIds);
+            }
+        }
+        staleNodeIds.clear();
+        staleRelationshipIds.clear();
+        allCachedEntitiesStale = false;
+    }
+
     public OptimisticLockingChecker optimisticLockingChecker() {
         return new OptimisticLockingChecker(this);
     }
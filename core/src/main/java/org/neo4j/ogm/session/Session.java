@@ -520,6 +520,33 @@ public interface Session {
      */
     <T> void save(T object, int depth);
 
+    /**
+     * Creates an importer for entities of the given type. The importer saves a possibly unbounded number of entities
+     * in batches, committing each batch on its own unless a transaction is already open.
+     *
+     * @param type type of the entities to import
+     * @param <T>  type of the entities to import
+     * @return a new importer for the given type
+     */
+    <T> Importer<T> importer(Class<T> type);
+
+    /**
+     * Saves the entities whose saves have been held back. Only needed if the session holds back the saves within a
+     * transaction (see {@code Configuration.Builder#writeBehind()}), as they are saved anyway when the transaction is
+     * committed or before the session loads, queries or deletes anything. Does nothing otherwise.
+     */
+    void flush();
+
+    /**
+     * Marks an entity as changed. Only needed if the session skips unchanged entities when saving
+     * (see {@code Configuration.Builder#skipCleanSubgraphs()}): A marked entity is saved along with the next save of
+     * the session, even if it can't be reached from the saved entities. Entities tracking their changes through
+     * {@link DirtyTracking} and entities whose relationship collections have changed don't need to be marked.
+     *
+     * @param entity the changed entity
+     */
+    void markDirty(Object entity);
+
     /**
      * Delete entity (or entities)
      *
@@ -534,6 +561,16 @@ public interface Session {
      */
     <T> void deleteAll(Class<T> type);
 
+    /**
+     * Creates a deleter for all entities of type that deletes them in batches. Outside of a transaction each batch is
+     * committed on its own, so this is suitable for large data sets. Nothing is deleted until
+     * {@link BatchDeleter#execute()} is called.
+     *
+     * @param type type of the entities to delete
+     * @return a new batch deleter for the given type
+     */
+    <T> BatchDeleter deleteAllInBatches(Class<T> type);
+
     /**
      * Delete all entities of type matching filter
      *
@@ -551,6 +588,16 @@ public interface Session {
      */
     void purgeDatabase();
 
+    /**
+     * Creates a deleter for all nodes in the database that deletes them in batches. Outside of a transaction each batch
+     * is committed on its own, so this is suitable for large data sets. Nothing is deleted until
+     * {@link BatchDeleter#execute()} is called.
+     * NOTE: This will delete all data, not only nodes/relationships with matching metadata in the domain.
+     *
+     * @return a new batch deleter for the whole database
+     */
+    BatchDeleter purgeDatabaseInBatches();
+
     /**
      * Clears the Session
      */
@@ -32,6 +32,7 @@ import org.neo4j.ogm.id.IdStrategy;
 import org.neo4j.ogm.metadata.ClassInfo;
 import org.neo4j.ogm.metadata.MetaData;
 import org.neo4j.ogm.metadata.reflect.ReflectionEntityInstantiator;
+import org.neo4j.ogm.session.cache.EntityCache;
 import org.neo4j.ogm.session.event.EventListener;
 
 /**
@@ -49,6 +50,7 @@ public class SessionFactory {
     private final MetaData metaData;
     private final Driver driver;
     private final List<EventListener> eventListeners;
+    private final EntityCache entityCache;
 
     private LoadStrategy loadStrategy = LoadStrategy.SCHEMA_LOAD_STRATEGY;
     private EntityInstantiator entityInstantiator;
@@ -104,6 +106,11 @@ public class SessionFactory {
         this.driver = driver;
         this.eventListeners = new CopyOnWriteArrayList<>();
         this.entityInstantiator = new ReflectionEntityInstantiator(metaData);
+
+        Configuration configuration = driver.getConfiguration();
+        this.entityCache = configuration != null && configuration.getEntityCacheSpec() != null ?
+            new EntityCache(configuration.getEntityCacheSpec()) :
+            null;
     }
 
     /**
@@ -137,7 +144,29 @@ public class SessionFactory {
      * @return A new {@link Session}
      */
     public Session openSession() {
-        return new Neo4jSession(metaData, driver, eventListeners, loadStrategy, entityInstantiator);
+        return new Neo4jSession(metaData, driver, eventListeners, loadStrategy, entityInstantiator, entityCache, false);
+    }
+
+    /**
+     * Opens a new read-only Neo4j mapping {@link Session}. Loaded entities are hydrated and wired up as usual, but
+     * their state is not tracked, so there are no snapshots to take and no relationships to register. This makes
+     * loading cheaper for callers that only read and discard the session afterwards.
+     * A read-only session rejects saving entities with an {@link UnsupportedOperationException}.
+     *
+     * @return A new read-only {@link Session}
+     */
+    public Session openReadOnlySession() {
+        return new Neo4jSession(metaData, driver, eventListeners, loadStrategy, entityInstantiator, entityCache, true);
+    }
+
+    /**
+     * Returns the cache of loaded graph data shared by the sessions of this factory. The cache is only created if an
+     * entity cache specification is configured, see {@link Configuration.Builder#entityCacheSpec(String)}.
+     *
+     * @return The entity cache or {@literal null} if there is none
+     */
+    public EntityCache getEntityCache() {
+        return entityCache;
     }
 
     /**
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.session.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.ogm.model.Edge;
+import org.neo4j.ogm.model.GraphModel;
+import org.neo4j.ogm.model.Node;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+/**
+ * A cache of loaded graph data shared by all sessions of a {@link org.neo4j.ogm.session.SessionFactory}.
+ * <p>
+ * The cache stores the graph models returned for loading an entity by its label, its primary or native id and the
+ * loading depth, not entity instances. Every session hydrates its own instances from the cached models, so entities
+ * are never shared between sessions.
+ * <p>
+ * Each entry is indexed by the native ids of all nodes and relationships it contains. Sessions invalidate the entries
+ * containing the nodes and relationships they save or delete, once right away and once more when their transaction
+ * commits. A generation counter, incremented by every invalidation, makes sure that data read before a concurrent
+ * invalidation is not cached afterwards.
+ * <p>
+ * Writes through custom Cypher invalidate the whole cache. Changes made to the database outside the session factory
+ * are not noticed, use {@link #invalidateAll()} or a time based eviction in that case.
+ */
+public class EntityCache {
+
+    private final Cache<Key, Entry> entries;
+
+    private final Map<Long, Set<Key>> keysByNodeId = new ConcurrentHashMap<>();
+
+    private final Map<Long, Set<Key>> keysByRelationshipId = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param spec The specification of the cache in the format of Caffeine's {@code CaffeineSpec}
+     */
+    public EntityCache(String spec) {
+        this.entries = Caffeine.from(spec)
+            .executor(Runnable::run)
+            .<Key, Entry>removalListener((key, entry, cause) -> {
+                if (key != null && entry != null && cause != RemovalCause.REPLACED) {
+                    unindex(key, entry);
+                }
+            })
+            .build();
+    }
+
+    /**
+     * Creates a new key for an entity loaded by its native id or primary index.
+     *
+     * @param label        The label or relationship type of the entity
+     * @param primaryIndex The name of the property holding the primary index, {@literal null} if the id is a native id
+     * @param id           The id
+     * @param depth        The loading depth
+     * @return A new key
+     */
+    public static Key key(String label, String primaryIndex, Object id, int depth) {
+        return new Key(label, primaryIndex, id, depth);
+    }
+
+    /**
+     * @param key The key to look up
+     * @return The cached graph models or {@literal null} if there is no entry for the key.
+     */
+    public List<GraphModel> get(Key key) {
+        Entry entry = entries.getIfPresent(key);
+        return entry == null ? null : entry.graphModels;
+    }
+
+    /**
+     * @return The current generation of the cache, to be passed to {@link #put(Key, List, long)} for data read afterwards.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches the graph models loaded for the given key, unless the cache has been invalidated since the models have
+     * been read.
+     *
+     * @param key         The key of the entity the models have been loaded for
+     * @param graphModels The loaded models
+     * @param readAt      The generation of the cache before the models have been read
+     */
+    public void put(Key key, List<GraphModel> graphModels, long readAt) {
+        if (generation.get() != readAt) {
+            return;
+        }
+
+        Entry entry = new Entry(graphModels);
+        if (entries.asMap().putIfAbsent(key, entry) != null) {
+            return;
+        }
+        index(key, entry);
+
+        // An invalidation may have run after the models were read, but before they were indexed.
+        if (generation.get() != readAt) {
+            entries.invalidate(key);
+        }
+    }
+
+    /**
+     * Removes all entries containing any of the given nodes or relationships.
+     *
+     * @param nodeIds         The native ids of the changed nodes
+     * @param relationshipIds The native ids of the changed relationships
+     */
+    public void invalidate(Collection<Long> nodeIds, Collection<Long> relationshipIds) {
+        generation.incrementAndGet();
+        invalidate(keysByNodeId, nodeIds);
+        invalidate(keysByRelationshipId, relationshipIds);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.invalidateAll();
+    }
+
+    /**
+     * @return The approximate number of cached entries
+     */
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    private void invalidate(Map<Long, Set<Key>> keysById, Collection<Long> ids) {
+        for (Long id : ids) {
+            Set<Key> keys = keysById.remove(id);
+            if (keys != null) {
+                entries.invalidateAll(keys);
+            }
+        }
+    }
+
+    private void index(Key key, Entry entry) {
+        for (Long nodeId : entry.nodeIds) {
+            keysByNodeId.compute(nodeId, (id, keys) -> add(keys, key));
+        }
+        for (Long relationshipId : entry.relationshipIds) {
+            keysByRelationshipId.compute(relationshipId, (id, keys) -> add(keys, key));
+        }
+    }
+
+    private void unindex(Key key, Entry entry) {
+        for (Long nodeId : entry.nodeIds) {
+            keysByNodeId.computeIfPresent(nodeId, (id, keys) -> remove(keys, key));
+        }
+        for (Long relationshipId : entry.relationshipIds) {
+            keysByRelationshipId.computeIfPresent(relationshipId, (id, keys) -> remove(keys, key));
+        }
+    }
+
+    // The key sets are only modified while holding the lock of their id in the index, see ConcurrentHashMap#compute
+    private static Set<Key> add(Set<Key> keys, Key key) {
+        Set<Key> result = keys == null ? new HashSet<>() : keys;
+        result.add(key);
+        return result;
+    }
+
+    private static Set<Key> remove(Set<Key> keys, Key key) {
+        keys.remove(key);
+        return keys.isEmpty() ? null : keys;
+    }
+
+    /**
+     * Identifies the graph data loaded for an entity.
+     */
+    public static final class Key {
+
+        private final String label;
+        private final String primaryIndex;
+        private final Object id;
+        private final int depth;
+
+        private Key(String label, String primaryIndex, Object id, int depth) {
+            this.label = label;
+            this.primaryIndex = primaryIndex;
+            this.id = id;
+            this.depth = depth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            return depth == that.depth &&
+                label.equals(that.label) &&
+                Objects.equals(primaryIndex, that.primaryIndex) &&
+                id.equals(that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(label, primaryIndex, id, depth);
+        }
+    }
+
+    private static final class Entry {
+
+        private final List<GraphModel> graphModels;
+        private final Set<Long> nodeIds = new HashSet<>();
+        private final Set<Long> relationshipIds = new HashSet<>();
+
+        private Entry(List<GraphModel> graphModels) {
+            this.graphModels = new ArrayList<>(graphModels);
+            for (GraphModel graphModel : graphModels) {
+                for (Node node : graphModel.getNodes()) {
+                    nodeIds.add(node.getId());
+                }
+                for (Edge edge : graphModel.getRelationships()) {
+                    relationshipIds.add(edge.getId());
+                }
+            }
+        }
+    }
+}
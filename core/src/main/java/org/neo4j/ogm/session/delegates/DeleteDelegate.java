@@ -18,11 +18,14 @@
  */
 package org.neo4j.ogm.session.delegates;
 
+import static java.util.Collections.*;
+
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -83,6 +86,7 @@ public class DeleteDelegate extends SessionDelegate {
             session.notifyListeners(new PersistenceEvent(type, Event.TYPE.PRE_DELETE));
             session.doInTransaction(() -> {
                 try (Response<RowModel> response = session.requestHandler().execute(query)) {
+                    session.invalidateCachedEntities();
                     session.context().removeType(type);
                     if (session.eventsEnabled()) {
                         session.notifyListeners(new PersistenceEvent(type, Event.TYPE.POST_DELETE));
@@ -124,6 +128,7 @@ public class DeleteDelegate extends SessionDelegate {
         RowModelRequest query = new DefaultRowModelRequest(stmt.getStatement(), stmt.getParameters());
         session.doInTransaction(() -> {
             session.requestHandler().execute(query).close();
+            session.invalidateCachedEntities();
         }, Transaction.Type.READ_WRITE);
         session.context().clear();
     }
@@ -158,7 +163,12 @@ public class DeleteDelegate extends SessionDelegate {
         deleteOneOrMoreObjects(objectsForDeletion, allNeighbours);
     }
 
-    // TODO : this is being done in multiple requests at the moment, one per object. Why not put them in a single request?
+    /**
+     * Deletes the given objects within a single transaction and request. The objects are grouped into relationship
+     * entities and nodes, versioned objects additionally by their class, and each group is deleted by statements of
+     * at most {@link Neo4jSession#maxRowsPerStatement()} objects. Relationship entities are deleted first, as deleting
+     * a node deletes its relationships as well.
+     */
     private void deleteOneOrMoreObjects(List<?> objects, Set<Object> neighbours) {
 
         Set<Object> notified = new HashSet<>();
@@ -172,6 +182,8 @@ public class DeleteDelegate extends SessionDelegate {
             }
         }
 
+        Map<Long, Object> relationshipEntitiesById = new LinkedHashMap<>();
+        Map<Long, Object> nodesById = new LinkedHashMap<>();
         for (Object object : objects) {
 
             ClassInfo classInfo = session.metaData().classInfo(object);
@@ -194,38 +206,43 @@ public class DeleteDelegate extends SessionDelegate {
                             .orElse(-1L);
                     });
                 if (id >= 0) {
-                    Statement request = getDeleteStatement(object, id, classInfo);
+                    if (session.metaData().isRelationshipEntity(classInfo.name())) {
+                        relationshipEntitiesById.put(id, object);
+                    } else {
+                        nodesById.put(id, object);
+                    }
                     if (session.eventsEnabled()) {
                         if (!notified.contains(object)) {
                             session.notifyListeners(new PersistenceEvent(object, Event.TYPE.PRE_DELETE));
                             notified.add(object);
                         }
                     }
-                    RowModelRequest query = new DefaultRowModelRequest(request.getStatement(), request.getParameters());
-                    session.doInTransaction(() -> {
-                        try (Response<RowModel> response = session.requestHandler().execute(query)) {
-
-                            if (request.optimisticLockingConfig().isPresent()) {
-                                List<RowModel> rowModels = response.toList();
-                                session.optimisticLockingChecker().checkResultsCount(rowModels, request);
-                            }
-
-                            if (session.metaData().isRelationshipEntity(classInfo.name())) {
-                                session.detachRelationshipEntity(id);
-                            } else {
-                                session.detachNodeEntity(id);
-                            }
-                            if (session.eventsEnabled()) {
-                                if (notified.contains(object)) {
-                                    session.notifyListeners(new PersistenceEvent(object, Event.TYPE.POST_DELETE));
-                                }
-                            }
-                        }
-                    }, Transaction.Type.READ_WRITE);
                 }
             }
         }
 
+        if (!relationshipEntitiesById.isEmpty() || !nodesById.isEmpty()) {
+            List<Statement> statements = new ArrayList<>();
+            addDeleteStatements(relationshipEntitiesById, new RelationshipDeleteStatements(), statements);
+            addDeleteStatements(nodesById, new NodeDeleteStatements(), statements);
+
+            session.doInTransaction(() -> {
+                session.optimisticLockingChecker().execute(statements);
+
+                session.invalidateCachedEntities(nodesById.keySet(), relationshipEntitiesById.keySet());
+                relationshipEntitiesById.keySet().forEach(session::detachRelationshipEntity);
+                nodesById.keySet().forEach(session::detachNodeEntity);
+
+                if (session.eventsEnabled()) {
+                    for (Object object : objects) {
+                        if (notified.contains(object)) {
+                            session.notifyListeners(new PersistenceEvent(object, Event.TYPE.POST_DELETE));
+                        }
+                    }
+                }
+            }, Transaction.Type.READ_WRITE);
+        }
+
         if (session.eventsEnabled()) {
             for (Object affectedObject : neighbours) {
                 if (notified.contains(affectedObject)) {
@@ -235,23 +252,53 @@ public class DeleteDelegate extends SessionDelegate {
         }
     }
 
-    private DeleteStatements getDeleteStatementsBasedOnType(Class type) {
-        if (session.metaData().isRelationshipEntity(type.getName())) {
-            return new RelationshipDeleteStatements();
+    private void addDeleteStatements(Map<Long, Object> objectsById, DeleteStatements deleteStatements,
+        List<Statement> statements) {
+
+        List<Long> unversionedIds = new ArrayList<>();
+        Map<ClassInfo, Map<Long, Long>> versionsByClass = new LinkedHashMap<>();
+        objectsById.forEach((id, object) -> {
+            ClassInfo classInfo = session.metaData().classInfo(object);
+            if (classInfo.hasVersionField()) {
+                versionsByClass.computeIfAbsent(classInfo, k -> new LinkedHashMap<>())
+                    .put(id, (Long) classInfo.getVersionField().read(object));
+            } else {
+                unversionedIds.add(id);
+            }
+        });
+
+        for (List<Long> ids : chunked(unversionedIds)) {
+            statements.add(deleteStatements.delete(ids));
         }
-        return new NodeDeleteStatements();
+        versionsByClass.forEach((classInfo, versionsById) -> {
+            for (List<Map.Entry<Long, Long>> versions : chunked(new ArrayList<>(versionsById.entrySet()))) {
+                Map<Long, Long> chunk = new LinkedHashMap<>();
+                versions.forEach(version -> chunk.put(version.getKey(), version.getValue()));
+                statements.add(deleteStatements.delete(chunk, classInfo));
+            }
+        });
     }
 
-    private Statement getDeleteStatement(Object object, Long identity, ClassInfo classInfo) {
-        DeleteStatements deleteStatements = getDeleteStatementsBasedOnType(object.getClass());
+    private <T> List<List<T>> chunked(List<T> rows) {
+        int maxRowsPerStatement = session.maxRowsPerStatement();
+        if (rows.isEmpty()) {
+            return emptyList();
+        }
+        if (maxRowsPerStatement <= 0 || rows.size() <= maxRowsPerStatement) {
+            return singletonList(rows);
+        }
+        List<List<T>> chunks = new ArrayList<>(rows.size() / maxRowsPerStatement + 1);
+        for (int i = 0; i < rows.size(); i += maxRowsPerStatement) {
+            chunks.add(rows.subList(i, Math.min(i + maxRowsPerStatement, rows.size())));
+        }
+        return chunks;
+    }
 
-        Statement request;
-        if (classInfo.hasVersionField()) {
-            request = deleteStatements.delete(identity, object, classInfo);
-        } else {
-            request = deleteStatements.delete(identity);
+    private DeleteStatements getDeleteStatementsBasedOnType(Class type) {
+        if (session.metaData().isRelationshipEntity(type.getName())) {
+            return new RelationshipDeleteStatements();
         }
-        return request;
+        return new NodeDeleteStatements();
     }
 
     /**
@@ -124,6 +124,9 @@ public class ExecuteQueriesDelegate extends SessionDelegate {
         return session.doInTransaction(() -> {
 
             try (Response<RestModel> response = session.requestHandler().execute(request)) {
+                if (!isReadOnly(cypher)) {
+                    session.invalidateCachedEntities();
+                }
                 Iterable<RestStatisticsModel> mappedModel = mapper.map(null, response);
                 RestStatisticsModel restStatisticsModel = mappedModel.iterator().next();
 
@@ -139,7 +142,7 @@ public class ExecuteQueriesDelegate extends SessionDelegate {
     private <T> Iterable<T> executeAndMap(Class<T> type, String cypher, Map<String, ?> parameters,
         ResponseMapper mapper) {
 
-        return session.<Iterable<T>>doInTransaction(() -> {
+        Iterable<T> results = session.<Iterable<T>>doInTransaction(() -> {
             if (type != null && session.metaData().classInfo(deriveSimpleName(type)) != null) {
                 GraphModelRequest request = new DefaultGraphModelRequest(cypher, parameters);
                 try (Response<GraphModel> response = session.requestHandler().execute(request)) {
@@ -153,6 +156,11 @@ public class ExecuteQueriesDelegate extends SessionDelegate {
                 }
             }
         }, Transaction.Type.READ_WRITE);
+
+        if (!isReadOnly(cypher)) {
+            session.invalidateCachedEntities();
+        }
+        return results;
     }
 
     public long countEntitiesOfType(Class<?> entity) {
@@ -19,9 +19,11 @@
 package org.neo4j.ogm.session.delegates;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -33,10 +35,12 @@ import org.neo4j.ogm.cypher.query.Pagination;
 import org.neo4j.ogm.cypher.query.PagingAndSortingQuery;
 import org.neo4j.ogm.cypher.query.SortOrder;
 import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
 import org.neo4j.ogm.model.GraphModel;
 import org.neo4j.ogm.request.GraphModelRequest;
 import org.neo4j.ogm.response.Response;
 import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.cache.EntityCache;
 import org.neo4j.ogm.session.request.strategy.QueryStatements;
 import org.neo4j.ogm.transaction.Transaction;
 import org.neo4j.ogm.utils.EntityUtils;
@@ -64,6 +68,43 @@ public class LoadByIdsDelegate extends SessionDelegate {
                 + " : no results will be returned. Make sure the class is registered, "
                 + "and not abstract without @NodeEntity annotation");
         }
+
+        // Cached entries can only be merged with the remaining entities when the results are ordered by the ids
+        EntityCache entityCache = session.entityCache();
+        if (entityCache != null && entityLabel != null && session.getTransaction() == null
+            && sortOrder.sortClauses().isEmpty() && pagination == null) {
+
+            FieldInfo primaryIndexField = session.metaData().classInfo(type.getName()).primaryIndexField();
+            String primaryIndex = primaryIndexField == null ? null : primaryIndexField.property();
+
+            List<GraphModel> cachedGraphModels = new ArrayList<>();
+            List<ID> missingIds = new ArrayList<>();
+            for (ID id : ids) {
+                List<GraphModel> graphModels = entityCache.get(EntityCache.key(entityLabel, primaryIndex, id, depth));
+                if (graphModels == null) {
+                    missingIds.add(id);
+                } else {
+                    cachedGraphModels.addAll(graphModels);
+                }
+            }
+
+            if (!cachedGraphModels.isEmpty()) {
+                List<T> mapped = new ArrayList<>();
+                new GraphEntityMapper(session.metaData(), session.context(), session.getEntityInstantiator())
+                    .map(type, cachedGraphModels).forEach(mapped::add);
+                if (!missingIds.isEmpty()) {
+                    mapped.addAll(loadAll(type, entityLabel, missingIds, sortOrder, pagination, depth));
+                }
+                return sortResultsByIds(type, ids, mapped);
+            }
+        }
+
+        return loadAll(type, entityLabel, ids, sortOrder, pagination, depth);
+    }
+
+    private <T, ID extends Serializable> Collection<T> loadAll(Class<T> type, String entityLabel, Collection<ID> ids,
+        SortOrder sortOrder, Pagination pagination, int depth) {
+
         QueryStatements<ID> queryStatements = session.queryStatementsFor(type, depth);
 
         PagingAndSortingQuery qry = queryStatements.findAllByType(entityLabel, ids, depth)
@@ -19,6 +19,7 @@
 package org.neo4j.ogm.session.delegates;
 
 import java.io.Serializable;
+import java.util.List;
 
 import org.neo4j.ogm.annotation.RelationshipEntity;
 import org.neo4j.ogm.context.GraphEntityMapper;
@@ -30,6 +31,7 @@ import org.neo4j.ogm.model.GraphModel;
 import org.neo4j.ogm.request.GraphModelRequest;
 import org.neo4j.ogm.response.Response;
 import org.neo4j.ogm.session.Neo4jSession;
+import org.neo4j.ogm.session.cache.EntityCache;
 import org.neo4j.ogm.session.request.strategy.QueryStatements;
 import org.neo4j.ogm.transaction.Transaction;
 import org.slf4j.Logger;
@@ -75,15 +77,43 @@ public class LoadOneDelegate extends SessionDelegate {
                 + " : no results will be returned. Make sure the class is registered, "
                 + "and not abstract without @NodeEntity annotation");
         }
+
+        // Only data read outside of a transaction is known to be committed and free of this session's own changes
+        EntityCache entityCache = session.entityCache();
+        EntityCache.Key cacheKey = entityCache != null && entityType != null && session.getTransaction() == null ?
+            EntityCache.key(entityType, primaryIndexField == null ? null : primaryIndexField.property(), id, depth) :
+            null;
+        if (cacheKey != null) {
+            List<GraphModel> graphModels = entityCache.get(cacheKey);
+            if (graphModels != null) {
+                new GraphEntityMapper(session.metaData(), session.context(), session.getEntityInstantiator())
+                    .map(type, graphModels);
+                return lookup(type, id);
+            }
+        }
+        long readAt = cacheKey != null ? entityCache.generation() : 0L;
+
         PagingAndSortingQuery qry = queryStatements.findOneByType(entityType, id, depth);
 
         GraphModelRequest request = new DefaultGraphModelRequest(qry.getStatement(), qry.getParameters());
 
         return session.doInTransaction(() -> {
             try (Response<GraphModel> response = session.requestHandler().execute(request)) {
-                new GraphEntityMapper(session.metaData(), session.context(), session.getEntityInstantiator())
-                    .map(type, response);
-                return lookup(type, id);
+                GraphEntityMapper mapper = new GraphEntityMapper(session.metaData(), session.context(),
+                    session.getEntityInstantiator());
+                if (cacheKey == null) {
+                    mapper.map(type, response);
+                    return lookup(type, id);
+                }
+
+                List<GraphModel> graphModels = response.toList();
+                mapper.map(type, graphModels);
+                T entity = lookup(type, id);
+                // Misses are not cached, there is nothing to invalidate them when the entity gets created
+                if (entity != null) {
+                    entityCache.put(cacheKey, graphModels, readAt);
+                }
+                return entity;
             }
         }, Transaction.Type.READ_ONLY);
     }
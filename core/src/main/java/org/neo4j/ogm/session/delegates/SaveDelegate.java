@@ -21,11 +21,16 @@ package org.neo4j.ogm.session.delegates;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 import org.neo4j.ogm.context.EntityGraphMapper;
+import org.neo4j.ogm.context.MappingContext;
 import org.neo4j.ogm.context.WriteProtectionTarget;
+import org.neo4j.ogm.cypher.compiler.CompileContext;
 import org.neo4j.ogm.session.Neo4jSession;
 import org.neo4j.ogm.session.WriteProtectionStrategy;
 import org.neo4j.ogm.session.request.RequestExecutor;
@@ -42,6 +47,10 @@ public class SaveDelegate extends SessionDelegate {
 
     private WriteProtectionStrategy writeProtectionStrategy;
 
+    // the entities whose saves are held back until the next flush, with the depth to save each one to
+    private final List<Object> pendingRoots = new ArrayList<>();
+    private final Map<Object, Integer> pendingDepths = new IdentityHashMap<>();
+
     public SaveDelegate(Neo4jSession session) {
         super(session);
         requestExecutor = new RequestExecutor(session);
@@ -51,44 +60,112 @@ public class SaveDelegate extends SessionDelegate {
         save(object, -1); // default : full tree of changed objects
     }
 
-    public <T> void save(T object, int depth) {
+    public <T> CompileContext save(T object, int depth) {
+        return save(entitiesOf(object), root -> depth);
+    }
 
-        SaveEventDelegate eventsDelegate = new SaveEventDelegate(session);
+    /**
+     * Holds back the save of the given object or objects until {@link #flush()} is called. An entity held back
+     * several times is saved once, as deep as the deepest of its saves.
+     *
+     * @param object the entity, array or iterable of entities to save
+     * @param depth  the depth to save to, -1 for the whole graph
+     */
+    public <T> void saveLater(T object, int depth) {
+        for (Object root : entitiesOf(object)) {
+            Integer pendingDepth = pendingDepths.get(root);
+            if (pendingDepth == null) {
+                pendingRoots.add(root);
+                pendingDepths.put(root, depth);
+            } else if (pendingDepth >= 0 && (depth < 0 || depth > pendingDepth)) {
+                pendingDepths.put(root, depth);
+            }
+        }
+    }
 
-        EntityGraphMapper entityGraphMapper = new EntityGraphMapper(session.metaData(), session.context());
-        if (this.writeProtectionStrategy != null) {
-            entityGraphMapper.addWriteProtection(this.writeProtectionStrategy.get());
+    /**
+     * @return true if there are saves held back by {@link #saveLater(Object, int)}
+     */
+    public boolean hasPendingSaves() {
+        return !pendingRoots.isEmpty();
+    }
+
+    /**
+     * Saves all entities held back by {@link #saveLater(Object, int)} together.
+     */
+    public void flush() {
+        if (pendingRoots.isEmpty()) {
+            return;
         }
+        // taken out first, so that the queries of the save itself don't flush again
+        List<Object> roots = new ArrayList<>(pendingRoots);
+        Map<Object, Integer> depths = new IdentityHashMap<>(pendingDepths);
+        discardPendingSaves();
+
+        save(roots, root -> depths.getOrDefault(root, -1));
+    }
 
-        Iterable<T> objects;
+    /**
+     * Forgets all saves held back by {@link #saveLater(Object, int)}.
+     */
+    public void discardPendingSaves() {
+        pendingRoots.clear();
+        pendingDepths.clear();
+    }
+
+    private List<Object> entitiesOf(Object object) {
+        List<Object> objects;
         if (object.getClass().isArray()) {
             int length = Array.getLength(object);
-            List<T> copy = new ArrayList<>(length);
+            objects = new ArrayList<>(length);
             for (int i = 0; i < length; i++) {
-                T arrayElement = (T) Array.get(object, i);
-                copy.add(arrayElement);
+                objects.add(Array.get(object, i));
             }
-            objects = copy;
         } else if (Iterable.class.isAssignableFrom(object.getClass())) {
-            objects = (Iterable<T>) object;
+            objects = new ArrayList<>();
+            ((Iterable<?>) object).forEach(objects::add);
         } else if (session.metaData().classInfo(object) != null) {
             objects = Collections.singletonList(object);
         } else {
             throw new IllegalArgumentException("Class " + object.getClass() + " is not a valid entity class. "
                 + "Please check the entity mapping.");
         }
+        return objects;
+    }
+
+    private CompileContext save(List<Object> objects, ToIntFunction<Object> depthOf) {
+
+        EntityGraphMapper entityGraphMapper = new EntityGraphMapper(session.metaData(), session.context());
+        if (this.writeProtectionStrategy != null) {
+            entityGraphMapper.addWriteProtection(this.writeProtectionStrategy.get());
+        }
+
+        MappingContext mappingContext = session.context();
+        List<Object> roots = objects;
+        if (mappingContext.tracksReferences()) {
+            // changes behind unchanged entities are not reached by the traversal, so they are saved as roots of their own
+            roots = new ArrayList<>(objects);
+            roots.addAll(mappingContext.getDirtyFrontier());
+        }
 
         if (session.eventsEnabled()) {
-            objects.forEach(item -> {
-                eventsDelegate.preSave(item);
-                entityGraphMapper.map(item, depth);
-            });
+            SaveEventDelegate eventsDelegate = new SaveEventDelegate(session);
+            eventsDelegate.listenTo(entityGraphMapper);
+            roots.forEach(item -> entityGraphMapper.map(item, depthOf.applyAsInt(item)));
+            eventsDelegate.preSaveRelatedEntities(entityGraphMapper);
             requestExecutor.executeSave(entityGraphMapper.compileContext());
             eventsDelegate.postSave();
         } else {
-            objects.forEach(item -> entityGraphMapper.map(item, depth));
+            roots.forEach(item -> entityGraphMapper.map(item, depthOf.applyAsInt(item)));
             requestExecutor.executeSave(entityGraphMapper.compileContext());
         }
+
+        entityGraphMapper.rememberMappedCollections();
+        if (mappingContext.tracksReferences()) {
+            entityGraphMapper.rememberMappedReferences();
+            mappingContext.clearMarkedDirty();
+        }
+        return entityGraphMapper.compileContext();
     }
 
     public void addWriteProtection(WriteProtectionTarget target, Predicate<Object> protection) {
@@ -18,16 +18,20 @@
  */
 package org.neo4j.ogm.session.request;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.StringJoiner;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.neo4j.ogm.exception.OptimisticLockingException;
 import org.neo4j.ogm.model.RowModel;
 import org.neo4j.ogm.request.OptimisticLockingConfig;
 import org.neo4j.ogm.request.Statement;
+import org.neo4j.ogm.response.Response;
 import org.neo4j.ogm.session.Neo4jSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,76 +49,159 @@ public class OptimisticLockingChecker {
         this.session = session;
     }
 
-    public void checkResultsCount(List<RowModel> models, Statement request) {
-        OptimisticLockingConfig olConfig = request.optimisticLockingConfig().orElseThrow(
-            () -> new IllegalArgumentException("Statement " + request + " doesn't require results count check")
-        );
+    /**
+     * Executes statements in the given order and checks the results of those carrying an optimistic locking check.
+     * Consecutive statements without check go out together in one request. Each statement with a check is sent in a
+     * request of its own, so that its rows are not mixed with the rows of any other statement.
+     *
+     * @param statements the statements to execute
+     * @return the rows returned by all statements, in the order of the statements
+     */
+    public List<RowModel> execute(List<Statement> statements) {
+
+        List<RowModel> rowModels = new ArrayList<>();
+        List<Statement> checkedStatements = new ArrayList<>();
+        List<List<RowModel>> checkedRows = new ArrayList<>();
+        List<Statement> uncheckedStatements = new ArrayList<>();
+
+        for (Statement statement : statements) {
+            if (statement.optimisticLockingConfig().isPresent()) {
+                rowModels.addAll(executeRequest(uncheckedStatements));
+                uncheckedStatements = new ArrayList<>();
+
+                List<RowModel> rows = executeRequest(Collections.singletonList(statement));
+                checkedStatements.add(statement);
+                checkedRows.add(rows);
+                rowModels.addAll(rows);
+            } else {
+                uncheckedStatements.add(statement);
+            }
+        }
+        rowModels.addAll(executeRequest(uncheckedStatements));
 
-        StringBuilder message = new StringBuilder();
+        checkResults(checkedRows, checkedStatements);
+        return rowModels;
+    }
 
-        if (olConfig.getExpectedResultsCount() != models.size()) {
-            message.append("Optimistic locking exception failed. ");
+    private List<RowModel> executeRequest(List<Statement> statements) {
+        if (statements.isEmpty()) {
+            return Collections.emptyList();
+        }
+        DefaultRequest request = new DefaultRequest();
+        request.setStatements(statements);
+        try (Response<RowModel> response = session.requestHandler().execute(request)) {
+            return response.toList();
+        }
+    }
 
-            Map<String, Object> parameters = request.getParameters();
-            Object type = parameters.get("type");
+    /**
+     * Checks the results of statements that have been executed together. Every row of a statement carrying an
+     * optimistic locking check must have matched its entity, so that the id of the entity is among the rows returned
+     * by that very statement. The entities whose ids are missing had an incorrect version: They are detached from the
+     * session and reported by a single {@link OptimisticLockingException}.
+     *
+     * @param rowsPerStatement the rows returned by each statement, at the same position as the statement
+     * @param statements       the executed statements, statements without optimistic locking check are skipped
+     */
+    public void checkResults(List<List<RowModel>> rowsPerStatement, List<Statement> statements) {
+
+        // native id -> expected version of the entities that have not been matched
+        Map<Long, ExpectedVersion> missingNodes = new LinkedHashMap<>();
+        Map<Long, ExpectedVersion> missingRels = new LinkedHashMap<>();
+
+        for (int i = 0; i < statements.size(); i++) {
+            Statement statement = statements.get(i);
+            if (!statement.optimisticLockingConfig().isPresent()) {
+                continue;
+            }
 
-            List<Map<String, Object>> rows = (List<Map<String, Object>>) parameters.get("rows");
-            if (rows != null) {
+            Map<Long, ExpectedVersion> expectedNodes = new LinkedHashMap<>();
+            Map<Long, ExpectedVersion> expectedRels = new LinkedHashMap<>();
+            collectExpectedVersions(statement, expectedNodes, expectedRels);
+            removeMatched(rowsPerStatement.get(i), expectedNodes, expectedRels);
 
-                Map<Long, Long> nodeIds = new HashMap<>();
-                Map<Long, Long> relIds = new HashMap<>();
+            missingNodes.putAll(expectedNodes);
+            missingRels.putAll(expectedRels);
+        }
 
-                for (Map<String, Object> row : rows) {
-                    if (type.equals("node")) {
-                        nodeIds.put((Long) row.get("nodeId"), (Long) row.get(olConfig.getVersionProperty()));
-                    } else if (type.equals("rel")) {
-                        relIds.put((Long) row.get("relId"), (Long) row.get(olConfig.getVersionProperty()));
-                    }
-                }
+        if (missingNodes.isEmpty() && missingRels.isEmpty()) {
+            return;
+        }
 
-                if (!models.isEmpty()) {
-
-                    int idPosition = ArrayUtils.indexOf(models.get(0).variables(), "id");
-                    for (RowModel model : models) {
-                        Object id = model.getValues()[idPosition];
-                        if (type.equals("node")) {
-                            nodeIds.remove(id);
-                        } else if (type.equals("rel")) {
-                            relIds.remove(id);
-                        }
-                    }
-                }
+        StringJoiner failures = new StringJoiner("; ", "Optimistic locking exception failed. ", "");
 
-                for (Map.Entry<Long, Long> node : nodeIds.entrySet()) {
-                    Long nodeId = node.getKey();
-                    session.context().detachNodeEntity(nodeId);
-                    message.append("Entity with type='").append(Arrays.toString(olConfig.getTypes())).append("' and id='")
-                        .append(nodeId).append("' had incorrect version ").append(node.getValue());
-                }
+        for (Map.Entry<Long, ExpectedVersion> node : missingNodes.entrySet()) {
+            Long nodeId = node.getKey();
+            session.context().detachNodeEntity(nodeId);
+            failures.add("Entity with type='" + Arrays.toString(node.getValue().olConfig.getTypes())
+                + "' and id='" + nodeId + "' had incorrect version " + node.getValue().version);
+        }
 
-                for (Map.Entry<Long, Long> rel : relIds.entrySet()) {
-                    Long relId = rel.getKey();
-                    session.context().detachRelationshipEntity(relId);
-                    message.append("Entity with id")
-                        .append(relId).append("had incorrect version ").append(rel.getValue());
-                }
+        for (Map.Entry<Long, ExpectedVersion> rel : missingRels.entrySet()) {
+            Long relId = rel.getKey();
+            session.context().detachRelationshipEntity(relId);
+            failures.add("Entity with id='" + relId + "' had incorrect version " + rel.getValue().version);
+        }
 
+        throw new OptimisticLockingException(failures.toString());
+    }
 
-            } else {
-                Object id = parameters.get("id");
-                if (id != null && models.isEmpty()) {
+    private static void collectExpectedVersions(Statement statement, Map<Long, ExpectedVersion> expectedNodes,
+        Map<Long, ExpectedVersion> expectedRels) {
+
+        OptimisticLockingConfig olConfig = statement.optimisticLockingConfig().get();
+        Map<String, Object> parameters = statement.getParameters();
+        Object type = parameters.get("type");
+        List<Map<String, Object>> rows = (List<Map<String, Object>>) parameters.get("rows");
+        if (rows == null) {
+            // a statement for a single entity, given by its id and version
+            ExpectedVersion version = new ExpectedVersion(olConfig, parameters.get("version"));
+            if (type.equals("node")) {
+                expectedNodes.put((Long) parameters.get("id"), version);
+            } else if (type.equals("rel")) {
+                expectedRels.put((Long) parameters.get("id"), version);
+            }
+            return;
+        }
+        for (Map<String, Object> row : rows) {
+            ExpectedVersion version = new ExpectedVersion(olConfig, row.get(olConfig.getVersionProperty()));
+            if (type.equals("node")) {
+                expectedNodes.put((Long) row.get("nodeId"), version);
+            } else if (type.equals("rel")) {
+                expectedRels.put((Long) row.get("relId"), version);
+            }
+        }
+    }
 
-                    if (type.equals("node")) {
-                        session.context().detachNodeEntity((Long) id);
-                    } else if (type.equals("rel")) {
-                        session.context().detachRelationshipEntity((Long) id);
-                    }
+    private static void removeMatched(List<RowModel> models, Map<Long, ExpectedVersion> expectedNodes,
+        Map<Long, ExpectedVersion> expectedRels) {
 
+        for (RowModel model : models) {
+            int idPosition = ArrayUtils.indexOf(model.variables(), "id");
+            int typePosition = ArrayUtils.indexOf(model.variables(), "type");
+            if (idPosition < 0 || typePosition < 0) {
+                continue;
+            }
+            Object id = model.getValues()[idPosition];
+            Object type = model.getValues()[typePosition];
+            if (id instanceof Number) {
+                if ("node".equals(type)) {
+                    expectedNodes.remove(((Number) id).longValue());
+                } else if ("rel".equals(type)) {
+                    expectedRels.remove(((Number) id).longValue());
                 }
             }
+        }
+    }
+
+    private static class ExpectedVersion {
 
+        private final OptimisticLockingConfig olConfig;
+        private final Object version;
 
-            throw new OptimisticLockingException(message.toString());
+        ExpectedVersion(OptimisticLockingConfig olConfig, Object version) {
+            this.olConfig = olConfig;
+            this.version = version;
         }
     }
 }
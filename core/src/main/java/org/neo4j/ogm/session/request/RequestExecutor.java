@@ -20,10 +20,13 @@ package org.neo4j.ogm.session.request;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.neo4j.ogm.annotation.RelationshipEntity;
+import org.neo4j.ogm.context.Mappable;
 import org.neo4j.ogm.context.MappedRelationship;
 import org.neo4j.ogm.context.MappingContext;
 import org.neo4j.ogm.context.TransientRelationship;
@@ -32,7 +35,6 @@ import org.neo4j.ogm.cypher.compiler.Compiler;
 import org.neo4j.ogm.metadata.ClassInfo;
 import org.neo4j.ogm.model.RowModel;
 import org.neo4j.ogm.request.Statement;
-import org.neo4j.ogm.response.Response;
 import org.neo4j.ogm.session.Neo4jSession;
 import org.neo4j.ogm.transaction.AbstractTransaction;
 import org.neo4j.ogm.transaction.Transaction;
@@ -68,6 +70,8 @@ public class RequestExecutor {
 
         Compiler compiler = context.getCompiler();
         compiler.useStatementFactory(new RowStatementFactory());
+        compiler.useMaxRowsPerStatement(session.maxRowsPerStatement());
+        compiler.useOrderedRows(session.orderSaveRows());
 
         List<ReferenceMapping> entityReferenceMappings = new ArrayList<>();
         List<ReferenceMapping> relReferenceMappings = new ArrayList<>();
@@ -81,7 +85,18 @@ public class RequestExecutor {
 
             //If there are statements that depend on new nodes i.e. relationships created between new nodes,
             //we must create the new nodes first, and then use their node IDs when creating relationships between them
-            if (compiler.hasStatementsDependentOnNewNodes()) {
+            if (compiler.hasStatementsDependentOnNewNodes() && session.useSingleRoundTripSave()) {
+                // create the new nodes and the relationships depending on them in one go, the combined statement
+                // returns the ids of both
+                List<Statement> statements = new ArrayList<>();
+                statements.addAll(compiler.createNodesAndRelationshipsStatements());
+                statements.addAll(compiler.updateNodesStatements());
+                statements.addAll(compiler.updateRelationshipStatements());
+                statements.addAll(compiler.deleteRelationshipStatements());
+                statements.addAll(compiler.deleteRelationshipEntityStatements());
+
+                executeStatements(context, entityReferenceMappings, relReferenceMappings, statements);
+            } else if (compiler.hasStatementsDependentOnNewNodes()) {
                 // execute the statements to create new nodes. The ids will be returned
                 // and will be used in subsequent statements that refer to these new nodes.
                 executeStatements(context, entityReferenceMappings, relReferenceMappings,
@@ -100,6 +115,7 @@ public class RequestExecutor {
                 executeStatements(context, entityReferenceMappings, relReferenceMappings, statements);
             }
 
+            invalidateCachedEntities(context);
         }, forceTx, Transaction.Type.READ_WRITE);
 
         //Update the mapping context now that the request is successful
@@ -112,25 +128,10 @@ public class RequestExecutor {
         List<ReferenceMapping> relReferenceMappings, List<Statement> statements) {
         if (statements.size() > 0) {
 
-            List<Statement> noCheckStatements = new ArrayList<>();
-            for (Statement statement : statements) {
-                if (statement.optimisticLockingConfig().isPresent()) {
-                    DefaultRequest request = new DefaultRequest(statement);
-                    try (Response<RowModel> response = session.requestHandler().execute(request)) {
-                        List<RowModel> rowModels = response.toList();
-                        session.optimisticLockingChecker().checkResultsCount(rowModels, statement);
-                        registerEntityIds(context, rowModels, entityReferenceMappings, relReferenceMappings);
-                    }
-                } else {
-                    noCheckStatements.add(statement);
-                }
-            }
-
-            DefaultRequest defaultRequest = new DefaultRequest();
-            defaultRequest.setStatements(noCheckStatements);
-            try (Response<RowModel> response = session.requestHandler().execute(defaultRequest)) {
-                registerEntityIds(context, response.toList(), entityReferenceMappings, relReferenceMappings);
-            }
+            // statements with optimistic locking checks are executed on their own, so that the ids they return can be
+            // told apart from the rows of all others
+            List<RowModel> rowModels = session.optimisticLockingChecker().execute(statements);
+            registerEntityIds(context, rowModels, entityReferenceMappings, relReferenceMappings);
         }
     }
 
@@ -189,6 +190,45 @@ public class RequestExecutor {
         }
     }
 
+    /**
+     * Invalidates the cached graph data of all existing nodes and relationships touched by the request.
+     *
+     * @param context the compile context
+     */
+    private void invalidateCachedEntities(CompileContext context) {
+        if (session.entityCache() == null) {
+            return;
+        }
+
+        Set<Long> nodeIds = new HashSet<>();
+        Set<Long> relationshipIds = new HashSet<>();
+        for (Object obj : context.registry()) {
+            if (obj instanceof TransientRelationship) {
+                TransientRelationship transientRelationship = (TransientRelationship) obj;
+                if (transientRelationship.getSrc() >= 0) {
+                    nodeIds.add(transientRelationship.getSrc());
+                }
+                if (transientRelationship.getTgt() >= 0) {
+                    nodeIds.add(transientRelationship.getTgt());
+                }
+            } else {
+                Long id = session.context().nativeId(obj);
+                if (id >= 0) {
+                    if (session.metaData().classInfo(obj).isRelationshipEntity()) {
+                        relationshipIds.add(id);
+                    } else {
+                        nodeIds.add(id);
+                    }
+                }
+            }
+        }
+        for (Mappable deletedRelationship : context.getDeletedRelationships()) {
+            nodeIds.add(deletedRelationship.getStartNodeId());
+            nodeIds.add(deletedRelationship.getEndNodeId());
+        }
+        session.invalidateCachedEntities(nodeIds, relationshipIds);
+    }
+
     /**
      * Update the mapping context with entity ids for new/existing nodes created or updated in the request.
      *
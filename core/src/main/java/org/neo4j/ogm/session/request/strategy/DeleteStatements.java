@@ -19,6 +19,7 @@
 package org.neo4j.ogm.session.request.strategy;
 
 import java.util.Collection;
+import java.util.Map;
 
 import org.neo4j.ogm.cypher.Filter;
 import org.neo4j.ogm.cypher.query.CypherQuery;
@@ -49,6 +50,19 @@ public interface DeleteStatements {
      */
     CypherQuery delete(Long id, Object object, ClassInfo classInfo);
 
+    /**
+     * Construct a query to delete the objects with the given ids, checking the version of each object. The query
+     * returns the ids of the deleted objects, objects with a different version are not deleted.
+     * <p>
+     * Each row is looked up with {@code ID(...) = row.<id>}, which the database plans as a seek by id for every row
+     * (just like the rows of the save statements), so the query stays linear in the number of objects.
+     *
+     * @param versionsById the ids of the objects, mapped to their expected versions
+     * @param classInfo    the class of the objects
+     * @return a {@link CypherQuery}
+     */
+    CypherQuery delete(Map<Long, Long> versionsById, ClassInfo classInfo);
+
     /**
      * construct a query to delete all objects
      *
@@ -72,6 +86,24 @@ public interface DeleteStatements {
      */
     CypherQuery delete(String type);
 
+    /**
+     * construct a query to delete at most the given number of objects with the specified label or relationship type
+     * and return the ids of the deleted objects
+     *
+     * @param type      the label attached to the object, or the relationship type
+     * @param batchSize the maximum number of objects to delete
+     * @return a {@link CypherQuery}
+     */
+    CypherQuery deleteBatch(String type, int batchSize);
+
+    /**
+     * construct a query to delete at most the given number of objects and return the ids of the deleted objects
+     *
+     * @param batchSize the maximum number of objects to delete
+     * @return a {@link CypherQuery}
+     */
+    CypherQuery deleteAllBatch(int batchSize);
+
     /**
      * construct queries to delete all objects with the specified label that match the specified filters
      *
@@ -18,7 +18,10 @@
  */
 package org.neo4j.ogm.session.request.strategy.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 import org.neo4j.ogm.cypher.Filter;
 import org.neo4j.ogm.cypher.query.CypherQuery;
@@ -58,12 +61,33 @@ public class NodeDeleteStatements implements DeleteStatements {
             + " WHERE n.`" + versionField.property() + "` = {version} + 1 "
             + "OPTIONAL MATCH (n)-[r0]-() "
             + "DELETE r0, n "
-            + "RETURN DISTINCT id(n) AS id", // Use DISTINCT because node may have multiple relationships
+            + "RETURN DISTINCT id(n) AS id, {type} AS type", // Use DISTINCT because node may have multiple relationships
             Utils.map("id", id, "version", version, "type", "node"),
             optimisticLockingConfig);
 
     }
 
+    @Override
+    public CypherQuery delete(Map<Long, Long> versionsById, ClassInfo classInfo) {
+        String versionProperty = classInfo.getVersionField().property();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        versionsById.forEach((id, version) -> rows.add(Utils.map("nodeId", id, versionProperty, version)));
+        OptimisticLockingConfig optimisticLockingConfig = new OptimisticLockingConfig(rows.size(),
+            classInfo.staticLabels().toArray(new String[] {}), versionProperty);
+
+        return new DefaultRowModelRequest("UNWIND {rows} AS row MATCH (n) "
+            + "  WHERE ID(n) = row.nodeId AND n.`" + versionProperty + "` = row.`" + versionProperty + "` "
+            + "SET "
+            + " n.`" + versionProperty + "` = n.`" + versionProperty + "` + 1 "
+            + "WITH n, row "
+            + " WHERE n.`" + versionProperty + "` = row.`" + versionProperty + "` + 1 "
+            + "OPTIONAL MATCH (n)-[r0]-() "
+            + "DELETE r0, n "
+            + "RETURN DISTINCT ID(n) AS ref, ID(n) AS id, {type} AS type",
+            Utils.map("rows", rows, "type", "node"),
+            optimisticLockingConfig);
+    }
+
     @Override
     public CypherQuery delete(Collection<Long> ids) {
         return new DefaultRowModelRequest("MATCH (n) WHERE ID(n) in { ids } OPTIONAL MATCH (n)-[r0]-() DELETE r0, n",
@@ -81,6 +105,19 @@ public class NodeDeleteStatements implements DeleteStatements {
             String.format("MATCH (n:`%s`) OPTIONAL MATCH (n)-[r0]-() DELETE r0, n", label), Utils.map());
     }
 
+    @Override
+    public CypherQuery deleteBatch(String label, int batchSize) {
+        return new DefaultRowModelRequest(
+            String.format("MATCH (n:`%s`) WITH n LIMIT { batchSize } DETACH DELETE n RETURN ID(n) AS id", label),
+            Utils.map("batchSize", batchSize));
+    }
+
+    @Override
+    public CypherQuery deleteAllBatch(int batchSize) {
+        return new DefaultRowModelRequest("MATCH (n) WITH n LIMIT { batchSize } DETACH DELETE n RETURN ID(n) AS id",
+            Utils.map("batchSize", batchSize));
+    }
+
     @Override
     public CypherQuery delete(String label, Iterable<Filter> filters) {
         FilteredQuery query = FilteredQueryBuilder.buildNodeQuery(label, filters);
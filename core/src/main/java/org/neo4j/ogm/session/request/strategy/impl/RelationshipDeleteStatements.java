@@ -18,7 +18,10 @@
  */
 package org.neo4j.ogm.session.request.strategy.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 import org.neo4j.ogm.cypher.Filter;
 import org.neo4j.ogm.cypher.query.CypherQuery;
@@ -55,10 +58,29 @@ public class RelationshipDeleteStatements implements DeleteStatements {
             + "WITH r0 "
             + " WHERE r0.`" + versionField.property() + "` = {version} + 1 "
             + "DELETE r0 "
-            + "RETURN DISTINCT ID(r0) AS id", // Use DISTINCT because node may have multiple relationships
+            + "RETURN DISTINCT ID(r0) AS id, {type} AS type", // Use DISTINCT because node may have multiple relationships
             Utils.map("id", id, "version", version, "type", "rel"), optimisticLockingConfig);
     }
 
+    @Override
+    public CypherQuery delete(Map<Long, Long> versionsById, ClassInfo classInfo) {
+        String versionProperty = classInfo.getVersionField().property();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        versionsById.forEach((id, version) -> rows.add(Utils.map("relId", id, versionProperty, version)));
+        OptimisticLockingConfig optimisticLockingConfig = new OptimisticLockingConfig(rows.size(),
+            classInfo.staticLabels().toArray(new String[] {}), versionProperty);
+
+        return new DefaultRowModelRequest("UNWIND {rows} AS row MATCH ()-[r0]->() "
+            + "  WHERE ID(r0) = row.relId AND r0.`" + versionProperty + "` = row.`" + versionProperty + "` "
+            + "SET "
+            + " r0.`" + versionProperty + "` = r0.`" + versionProperty + "` + 1 "
+            + "WITH r0, row "
+            + " WHERE r0.`" + versionProperty + "` = row.`" + versionProperty + "` + 1 "
+            + "DELETE r0 "
+            + "RETURN DISTINCT ID(r0) AS ref, ID(r0) AS id, {type} AS type",
+            Utils.map("rows", rows, "type", "rel"), optimisticLockingConfig);
+    }
+
     public CypherQuery delete(Collection<Long> ids) {
         return new DefaultRowModelRequest("MATCH (n)-[r0]->() WHERE ID(r0) IN { ids } DELETE r0",
             Utils.map("ids", ids));
@@ -72,6 +94,20 @@ public class RelationshipDeleteStatements implements DeleteStatements {
         return new DefaultRowModelRequest(String.format("MATCH (n)-[r0:`%s`]-() DELETE r0", type), Utils.map());
     }
 
+    @Override
+    public CypherQuery deleteBatch(String type, int batchSize) {
+        return new DefaultRowModelRequest(
+            String.format("MATCH (n)-[r0:`%s`]->() WITH r0 LIMIT { batchSize } DELETE r0 RETURN ID(r0) AS id", type),
+            Utils.map("batchSize", batchSize));
+    }
+
+    @Override
+    public CypherQuery deleteAllBatch(int batchSize) {
+        return new DefaultRowModelRequest(
+            "MATCH (n)-[r0]->() WITH r0 LIMIT { batchSize } DELETE r0 RETURN ID(r0) AS id",
+            Utils.map("batchSize", batchSize));
+    }
+
     @Override
     public CypherQuery delete(String type, Iterable<Filter> filters) {
         FilteredQuery query = FilteredQueryBuilder.buildRelationshipQuery(type, filters);
@@ -96,6 +96,7 @@ public class DefaultTransactionManager implements TransactionManager {
         }
 
         TRANSACTION_THREAD_LOCAL.remove();
+        ((Neo4jSession) session).afterTransactionCompletion(false);
     }
 
     /**
@@ -111,6 +112,21 @@ public class DefaultTransactionManager implements TransactionManager {
             throw new TransactionManagerException("Transaction is not current for this thread");
         }
         TRANSACTION_THREAD_LOCAL.remove();
+        if (session != null) {
+            ((Neo4jSession) session).afterTransactionCompletion(true);
+        }
+    }
+
+    /**
+     * Flushes the saves the session has held back, before the specified TRANSACTION_THREAD_LOCAL is committed.
+     *
+     * @param tx the TRANSACTION_THREAD_LOCAL about to be committed
+     */
+    @Override
+    public void beforeCommit(Transaction tx) {
+        if (session != null && tx == getCurrentTransaction() && canCommit()) {
+            session.flush();
+        }
     }
 
     /**
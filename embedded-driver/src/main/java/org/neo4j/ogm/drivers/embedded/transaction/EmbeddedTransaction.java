@@ -76,6 +76,7 @@ public class EmbeddedTransaction extends AbstractTransaction {
 
     @Override
     public void commit() {
+        transactionManager.beforeCommit(this);
         try {
             if (transactionManager.canCommit()) {
                 LOGGER.debug("Committing native transaction: {}", nativeTransaction);
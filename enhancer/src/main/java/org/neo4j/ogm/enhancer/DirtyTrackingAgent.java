@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.enhancer;
+
+import java.lang.instrument.Instrumentation;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Java agent enhancing entities to track writes to their fields through {@link org.neo4j.ogm.session.DirtyTracking},
+ * see {@link DirtyTrackingEnhancer}. The packages of the entities are given as agent arguments, separated by commas:
+ * <pre>
+ * java -javaagent:neo4j-ogm-enhancer.jar=com.example.domain,com.example.other ...
+ * </pre>
+ * The agent needs ASM on the class path. Entities not enhanced, for example because they have been loaded before the
+ * agent has been started, are checked by hashing their properties as usual.
+ *
+ * @since 3.2
+ */
+public final class DirtyTrackingAgent {
+
+    public static void premain(String agentArgs, Instrumentation instrumentation) {
+        instrumentation.addTransformer(new DirtyTrackingTransformer(packagesOf(agentArgs)));
+    }
+
+    static List<String> packagesOf(String agentArgs) {
+        List<String> packages = new ArrayList<>();
+        if (agentArgs != null) {
+            for (String packageName : agentArgs.split(",")) {
+                if (!packageName.trim().isEmpty()) {
+                    packages.add(packageName.trim());
+                }
+            }
+        }
+        if (packages.isEmpty()) {
+            throw new IllegalArgumentException("The packages of the entities to enhance must be given as agent "
+                + "arguments, e.g. -javaagent:neo4j-ogm-enhancer.jar=com.example.domain");
+        }
+        return packages;
+    }
+
+    private DirtyTrackingAgent() {
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.enhancer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.neo4j.ogm.session.DirtyTracking;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Enhances classes to track writes to their fields through {@link DirtyTracking}, so that the session checks them for
+ * changes by their flag instead of hashing all their properties.
+ * <p>
+ * All classes in the given packages are enhanced, except interfaces, enums and annotations, and classes implementing
+ * {@link DirtyTracking} themselves or extending such a class. The topmost enhanced class of a hierarchy implements
+ * {@link DirtyTracking}. Every write to a persistent field of an enhanced class flags the written object as dirty, as
+ * long as the write is made by a class in the given packages. Writes made through reflection, like the ones of the
+ * session when it loads entities, are not tracked.
+ *
+ * @since 3.2
+ */
+public class DirtyTrackingEnhancer {
+
+    static final String DIRTY_FIELD = "ogm$dirtyProperties";
+    static final String MARK_DIRTY_METHOD = "ogm$markDirtyProperties";
+
+    private static final String DIRTY_TRACKING = Type.getInternalName(DirtyTracking.class);
+    private static final String TRANSIENT_ANNOTATION = "Lorg/neo4j/ogm/annotation/Transient;";
+
+    private final List<String> packages = new ArrayList<>();
+    private final Function<String, byte[]> classFiles;
+    private final Map<String, Optional<ClassFacts>> classFacts = new ConcurrentHashMap<>();
+
+    /**
+     * @param packages   the packages of the classes to enhance, including their sub packages
+     * @param classFiles returns the class file of a class given by its internal name, or null if there is none. Used to
+     *                   find out whether the classes written to are enhanced, too.
+     */
+    public DirtyTrackingEnhancer(Collection<String> packages, Function<String, byte[]> classFiles) {
+        for (String packageName : packages) {
+            this.packages.add(packageName.replace('.', '/') + "/");
+        }
+        this.classFiles = classFiles;
+    }
+
+    /**
+     * @param className the internal name of a class, like {@code com/example/Person}
+     * @return true if the class is in one of the packages to enhance
+     */
+    public boolean isIncluded(String className) {
+        for (String packagePrefix : packages) {
+            if (className.startsWith(packagePrefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Enhances a class, if it is in one of the packages to enhance.
+     *
+     * @param className the internal name of the class
+     * @param classFile the class file of the class
+     * @return the class file of the enhanced class or null if the class is not enhanced
+     */
+    public byte[] enhance(String className, byte[] classFile) {
+        if (!isIncluded(className)) {
+            return null;
+        }
+        ClassReader classReader = new ClassReader(classFile);
+        classFacts.put(className, Optional.of(ClassFacts.of(classReader)));
+
+        ClassWriter classWriter = new ClassWriter(classReader, ClassWriter.COMPUTE_MAXS);
+        classReader.accept(new EnhancingClassVisitor(classWriter, className), 0);
+        return classWriter.toByteArray();
+    }
+
+    private boolean isEnhanced(String className) {
+        ClassFacts facts = factsOf(className);
+        if (facts == null || !facts.isPlainClass || facts.tracksItself) {
+            return false;
+        }
+        // a class of the packages that can't be read is taken as not enhanced, so this class becomes the topmost one
+        return !isIncluded(facts.superName) || factsOf(facts.superName) == null || isEnhanced(facts.superName);
+    }
+
+    private boolean isTopmostEnhanced(String className) {
+        return isEnhanced(className) && !isEnhanced(factsOf(className).superName);
+    }
+
+    private boolean isTrackedField(String owner, String fieldName) {
+        for (String className = owner; className != null && isIncluded(className); ) {
+            ClassFacts facts = factsOf(className);
+            if (facts == null) {
+                break;
+            }
+            if (facts.declaredFields.contains(fieldName)) {
+                return !facts.untrackedFields.contains(fieldName);
+            }
+            className = facts.superName;
+        }
+        // declared by a class that isn't enhanced itself, written all the same
+        return true;
+    }
+
+    private ClassFacts factsOf(String className) {
+        if (className == null || !isIncluded(className)) {
+            return null;
+        }
+        return classFacts.computeIfAbsent(className, name -> {
+            byte[] classFile = classFiles.apply(name);
+            return classFile == null ? Optional.empty() : Optional.of(ClassFacts.of(new ClassReader(classFile)));
+        }).orElse(null);
+    }
+
+    /**
+     * What needs to be known about a class to enhance it or the writes to its fields.
+     */
+    private static final class ClassFacts {
+
+        private final boolean isPlainClass;
+        private final boolean tracksItself;
+        private final String superName;
+        private final Set<String> declaredFields = new HashSet<>();
+        // static, final and transient fields
+        private final Set<String> untrackedFields = new HashSet<>();
+
+        private ClassFacts(int access, String superName, String[] interfaces) {
+            this.isPlainClass = (access & (Opcodes.ACC_INTERFACE | Opcodes.ACC_ENUM | Opcodes.ACC_ANNOTATION)) == 0;
+            this.tracksItself = Arrays.asList(interfaces).contains(DIRTY_TRACKING);
+            this.superName = superName;
+        }
+
+        static ClassFacts of(ClassReader classReader) {
+            ClassFacts facts = new ClassFacts(classReader.getAccess(), classReader.getSuperName(),
+                classReader.getInterfaces());
+            classReader.accept(new ClassVisitor(Opcodes.ASM7) {
+                @Override
+                public FieldVisitor visitField(int access, String name, String descriptor, String signature,
+                    Object value) {
+                    facts.declaredFields.add(name);
+                    if ((access & (Opcodes.ACC_STATIC | Opcodes.ACC_FINAL | Opcodes.ACC_TRANSIENT)) != 0) {
+                        facts.untrackedFields.add(name);
+                        return null;
+                    }
+                    return new FieldVisitor(Opcodes.ASM7) {
+                        @Override
+                        public AnnotationVisitor visitAnnotation(String annotationDescriptor, boolean visible) {
+                            if (TRANSIENT_ANNOTATION.equals(annotationDescriptor)) {
+                                facts.untrackedFields.add(name);
+                            }
+                            return null;
+                        }
+                    };
+                }
+            }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+            return facts;
+        }
+    }
+
+    /**
+     * Makes the topmost enhanced class implement {@link DirtyTracking} and flags writes to fields of enhanced classes.
+     */
+    private final class EnhancingClassVisitor extends ClassVisitor {
+
+        private final String className;
+        private final boolean topmost;
+
+        EnhancingClassVisitor(ClassVisitor classVisitor, String className) {
+            super(Opcodes.ASM7, classVisitor);
+            this.className = className;
+            this.topmost = isTopmostEnhanced(className);
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName,
+            String[] interfaces) {
+            if (topmost) {
+                interfaces = Arrays.copyOf(interfaces, interfaces.length + 1);
+                interfaces[interfaces.length - 1] = DIRTY_TRACKING;
+            }
+            super.visit(version, access, name, signature, superName, interfaces);
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+            String[] exceptions) {
+            return new TrackingMethodVisitor(super.visitMethod(access, name, descriptor, signature, exceptions));
+        }
+
+        @Override
+        public void visitEnd() {
+            if (topmost) {
+                addDirtyTracking();
+            }
+            super.visitEnd();
+        }
+
+        private void addDirtyTracking() {
+            super.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_TRANSIENT | Opcodes.ACC_SYNTHETIC, DIRTY_FIELD, "Z",
+                null, null).visitEnd();
+            addFlagAccessor("hasDirtyProperties", 0, Opcodes.ACC_PUBLIC);
+            addFlagAccessor("clearDirtyProperties", Opcodes.ICONST_0, Opcodes.ACC_PUBLIC);
+            addFlagAccessor(MARK_DIRTY_METHOD, Opcodes.ICONST_1, Opcodes.ACC_PUBLIC | Opcodes.ACC_SYNTHETIC);
+        }
+
+        // reads the flag if no value is given, sets it to the value otherwise
+        private void addFlagAccessor(String name, int valueOpcode, int access) {
+            MethodVisitor methodVisitor = super.visitMethod(access, name, valueOpcode == 0 ? "()Z" : "()V", null,
+                null);
+            methodVisitor.visitCode();
+            methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+            if (valueOpcode == 0) {
+                methodVisitor.visitFieldInsn(Opcodes.GETFIELD, className, DIRTY_FIELD, "Z");
+                methodVisitor.visitInsn(Opcodes.IRETURN);
+            } else {
+                methodVisitor.visitInsn(valueOpcode);
+                methodVisitor.visitFieldInsn(Opcodes.PUTFIELD, className, DIRTY_FIELD, "Z");
+                methodVisitor.visitInsn(Opcodes.RETURN);
+            }
+            methodVisitor.visitMaxs(0, 0);
+            methodVisitor.visitEnd();
+        }
+    }
+
+    /**
+     * Flags the object written to after each write to a tracked field of an enhanced class.
+     */
+    private final class TrackingMethodVisitor extends MethodVisitor {
+
+        TrackingMethodVisitor(MethodVisitor methodVisitor) {
+            super(Opcodes.ASM7, methodVisitor);
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            if (opcode != Opcodes.PUTFIELD || DIRTY_FIELD.equals(name) || !isEnhanced(owner)
+                || !isTrackedField(owner, name)) {
+                super.visitFieldInsn(opcode, owner, name, descriptor);
+                return;
+            }
+            // turns [object, value] into [object, object, value], so that the object is left after the write
+            if (Type.getType(descriptor).getSize() == 1) {
+                super.visitInsn(Opcodes.SWAP);
+                super.visitInsn(Opcodes.DUP_X1);
+                super.visitInsn(Opcodes.SWAP);
+            } else {
+                super.visitInsn(Opcodes.DUP2_X1);
+                super.visitInsn(Opcodes.POP2);
+                super.visitInsn(Opcodes.DUP);
+                super.visitInsn(Opcodes.DUP2_X2);
+                super.visitInsn(Opcodes.POP2);
+            }
+            super.visitFieldInsn(opcode, owner, name, descriptor);
+            super.visitMethodInsn(Opcodes.INVOKEVIRTUAL, owner, MARK_DIRTY_METHOD, "()V", false);
+        }
+    }
+}
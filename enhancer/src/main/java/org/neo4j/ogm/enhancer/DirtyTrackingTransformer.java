@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.enhancer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Enhances the classes of the given packages through a {@link DirtyTrackingEnhancer} per class loader while they are
+ * loaded.
+ *
+ * @since 3.2
+ */
+public class DirtyTrackingTransformer implements ClassFileTransformer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DirtyTrackingTransformer.class);
+
+    private final List<String> packages;
+    private final Map<ClassLoader, DirtyTrackingEnhancer> enhancers = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * @param packages the packages of the classes to enhance, including their sub packages
+     */
+    public DirtyTrackingTransformer(Collection<String> packages) {
+        this.packages = new ArrayList<>(packages);
+    }
+
+    @Override
+    public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+        ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+
+        // already loaded classes can't get new fields or methods
+        if (loader == null || className == null || classBeingRedefined != null) {
+            return null;
+        }
+        DirtyTrackingEnhancer enhancer = enhancers.computeIfAbsent(loader,
+            classLoader -> new DirtyTrackingEnhancer(packages, name -> readClassFile(classLoader, name)));
+        if (!enhancer.isIncluded(className)) {
+            return null;
+        }
+        try {
+            return enhancer.enhance(className, classfileBuffer);
+        } catch (RuntimeException e) {
+            // exceptions thrown by a transformer are swallowed by the JVM, so they are logged here
+            LOGGER.warn("Could not enhance {}, its changes are checked by hashing its properties",
+                className.replace('/', '.'), e);
+            return null;
+        }
+    }
+
+    private static byte[] readClassFile(ClassLoader classLoader, String className) {
+        try (InputStream in = classLoader.getResourceAsStream(className + ".class")) {
+            if (in == null) {
+                return null;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.enhancer;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.session.DirtyTracking;
+
+public class DirtyTrackingEnhancerTest {
+
+    private static final String DOMAIN = "org.neo4j.ogm.enhancer.domain";
+
+    private ClassLoader classLoader;
+
+    @Before
+    public void loadEnhancedDomain() {
+        classLoader = new EnhancingClassLoader(getClass().getClassLoader());
+    }
+
+    @Test
+    public void shouldMakeTheTopmostClassTrackWritesToItsFields() throws Exception {
+        DirtyTracking person = (DirtyTracking) newInstance("Person", "Jim");
+        assertThat(person.hasDirtyProperties()).isTrue(); // the constructor writes the name
+
+        person.clearDirtyProperties();
+        assertThat(person.hasDirtyProperties()).isFalse();
+
+        invoke(person, "setName", String.class, "Bob");
+        assertThat(person.hasDirtyProperties()).isTrue();
+
+        person.clearDirtyProperties();
+        invoke(person, "setBorn", long.class, 1970L);
+        assertThat(person.hasDirtyProperties()).isTrue();
+        assertThat(invoke(person, "getBorn")).isEqualTo(1970L);
+    }
+
+    @Test
+    public void shouldNotTrackWritesToTransientFields() throws Exception {
+        DirtyTracking person = (DirtyTracking) newInstance("Person", "Jim");
+        person.clearDirtyProperties();
+
+        invoke(person, "visit");
+        invoke(person, "setNickname", String.class, "Jimbo");
+        assertThat(person.hasDirtyProperties()).isFalse();
+    }
+
+    @Test
+    public void shouldTrackWritesToFieldsOfSubclasses() throws Exception {
+        DirtyTracking employee = (DirtyTracking) newInstance("Employee", "Jim");
+        employee.clearDirtyProperties();
+
+        invoke(employee, "setSalary", double.class, 1000.0);
+        assertThat(employee.hasDirtyProperties()).isTrue();
+
+        // the flag is inherited from the topmost class
+        assertThat(employee.getClass().getDeclaredMethods()).extracting(Method::getName)
+            .doesNotContain("hasDirtyProperties", "clearDirtyProperties");
+    }
+
+    @Test
+    public void shouldFlagTheObjectWrittenTo() throws Exception {
+        DirtyTracking team = (DirtyTracking) newInstance("Team");
+        DirtyTracking other = (DirtyTracking) newInstance("Team");
+        team.clearDirtyProperties();
+        other.clearDirtyProperties();
+
+        team.getClass().getMethod("rename", team.getClass(), String.class).invoke(team, other, "Others");
+        assertThat(team.hasDirtyProperties()).isFalse();
+        assertThat(other.hasDirtyProperties()).isTrue();
+
+        other.clearDirtyProperties();
+        team.getClass().getMethod("rename", team.getClass()).invoke(null, other);
+        assertThat(other.hasDirtyProperties()).isTrue();
+    }
+
+    @Test
+    public void shouldOnlyEnhanceClassesOfTheGivenPackages() {
+        DirtyTrackingEnhancer enhancer = new DirtyTrackingEnhancer(Collections.singletonList(DOMAIN),
+            DirtyTrackingEnhancerTest::readClassFile);
+
+        assertThat(enhancer.isIncluded("org/neo4j/ogm/enhancer/domain/Person")).isTrue();
+        assertThat(enhancer.enhance("org/neo4j/ogm/enhancer/DirtyTrackingEnhancerTest",
+            readClassFile("org/neo4j/ogm/enhancer/DirtyTrackingEnhancerTest"))).isNull();
+    }
+
+    private Object newInstance(String simpleName, Object... arguments) throws Exception {
+        Class<?> type = classLoader.loadClass(DOMAIN + "." + simpleName);
+        Class<?>[] parameterTypes = new Class<?>[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            parameterTypes[i] = arguments[i].getClass();
+        }
+        return type.getConstructor(parameterTypes).newInstance(arguments);
+    }
+
+    private static Object invoke(Object target, String name) throws Exception {
+        return target.getClass().getMethod(name).invoke(target);
+    }
+
+    private static void invoke(Object target, String name, Class<?> parameterType, Object argument)
+        throws Exception {
+        target.getClass().getMethod(name, parameterType).invoke(target, argument);
+    }
+
+    private static byte[] readClassFile(String className) {
+        try (InputStream in = DirtyTrackingEnhancerTest.class.getClassLoader()
+            .getResourceAsStream(className + ".class")) {
+            if (in == null) {
+                return null;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads the classes of the domain enhanced, the way the agent would.
+     */
+    private static class EnhancingClassLoader extends ClassLoader {
+
+        private final DirtyTrackingEnhancer enhancer = new DirtyTrackingEnhancer(Collections.singletonList(DOMAIN),
+            DirtyTrackingEnhancerTest::readClassFile);
+
+        EnhancingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(DOMAIN + ".")) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> type = findLoadedClass(name);
+                if (type == null) {
+                    String className = name.replace('.', '/');
+                    byte[] enhanced = enhancer.enhance(className, readClassFile(className));
+                    type = defineClass(name, enhanced, 0, enhanced.length);
+                }
+                if (resolve) {
+                    resolveClass(type);
+                }
+                return type;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.enhancer.domain;
+
+import org.neo4j.ogm.annotation.Transient;
+
+public class Person {
+
+    private Long id;
+
+    private String name;
+
+    private long born;
+
+    private transient int visits;
+
+    @Transient
+    private String nickname;
+
+    public Person() {
+    }
+
+    public Person(String name) {
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getBorn() {
+        return born;
+    }
+
+    public void setBorn(long born) {
+        this.born = born;
+    }
+
+    public void visit() {
+        visits++;
+    }
+
+    public void setNickname(String nickname) {
+        this.nickname = nickname;
+    }
+}
@@ -67,6 +67,7 @@ public class HttpTransaction extends AbstractTransaction {
     @Override
     public void commit() {
 
+        transactionManager.beforeCommit(this);
         try {
             if (transactionManager.canCommit()) {
                 HttpPost request = new HttpPost(url + "/commit");
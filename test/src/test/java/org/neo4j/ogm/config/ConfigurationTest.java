@@ -49,6 +49,14 @@ public class ConfigurationTest {
         builder.trustStrategy("TRUST_SIGNED_CERTIFICATES");
         builder.trustCertFile("/tmp/cert");
         builder.connectionLivenessCheckTimeout(1000);
+        builder.usePrimitiveRegisters();
+        builder.mappingContextMaxSize(10_000);
+        builder.entityCacheSpec("maximumSize=1000");
+        builder.maxRowsPerStatement(500);
+        builder.useSingleRoundTripSave();
+        builder.skipCleanSubgraphs();
+        builder.writeBehind();
+        builder.orderSaveRows();
 
         Configuration configuration = builder.build();
 
@@ -63,6 +71,14 @@ public class ConfigurationTest {
         assertThat(configuration.getTrustStrategy()).isEqualTo("TRUST_SIGNED_CERTIFICATES");
         assertThat(configuration.getTrustCertFile()).isEqualTo("/tmp/cert");
         assertThat(configuration.getConnectionLivenessCheckTimeout().intValue()).isEqualTo(1000);
+        assertThat(configuration.getUsePrimitiveRegisters()).isTrue();
+        assertThat(configuration.getMappingContextMaxSize()).isEqualTo(10_000);
+        assertThat(configuration.getEntityCacheSpec()).isEqualTo("maximumSize=1000");
+        assertThat(configuration.getMaxRowsPerStatement()).isEqualTo(500);
+        assertThat(configuration.getUseSingleRoundTripSave()).isTrue();
+        assertThat(configuration.getSkipCleanSubgraphs()).isTrue();
+        assertThat(configuration.getWriteBehind()).isTrue();
+        assertThat(configuration.getOrderSaveRows()).isTrue();
     }
 
     @Test
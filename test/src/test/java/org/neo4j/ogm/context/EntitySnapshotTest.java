@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.context;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.neo4j.ogm.domain.convertible.parametrized.JsonNode;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.neo4j.ogm.metadata.MetaData;
+
+/**
+ * Verifies which property fields an {@link EntitySnapshot} reports as changed.
+ */
+public class EntitySnapshotTest {
+
+    private final MetaData metaData = new MetaData("org.neo4j.ogm.domain.convertible.parametrized");
+
+    @Test
+    public void shouldReportPropertiesChangedInPlace() {
+        JsonNode node = new JsonNode();
+        node.payload = new HashMap<>();
+        node.payload.put("name", "a");
+        ClassInfo classInfo = metaData.classInfo(node);
+
+        EntitySnapshot snapshot = EntitySnapshot.basedOn(metaData).take(node);
+        assertThat(snapshot.getChangedPropertyFields(classInfo, node)).isEmpty();
+
+        node.payload.put("name", "b");
+        assertThat(snapshot.getChangedPropertyFields(classInfo, node))
+            .extracting(FieldInfo::getName).containsExactly("payload");
+    }
+
+    @Test
+    public void shouldAlwaysReportPropertiesHashedByIdentity() {
+        JsonNode node = new JsonNode();
+        node.payload = new HashMap<>();
+        node.payload.put("count", new AtomicInteger());
+        ClassInfo classInfo = metaData.classInfo(node);
+
+        EntitySnapshot snapshot = EntitySnapshot.basedOn(metaData).take(node);
+
+        // incrementing the counter doesn't change its hash code, so its fingerprint can't reveal the change
+        ((AtomicInteger) node.payload.get("count")).incrementAndGet();
+        assertThat(snapshot.getChangedPropertyFields(classInfo, node))
+            .extracting(FieldInfo::getName).containsExactly("payload");
+    }
+}
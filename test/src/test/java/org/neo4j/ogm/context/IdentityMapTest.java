@@ -22,8 +22,10 @@ import static org.assertj.core.api.Assertions.*;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.neo4j.ogm.domain.dirtytracking.Customer;
 import org.neo4j.ogm.domain.education.School;
 import org.neo4j.ogm.domain.education.Teacher;
+import org.neo4j.ogm.metadata.FieldInfo;
 import org.neo4j.ogm.metadata.MetaData;
 
 /**
@@ -70,4 +72,29 @@ public class IdentityMapTest {
 
         assertThat(mappingContext.isDirty(teacher)).isFalse();
     }
+
+    @Test
+    public void testDirtyTrackingObjectsAreCheckedByTheirFlag() {
+        MetaData trackingMetaData = new MetaData("org.neo4j.ogm.domain.dirtytracking");
+        MappingContext trackingMappingContext = new MappingContext(trackingMetaData);
+
+        Customer customer = new Customer("Jim");
+        customer.setId(115L);
+        trackingMappingContext.addNodeEntity(customer);
+        assertThat(customer.hasDirtyProperties()).isFalse();
+        assertThat(trackingMappingContext.isDirty(customer)).isFalse();
+
+        customer.setOrdersUntracked(1); // the properties are not hashed for objects tracking their changes
+        assertThat(trackingMappingContext.isDirty(customer)).isFalse();
+
+        customer.setOrders(2);
+        assertThat(trackingMappingContext.isDirty(customer)).isTrue();
+        // the properties are still fingerprinted, so only the changed ones are written
+        assertThat(trackingMappingContext.getSnapshotOf(customer).get()
+            .getChangedPropertyFields(trackingMetaData.classInfo(customer), customer))
+            .extracting(FieldInfo::getName).containsOnly("orders");
+
+        trackingMappingContext.replaceNodeEntity(customer, customer.getId());
+        assertThat(trackingMappingContext.isDirty(customer)).isFalse();
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.context;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Verifies the primitive long keyed maps against {@link HashMap}.
+ */
+public class LongKeyedHashMapTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LongKeyedHashMapTest.class);
+
+    @Test
+    public void shouldBehaveLikeHashMap() {
+
+        Map<Long, Object> expected = new HashMap<>();
+        LongObjectHashMap<Object> actual = new LongObjectHashMap<>();
+
+        Random random = new Random(4711);
+        for (int i = 0; i < 100_000; i++) {
+            // Include negative keys as used for references of new entities
+            long key = random.nextInt(20_000) - 10_000L;
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertThat(actual.remove(key)).isEqualTo(expected.remove(key));
+                    break;
+                case 1:
+                    assertThat(actual.get(key)).isEqualTo(expected.get(key));
+                    break;
+                default:
+                    Object value = "value" + i;
+                    assertThat(actual.put(key, value)).isEqualTo(expected.put(key, value));
+            }
+            assertThat(actual.size()).isEqualTo(expected.size());
+        }
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.values()).containsExactlyInAnyOrderElementsOf(expected.values());
+
+        actual.clear();
+        assertThat(actual).isEmpty();
+        assertThat(actual.get(0L)).isNull();
+    }
+
+    @Test
+    public void shouldStoreLongValues() {
+
+        LongLongHashMap hashes = new LongLongHashMap();
+        for (long i = -1000; i < 1000; i++) {
+            hashes.put(i, i * 31L);
+        }
+
+        assertThat(hashes).hasSize(2000);
+        assertThat(hashes.get(-1000L)).isEqualTo(-31000L);
+        assertThat(hashes.containsKey(1000L)).isFalse();
+        assertThat(hashes.remove(999L)).isEqualTo(999L * 31L);
+        assertThat(hashes.containsKey(999L)).isFalse();
+    }
+
+    @Test
+    public void shouldSupportRemovalThroughIterator() {
+
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        for (long i = 0; i < 100; i++) {
+            map.put(i, "v" + i);
+        }
+
+        Iterator<Long> keys = map.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next() % 2 == 0) {
+                keys.remove();
+            }
+        }
+
+        assertThat(map).hasSize(50);
+        assertThat(map.keySet()).allMatch(key -> key % 2 == 1);
+        assertThat(map.get(1L)).isEqualTo("v1");
+        assertThat(map.get(2L)).isNull();
+    }
+
+    @Test
+    public void shouldTakeLessMemoryThanHashMap() {
+
+        int numberOfEntries = 100_000;
+        Object value = new Object();
+
+        Map<Long, Object> objects = new HashMap<>();
+        LongObjectHashMap<Object> primitiveObjects = new LongObjectHashMap<>();
+        Map<Long, Long> hashes = new HashMap<>();
+        LongLongHashMap primitiveHashes = new LongLongHashMap();
+        for (long key = 0; key < numberOfEntries; key++) {
+            objects.put(key, value);
+            primitiveObjects.put(key, value);
+            hashes.put(key, key * 31L);
+            primitiveHashes.put(key, key * 31L);
+        }
+
+        // The footprints include the keys and values, the maps of objects all refer to the same value
+        long objectsFootprint = GraphLayout.parseInstance(objects).totalSize();
+        long primitiveObjectsFootprint = GraphLayout.parseInstance(primitiveObjects).totalSize();
+        long hashesFootprint = GraphLayout.parseInstance(hashes).totalSize();
+        long primitiveHashesFootprint = GraphLayout.parseInstance(primitiveHashes).totalSize();
+        LOGGER.info("Footprint of {} entries: HashMap<Long, Object> {} bytes, LongObjectHashMap {} bytes, "
+                + "HashMap<Long, Long> {} bytes, LongLongHashMap {} bytes", numberOfEntries, objectsFootprint,
+            primitiveObjectsFootprint, hashesFootprint, primitiveHashesFootprint);
+
+        assertThat(primitiveObjectsFootprint).isLessThan(objectsFootprint);
+        assertThat(primitiveHashesFootprint).isLessThan(hashesFootprint);
+    }
+}
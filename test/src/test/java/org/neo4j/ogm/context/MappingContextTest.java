@@ -27,6 +27,8 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.neo4j.ogm.domain.annotations.ids.ValidAnnotations.UuidAndGenerationType;
+import org.neo4j.ogm.domain.dirtytracking.Customer;
+import org.neo4j.ogm.domain.policy.DomainObject;
 import org.neo4j.ogm.domain.policy.Person;
 import org.neo4j.ogm.domain.policy.Policy;
 import org.neo4j.ogm.metadata.ClassInfo;
@@ -62,7 +64,7 @@ public class MappingContextTest {
     public void setUp() {
 
         this.metaData = new MetaData("org.neo4j.ogm.domain.policy", "org.neo4j.ogm.context",
-            "org.neo4j.ogm.domain.annotations.ids");
+            "org.neo4j.ogm.domain.annotations.ids", "org.neo4j.ogm.domain.dirtytracking");
         this.mappingContext = new MappingContext(metaData);
     }
 
@@ -170,6 +172,30 @@ public class MappingContextTest {
         assertThat(mappingContext.getRelationships()).hasSize(1);
     }
 
+    @Test
+    public void clearTypeShouldIncludeSubclasses() {
+        Person jim = new Person("jim");
+        jim.setId(1L);
+
+        Policy healthcare = new Policy("healthcare");
+        healthcare.setId(2L);
+
+        mappingContext.addNodeEntity(jim);
+        mappingContext.addNodeEntity(healthcare);
+        mappingContext.addRelationship(
+            new MappedRelationship(jim.getId(), "INFLUENCES", healthcare.getId(), Person.class, Policy.class));
+
+        assertThat(mappingContext.getEntities(Person.class)).containsOnly(jim);
+        assertThat(mappingContext.getEntities(DomainObject.class)).containsOnly(jim, healthcare);
+
+        mappingContext.removeType(DomainObject.class);
+
+        assertThat(mappingContext.getEntities(DomainObject.class)).isEmpty();
+        assertThat(mappingContext.getNodeEntity(jim.getId())).isNull();
+        assertThat(mappingContext.getNodeEntity(healthcare.getId())).isNull();
+        assertThat(mappingContext.getRelationships()).isEmpty();
+    }
+
     @Test
     public void areObjectsReportedAsDirtyCorrectly() {
         Person jim = new Person("jim");
@@ -197,6 +223,198 @@ public class MappingContextTest {
         assertThat(mappingContext.isDirty(immigration)).isFalse();
     }
 
+    @Test
+    public void dirtyFrontierShouldContainChangedEntitiesOnly() {
+        MappingContext context = new MappingContext(metaData);
+        context.trackReferences();
+
+        Person jim = new Person("jim");
+        jim.setId(1L);
+        Policy healthcare = new Policy("healthcare");
+        healthcare.setId(2L);
+        Customer customer = new Customer("customer");
+        customer.setId(3L);
+        Person rik = new Person("rik");
+        rik.setId(4L);
+
+        for (Object entity : new Object[] { jim, healthcare, customer, rik }) {
+            context.addNodeEntity(entity);
+            context.rememberReferences(entity);
+        }
+        assertThat(context.getDirtyFrontier()).isEmpty();
+
+        // a collection growing behind the back of the context
+        jim.getInfluenced().add(new Policy("immigration"));
+        customer.setOrders(1);
+        context.markDirty(healthcare);
+        assertThat(context.getDirtyFrontier()).containsOnly(jim, healthcare, customer);
+
+        context.rememberReferences(jim);
+        context.clearMarkedDirty();
+        context.removeEntity(customer);
+        assertThat(context.getDirtyFrontier()).isEmpty();
+    }
+
+    @Test
+    public void relationshipsOfANodeShouldBeIndexedByStartAndEndNode() {
+
+        Person jim = new Person("jim");
+        jim.setId(1L);
+
+        Policy healthcare = new Policy("healthcare");
+        healthcare.setId(2L);
+
+        Person rik = new Person("rik");
+        rik.setId(3L);
+
+        mappingContext.addNodeEntity(jim);
+        mappingContext.addNodeEntity(healthcare);
+        mappingContext.addNodeEntity(rik);
+
+        MappedRelationship influences = new MappedRelationship(jim.getId(), "INFLUENCES", healthcare.getId(),
+            Person.class, Policy.class);
+        MappedRelationship worksWith = new MappedRelationship(rik.getId(), "WORKS_WITH", jim.getId(),
+            Person.class, Person.class);
+        mappingContext.addRelationship(influences);
+        mappingContext.addRelationship(worksWith);
+
+        assertThat(mappingContext.getRelationshipsOf(jim.getId())).containsOnly(influences, worksWith);
+        assertThat(mappingContext.getRelationshipsOf(healthcare.getId())).containsOnly(influences);
+        assertThat(mappingContext.getRelationshipsOf(rik.getId())).containsOnly(worksWith);
+        assertThat(mappingContext.neighbours(jim)).containsOnly(healthcare, rik);
+
+        mappingContext.removeRelationship(influences);
+
+        assertThat(mappingContext.getRelationshipsOf(jim.getId())).containsOnly(worksWith);
+        assertThat(mappingContext.getRelationshipsOf(healthcare.getId())).isEmpty();
+        assertThat(mappingContext.getRelationships()).containsOnly(worksWith);
+
+        mappingContext.clear();
+
+        assertThat(mappingContext.getRelationshipsOf(jim.getId())).isEmpty();
+        assertThat(mappingContext.getRelationshipsOf(rik.getId())).isEmpty();
+    }
+
+    @Test
+    public void removingEntitiesShouldOnlyRemoveTheirOwnRelationships() {
+
+        // A chain of numberOfNodes persons connected by numberOfNodes - 1 relationships,
+        // from which every 100th person gets removed.
+        int numberOfNodes = 1_000;
+        int removeEvery = 100;
+
+        Person[] persons = new Person[numberOfNodes];
+        for (int i = 0; i < numberOfNodes; i++) {
+            persons[i] = new Person("person" + i);
+            persons[i].setId((long) i);
+            mappingContext.addNodeEntity(persons[i]);
+            if (i > 0) {
+                mappingContext.addRelationship(
+                    new MappedRelationship(i - 1, "KNOWS", i, Person.class, Person.class));
+            }
+        }
+
+        int removed = 0;
+        for (int i = removeEvery; i < numberOfNodes; i += removeEvery) {
+            assertThat(mappingContext.neighbours(persons[i])).containsOnly(persons[i - 1], persons[i + 1]);
+            mappingContext.removeEntity(persons[i]);
+            removed++;
+
+            assertThat(mappingContext.getNodeEntity((long) i)).isNull();
+            assertThat(mappingContext.getRelationshipsOf((long) i)).isEmpty();
+            // the neighbours only lost their relationship to the removed person
+            assertThat(mappingContext.getRelationshipsOf((long) i - 1))
+                .containsOnly(new MappedRelationship(i - 2, "KNOWS", i - 1, Person.class, Person.class));
+            assertThat(mappingContext.getRelationshipsOf((long) i + 1))
+                .containsOnly(new MappedRelationship(i + 1, "KNOWS", i + 2, Person.class, Person.class));
+            assertThat(mappingContext.neighbours(persons[i - 1])).containsOnly(persons[i - 2]);
+            assertThat(mappingContext.neighbours(persons[i + 1])).containsOnly(persons[i + 2]);
+        }
+
+        assertThat(mappingContext.getRelationships()).hasSize(numberOfNodes - 1 - 2 * removed);
+        assertThat(mappingContext.getRelationships()).noneMatch(relationship ->
+            relationship.getStartNodeId() % removeEvery == 0 && relationship.getStartNodeId() > 0
+                || relationship.getEndNodeId() % removeEvery == 0);
+        assertThat(mappingContext.getRelationshipsOf(0L)).hasSize(1);
+    }
+
+    @Test
+    public void primitiveRegistersShouldTrackEntitiesAndDirtiness() {
+
+        MappingContext primitiveMappingContext = new MappingContext(metaData, true);
+
+        Person jim = new Person("jim");
+        jim.setId(1L);
+
+        Policy healthcare = new Policy("healthcare");
+        healthcare.setId(2L);
+
+        primitiveMappingContext.addNodeEntity(jim);
+        primitiveMappingContext.addNodeEntity(healthcare);
+        primitiveMappingContext.addRelationship(
+            new MappedRelationship(jim.getId(), "INFLUENCES", healthcare.getId(), Person.class, Policy.class));
+
+        assertThat(primitiveMappingContext.getNodeEntity(jim.getId())).isSameAs(jim);
+        assertThat(primitiveMappingContext.isDirty(jim)).isFalse();
+
+        jim.setName("james");
+        assertThat(primitiveMappingContext.isDirty(jim)).isTrue();
+        assertThat(primitiveMappingContext.isDirty(healthcare)).isFalse();
+
+        primitiveMappingContext.removeEntity(jim);
+        assertThat(primitiveMappingContext.getNodeEntity(jim.getId())).isNull();
+        assertThat(primitiveMappingContext.getRelationships()).isEmpty();
+        assertThat(primitiveMappingContext.getEntities(Policy.class)).containsOnly(healthcare);
+    }
+
+    @Test
+    public void boundedContextShouldEvictLeastRecentlyUsedCleanEntities() {
+
+        MappingContext boundedMappingContext = new MappingContext(metaData, false, 2);
+
+        Person jim = new Person("jim");
+        jim.setId(1L);
+
+        Policy healthcare = new Policy("healthcare");
+        healthcare.setId(2L);
+
+        Person rik = new Person("rik");
+        rik.setId(3L);
+
+        boundedMappingContext.addNodeEntity(jim);
+        boundedMappingContext.addNodeEntity(healthcare);
+        boundedMappingContext.addNodeEntity(rik);
+
+        MappedRelationship influences = new MappedRelationship(jim.getId(), "INFLUENCES", healthcare.getId(),
+            Person.class, Policy.class);
+        MappedRelationship worksWith = new MappedRelationship(rik.getId(), "WORKS_WITH", jim.getId(),
+            Person.class, Person.class);
+        boundedMappingContext.addRelationship(influences);
+        boundedMappingContext.addRelationship(worksWith);
+
+        // Using jim makes healthcare the least recently used entity
+        boundedMappingContext.getNodeEntity(jim.getId());
+
+        assertThat(boundedMappingContext.evict()).isEqualTo(1);
+        assertThat(boundedMappingContext.getNodeEntity(healthcare.getId())).isNull();
+        assertThat(boundedMappingContext.isDirty(healthcare)).isTrue();
+        // jim is still registered, so changes to its relationships must still be detected
+        assertThat(boundedMappingContext.getRelationships()).containsOnly(influences, worksWith);
+
+        rik.setName("rick");
+        Person frantisek = new Person("frantisek");
+        frantisek.setId(4L);
+        boundedMappingContext.addNodeEntity(frantisek);
+
+        // rik is modified and must be kept, so jim gets evicted instead
+        assertThat(boundedMappingContext.evict()).isEqualTo(1);
+        assertThat(boundedMappingContext.getNodeEntity(jim.getId())).isNull();
+        assertThat(boundedMappingContext.getNodeEntity(rik.getId())).isSameAs(rik);
+        assertThat(boundedMappingContext.getRelationships()).containsOnly(worksWith);
+        assertThat(boundedMappingContext.getRelationshipsOf(healthcare.getId())).isEmpty();
+        assertThat(boundedMappingContext.evict()).isEqualTo(0);
+    }
+
     @Test // See #467
     public void nativeIdsAreMappedWithoutPrimaryIdConversion() {
         UuidAndGenerationType entity = new UuidAndGenerationType();
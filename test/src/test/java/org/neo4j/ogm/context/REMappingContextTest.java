@@ -67,6 +67,69 @@ public class REMappingContextTest {
         assertThat(entity).isNull();
     }
 
+    @Test
+    public void replacingANodeDeregistersOnlyItsDependentRelationshipEntities() throws Exception {
+        User alice = new User();
+        alice.id = 10L;
+        User bob = new User();
+        bob.id = 11L;
+        User carol = new User();
+        carol.id = 12L;
+
+        likes.from = alice;
+        likes.to = bob;
+
+        Likes otherLikes = new Likes();
+        otherLikes.id = 2L;
+        otherLikes.uuid = "other-uuid";
+        otherLikes.from = bob;
+        otherLikes.to = carol;
+
+        context.addNodeEntity(alice);
+        context.addNodeEntity(bob);
+        context.addNodeEntity(carol);
+        context.addRelationshipEntity(likes, 1L);
+        context.addRelationshipEntity(otherLikes, 2L);
+
+        context.replaceNodeEntity(alice, alice.id);
+
+        assertThat(context.getRelationshipEntity(1L)).isNull();
+        assertThat(context.getRelationshipEntity(2L)).isSameAs(otherLikes);
+
+        context.replaceNodeEntity(carol, carol.id);
+
+        assertThat(context.getRelationshipEntity(2L)).isNull();
+    }
+
+    @Test
+    public void replacingANodeFindsRelationshipEntitiesRepointedToItOnceSaved() throws Exception {
+        User alice = new User();
+        alice.id = 10L;
+        User bob = new User();
+        bob.id = 11L;
+        User carol = new User();
+        carol.id = 12L;
+
+        likes.from = alice;
+        likes.to = bob;
+
+        context.addNodeEntity(alice);
+        context.addNodeEntity(bob);
+        context.addNodeEntity(carol);
+        context.addRelationshipEntity(likes, 1L);
+
+        likes.from = carol;
+
+        // no longer attached to alice
+        context.replaceNodeEntity(alice, alice.id);
+        assertThat(context.getRelationshipEntity(1L)).isSameAs(likes);
+
+        // saving the relationship entity indexes it with its current nodes
+        context.reindexRelationshipEntity(likes, 1L);
+        context.replaceNodeEntity(carol, carol.id);
+        assertThat(context.getRelationshipEntity(1L)).isNull();
+    }
+
     @NodeEntity
     static class User {
 
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.context;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Verifies the changes recorded by {@link TrackedList} and {@link TrackedSet}.
+ */
+public class TrackedCollectionTest {
+
+    private final Object owner = new Object();
+
+    @Test
+    public void shouldRecordChangesOfLists() {
+
+        List<String> loaded = new ArrayList<>(Arrays.asList("a", "b", "c"));
+        @SuppressWarnings("unchecked")
+        List<String> list = (List<String>) CollectionChanges.track(owner, loaded, loaded, null, null);
+        TrackedCollection<?> tracked = (TrackedCollection<?>) list;
+
+        assertThat(tracked.isOwnedBy(owner)).isTrue();
+        assertThat(tracked.isOwnedBy(new Object())).isFalse();
+        assertThat(tracked.getChangedElements()).isEmpty();
+
+        list.add("d");
+        list.remove("a");
+        list.removeIf("b"::equals);
+        assertThat(tracked.getChangedElements()).containsExactlyInAnyOrder("a", "b", "d");
+        assertThat(list).containsExactly("c", "d");
+
+        tracked.changesSaved();
+        assertThat(tracked.getChangedElements()).isEmpty();
+
+        list.set(0, "e");
+        assertThat(tracked.getChangedElements()).containsExactlyInAnyOrder("c", "e");
+
+        list.subList(0, 1).clear();
+        assertThat(tracked.isTrackingChanges()).isFalse();
+        assertThat(tracked.getChangedElements()).isEmpty();
+    }
+
+    @Test
+    public void shouldRecordChangesOfSets() {
+
+        Set<String> loaded = new HashSet<>(Arrays.asList("a", "b", "c"));
+        @SuppressWarnings("unchecked")
+        Set<String> set = (Set<String>) CollectionChanges.track(owner, loaded, loaded, null, null);
+        TrackedCollection<?> tracked = (TrackedCollection<?>) set;
+
+        // adding an element already contained is no change
+        set.add("a");
+        assertThat(tracked.getChangedElements()).isEmpty();
+
+        set.add("d");
+        set.retainAll(Arrays.asList("b", "d"));
+        for (Iterator<String> iterator = set.iterator(); iterator.hasNext(); ) {
+            if (iterator.next().equals("b")) {
+                iterator.remove();
+            }
+        }
+        assertThat(tracked.getChangedElements()).containsExactlyInAnyOrder("a", "b", "c", "d");
+        assertThat(set).containsExactly("d");
+    }
+
+    @Test
+    public void shouldRecordTheRemovedInstanceOfEqualElements() {
+
+        Key stored = new Key("a");
+        Key equal = new Key("a");
+
+        List<Key> loadedList = new ArrayList<>(Arrays.asList(stored));
+        @SuppressWarnings("unchecked")
+        List<Key> list = (List<Key>) CollectionChanges.track(owner, loadedList, loadedList, null, null);
+        assertThat(list.remove(equal)).isTrue();
+        assertThat(((TrackedCollection<?>) list).getChangedElements()).hasSize(1).allMatch(key -> key == stored);
+
+        Set<Key> loadedSet = new HashSet<>(Arrays.asList(stored));
+        @SuppressWarnings("unchecked")
+        Set<Key> set = (Set<Key>) CollectionChanges.track(owner, loadedSet, loadedSet, null, null);
+        assertThat(set.remove(equal)).isTrue();
+        assertThat(set.remove(equal)).isFalse();
+        assertThat(((TrackedCollection<?>) set).getChangedElements()).hasSize(1).allMatch(key -> key == stored);
+    }
+
+    @Test
+    public void shouldNotifyTheListenerOfChanges() {
+
+        List<Object> notified = new ArrayList<>();
+        List<String> loaded = new ArrayList<>(Arrays.asList("a", "b"));
+        @SuppressWarnings("unchecked")
+        List<String> list = (List<String>) CollectionChanges.track(owner, loaded, loaded, null, notified::add);
+        assertThat(notified).isEmpty();
+
+        list.add("c");
+        assertThat(notified).containsExactly(owner);
+
+        // changes that can't be recorded are reported as well
+        notified.clear();
+        list.subList(0, 1).clear();
+        assertThat(notified).containsOnly(owner);
+    }
+
+    @Test
+    public void shouldCarryOverChangesWhenHydratedAgain() {
+
+        List<String> loaded = new ArrayList<>(Arrays.asList("a", "b"));
+        @SuppressWarnings("unchecked")
+        List<String> list = (List<String>) CollectionChanges.track(owner, loaded, loaded, null, null);
+        list.add("c");
+
+        List<String> reloaded = new ArrayList<>(Arrays.asList("a", "b", "c"));
+        TrackedCollection<?> tracked = (TrackedCollection<?>) CollectionChanges
+            .track(owner, reloaded, Arrays.asList("a", "b"), list, null);
+        assertThat(tracked.getChangedElements()).containsExactly("c");
+    }
+
+    @Test
+    public void shouldRecordUnloadedElementsOfForeignCollectionsAsChanged() {
+
+        List<String> previous = new ArrayList<>(Arrays.asList("a", "x"));
+        List<String> merged = new ArrayList<>(Arrays.asList("a", "x", "b"));
+        TrackedCollection<?> tracked = (TrackedCollection<?>) CollectionChanges
+            .track(owner, merged, Arrays.asList("a", "b"), previous, null);
+        assertThat(tracked.getChangedElements()).containsExactly("x");
+    }
+
+    @Test
+    public void shouldNotTrackOtherCollectionTypes() {
+
+        Set<String> loaded = new LinkedHashSet<>(Arrays.asList("a", "b"));
+        assertThat(CollectionChanges.track(owner, loaded, loaded, null, null)).isSameAs(loaded);
+    }
+
+    private static class Key {
+
+        private final String value;
+
+        Key(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).value.equals(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+    }
+}
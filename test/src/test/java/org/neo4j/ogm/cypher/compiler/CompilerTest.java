@@ -24,6 +24,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import org.junit.After;
 import org.junit.Before;
@@ -33,6 +35,7 @@ import org.neo4j.ogm.context.EntityGraphMapper;
 import org.neo4j.ogm.context.EntityMapper;
 import org.neo4j.ogm.context.MappedRelationship;
 import org.neo4j.ogm.context.MappingContext;
+import org.neo4j.ogm.domain.blog.Post;
 import org.neo4j.ogm.domain.education.Course;
 import org.neo4j.ogm.domain.education.School;
 import org.neo4j.ogm.domain.education.Student;
@@ -51,9 +54,11 @@ import org.neo4j.ogm.domain.social.Mortal;
 import org.neo4j.ogm.domain.travel.Person;
 import org.neo4j.ogm.domain.travel.Place;
 import org.neo4j.ogm.domain.travel.Visit;
+import org.neo4j.ogm.domain.tree.Entity;
 import org.neo4j.ogm.metadata.MetaData;
 import org.neo4j.ogm.request.Statement;
 import org.neo4j.ogm.session.request.RowStatementFactory;
+import org.neo4j.ogm.utils.EntityUtils;
 
 /**
  * @author Vince Bickers
@@ -68,13 +73,15 @@ public class CompilerTest {
     @BeforeClass
     public static void setUpTestDatabase() {
         mappingMetadata = new MetaData(
+            "org.neo4j.ogm.domain.blog",
             "org.neo4j.ogm.domain.education",
             "org.neo4j.ogm.domain.forum",
             "org.neo4j.ogm.domain.social",
             "org.neo4j.domain.policy",
             "org.neo4j.ogm.domain.music",
             "org.neo4j.ogm.domain.restaurant",
-            "org.neo4j.ogm.domain.travel");
+            "org.neo4j.ogm.domain.travel",
+            "org.neo4j.ogm.domain.tree");
 
         mappingContext = new MappingContext(mappingMetadata);
     }
@@ -130,6 +137,129 @@ public class CompilerTest {
         );
     }
 
+    @Test
+    public void rowsShouldBeSplitIntoStatementsWithTheSameCypher() {
+        School school = new School("Hillsborough Primary School");
+        for (int i = 0; i < 5; i++) {
+            Teacher teacher = new Teacher("Teacher " + i);
+            teacher.setSchool(school);
+        }
+
+        Compiler compiler = mapAndCompile(school);
+        compiler.useMaxRowsPerStatement(2);
+
+        List<Statement> statements = compiler.createNodesStatements();
+        assertThat(statements).hasSize(4);
+        assertThat(statements).filteredOn(statement -> statement.getStatement().contains("`Teacher`"))
+            .hasSize(3)
+            .extracting(statement -> ((List) statement.getParameters().get("rows")).size())
+            .containsExactlyInAnyOrder(2, 2, 1);
+        assertThat(statements).extracting(Statement::getStatement).containsOnly(
+            "UNWIND {rows} as row CREATE (n:`DomainObject`:`School`) SET n=row.props RETURN row.nodeRef as ref, ID(n) as id, {type} as type",
+            "UNWIND {rows} as row CREATE (n:`Teacher`) SET n=row.props RETURN row.nodeRef as ref, ID(n) as id, {type} as type"
+        );
+        // School and teachers are related in both directions by different types
+        assertThat(compiler.createRelationshipsStatements())
+            .extracting(statement -> ((List) statement.getParameters().get("rows")).size())
+            .containsExactlyInAnyOrder(2, 2, 1, 2, 2, 1);
+    }
+
+    @Test
+    public void statementsForRowsOfTheSameShapeShouldShareTheirCypher() {
+        School school = new School("Hillsborough Primary School");
+        new Teacher("Mrs Kapoor").setSchool(school);
+        Compiler first = mapAndCompile(school);
+
+        School otherSchool = new School("Coombe Hill Primary School");
+        new Teacher("Mr Jones").setSchool(otherSchool);
+        Compiler second = mapAndCompile(otherSchool);
+
+        List<Statement> firstStatements = first.createNodesStatements();
+        firstStatements.addAll(first.createRelationshipsStatements());
+        List<Statement> secondStatements = second.createNodesStatements();
+        secondStatements.addAll(second.createRelationshipsStatements());
+
+        assertThat(secondStatements).hasSameSizeAs(firstStatements);
+        for (Statement statement : secondStatements) {
+            assertThat(firstStatements)
+                .anySatisfy(other -> assertThat(other.getStatement()).isSameAs(statement.getStatement()));
+        }
+    }
+
+    @Test
+    public void veryLongPathsShouldBeMappedWithoutOverflowingTheStack() {
+        Post first = new Post("post 0");
+        Post last = first;
+        for (int i = 1; i < 100_000; i++) {
+            Post post = new Post("post " + i);
+            last.setNext(post);
+            last = post;
+        }
+
+        Compiler compiler = mapAndCompile(first);
+
+        assertThat(compiler.createNodesStatements())
+            .extracting(statement -> ((List) statement.getParameters().get("rows")).size())
+            .containsExactly(100_000);
+        assertThat(compiler.createRelationshipsStatements())
+            .extracting(statement -> ((List) statement.getParameters().get("rows")).size())
+            .containsExactly(99_999);
+    }
+
+    @Test
+    public void newNodesAndDependentRelationshipsShouldBeCreatedInOneStatement() {
+        School school = new School("Hillsborough Primary School");
+        Teacher teacher = new Teacher("Mrs Kapoor");
+        teacher.setSchool(school);
+
+        Compiler compiler = mapAndCompile(school);
+        assertThat(compiler.hasStatementsDependentOnNewNodes()).isTrue();
+
+        List<Statement> statements = compiler.createNodesAndRelationshipsStatements();
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0).getStatement())
+            .contains("CREATE (n:`DomainObject`:`School`)", "CREATE (n:`Teacher`)",
+                "coalesce(created[row.startNodeIndex].node, existingStartNode) as startNode")
+            .endsWith("RETURN result.ref as ref, result.id as id, result.type as type");
+        assertThat(statements.get(0).getParameters())
+            .containsKeys("nodeRows0", "nodeRows1", "relationshipRows0", "relationshipRows1");
+    }
+
+    @Test
+    public void rowsShouldBeOrderedByNativeIdsIfRequested() {
+        School school = new School("Hillsborough Primary School");
+        school.setId(10L);
+        mappingContext.addNodeEntity(school);
+        for (long id = 5; id > 0; id--) {
+            Teacher teacher = new Teacher("Teacher " + id);
+            teacher.setId(id);
+            mappingContext.addNodeEntity(teacher);
+            teacher.setName("Renamed teacher " + id);
+            teacher.setSchool(school);
+        }
+
+        Compiler compiler = mapAndCompile(school);
+        compiler.useOrderedRows(true);
+
+        List<Statement> updates = compiler.updateNodesStatements();
+        assertThat(updates).hasSize(1);
+        assertThat((List<Map<String, Object>>) updates.get(0).getParameters().get("rows"))
+            .extracting(row -> row.get("nodeId"))
+            .containsExactly(1L, 2L, 3L, 4L, 5L);
+
+        // statements ordered by relationship type, rows by the smaller and then the larger node id
+        List<Statement> relationships = compiler.createRelationshipsStatements();
+        assertThat(relationships).extracting(Statement::getStatement)
+            .extracting(statement -> statement.contains("`SCHOOL`"))
+            .containsExactly(true, false);
+        assertThat((List<Map<String, Object>>) relationships.get(0).getParameters().get("rows"))
+            .extracting(row -> row.get("startNodeId"))
+            .containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat((List<Map<String, Object>>) relationships.get(1).getParameters().get("rows"))
+            .extracting(row -> row.get("endNodeId"))
+            .containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
     @Test
     public void updateSingleObjectPropertyAndLabel() {
 
@@ -151,6 +281,26 @@ public class CompilerTest {
         );
     }
 
+    @Test
+    public void updateOnlyChangedPropertiesOfExistingObjects() {
+
+        Restaurant restaurant = new Restaurant("La Strada", "Italian food");
+        restaurant.setZip(60210);
+        restaurant.setScore(4.5);
+        EntityUtils.setIdentity(restaurant, 0L, mappingMetadata);
+        mappingContext.addNodeEntity(restaurant);
+
+        restaurant.setScore(4.7);
+
+        Compiler compiler = mapAndCompile(restaurant);
+        List<Statement> statements = compiler.updateNodesStatements();
+        assertThat(statements).hasSize(1);
+
+        List<Map<String, Object>> rows = (List) statements.get(0).getParameters().get("rows");
+        assertThat(rows).hasSize(1);
+        assertThat((Map<String, Object>) rows.get(0).get("props")).containsOnly(entry("score", 4.7));
+    }
+
     @Test
     public void doNothingIfNothingHasChanged() {
 
@@ -436,6 +586,33 @@ public class CompilerTest {
         assertThat(((List) deleteRelsStatement.get(0).getParameters().get("rows"))).hasSize(2);
     }
 
+    @Test
+    public void removingChildrenOfAHubShouldOnlyDeleteTheirRelationships() {
+        int numberOfChildren = 100;
+        Entity hub = new Entity("hub");
+        EntityUtils.setIdentity(hub, 0L, mappingMetadata);
+        mappingContext.addNodeEntity(hub);
+        for (long id = 1; id <= numberOfChildren; id++) {
+            Entity child = new Entity(String.format("child%03d", id)).setParent(hub);
+            EntityUtils.setIdentity(child, id, mappingMetadata);
+            mappingContext.addNodeEntity(child);
+            mappingContext.addRelationship(new MappedRelationship(id, "REL", 0L, Entity.class, Entity.class));
+        }
+
+        hub.getChildren().removeIf(child -> child.getId() % 2 == 0);
+        Compiler compiler = mapAndCompile(hub);
+
+        assertThat(compiler.createRelationshipsStatements()).isEmpty();
+        List<Statement> deleteRelsStatements = compiler.deleteRelationshipStatements();
+        assertThat(deleteRelsStatements).hasSize(1);
+        List<Map<String, Object>> rows = (List<Map<String, Object>>) deleteRelsStatements.get(0).getParameters()
+            .get("rows");
+        assertThat(rows).extracting(row -> row.get("endNodeId")).containsOnly(0L);
+        assertThat(rows).extracting(row -> row.get("startNodeId"))
+            .containsExactlyInAnyOrderElementsOf(LongStream.rangeClosed(1, numberOfChildren)
+                .filter(id -> id % 2 == 0).boxed().collect(Collectors.toList()));
+    }
+
     @Test
     public void shouldCorrectlyRemoveRelationshipWhenItemIsMovedToDifferentCollection() {
 
@@ -736,7 +913,9 @@ public class CompilerTest {
         assertThat(statements).extracting(Statement::getStatement).containsOnly(
             "UNWIND {rows} AS row MATCH ()-[r]-() WHERE ID(r) = row.relId SET r += row.props RETURN ID(r) as ref, ID(r) as id, {type} as type"
         );
-        assertThat((List) statements.get(0).getParameters().get("rows")).hasSize(1);
+        List<Map<String, Object>> rows = (List) statements.get(0).getParameters().get("rows");
+        assertThat(rows).hasSize(1);
+        assertThat((Map<String, Object>) rows.get(0).get("props")).containsOnlyKeys("timestamp");
     }
 
     @Test
@@ -22,11 +22,17 @@ import static java.util.stream.Collectors.*;
 import static org.assertj.core.api.Assertions.*;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import org.junit.After;
 import org.junit.Before;
@@ -34,6 +40,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.neo4j.ogm.context.MappedRelationship;
 import org.neo4j.ogm.cypher.ComparisonOperator;
 import org.neo4j.ogm.cypher.Filter;
 import org.neo4j.ogm.domain.gh576.DataItem;
@@ -112,6 +119,62 @@ public class CypherContextTest extends MultiDriverTestClass {
         assertThat(formulaItem.getVariables()).hasSize(2);
     }
 
+    @Test
+    public void shouldRegisterKnownRelationshipsOnlyForTouchedNodes() {
+        MappedRelationship ab = new MappedRelationship(1L, "REL", 2L, DataItem.class, DataItem.class);
+        MappedRelationship bc = new MappedRelationship(2L, "REL", 3L, DataItem.class, DataItem.class);
+        MappedRelationship cd = new MappedRelationship(3L, "REL", 4L, DataItem.class, DataItem.class);
+        Map<Long, Set<MappedRelationship>> relationshipsOfNode = new HashMap<>();
+        for (MappedRelationship relationship : Arrays.asList(ab, bc, cd)) {
+            relationshipsOfNode.computeIfAbsent(relationship.getStartNodeId(), k -> new HashSet<>()).add(relationship);
+            relationshipsOfNode.computeIfAbsent(relationship.getEndNodeId(), k -> new HashSet<>()).add(relationship);
+        }
+
+        CypherContext context = new CypherContext(new MultiStatementCypherCompiler());
+        context.setKnownRelationships(id -> relationshipsOfNode.getOrDefault(id, Collections.emptySet()));
+
+        assertThat(context.deregisterOutgoingRelationships(2L, "REL", DataItem.class)).isTrue();
+        assertThat(context.getNodesWithKnownRelationships()).containsOnly(2L);
+        assertThat(context.getDeletedRelationships()).containsOnly(bc);
+
+        // bc has been registered through node 2 already and must stay deregistered when node 3 is touched
+        assertThat(context.removeRegisteredRelationship(bc)).isFalse();
+        assertThat(context.removeRegisteredRelationship(cd)).isTrue();
+        assertThat(context.getNodesWithKnownRelationships()).containsOnly(2L, 3L);
+        assertThat(context.removeRegisteredRelationship(ab)).isTrue();
+    }
+
+    @Test
+    public void deregisteringShouldOnlyAffectTheRelationshipsOfTheGivenNode() {
+        int numberOfChildren = 100;
+        CypherContext context = new CypherContext(new MultiStatementCypherCompiler());
+        for (long child = 1; child <= numberOfChildren; child++) {
+            context.registerRelationship(new MappedRelationship(child, "REL", 0L, DataItem.class, DataItem.class));
+        }
+
+        // Every odd child clears its outgoing relationship, as the mapper does while traversing the children of a hub
+        for (long child = 1; child <= numberOfChildren; child += 2) {
+            assertThat(context.deregisterOutgoingRelationships(child, "REL", DataItem.class)).isTrue();
+        }
+        assertThat(context.getDeletedRelationships())
+            .extracting(relationship -> relationship.getStartNodeId())
+            .containsOnlyElementsOf(LongStream.rangeClosed(1, numberOfChildren).filter(child -> child % 2 == 1)
+                .boxed().collect(toList()))
+            .hasSize(numberOfChildren / 2);
+
+        // The relationships of another type or to another type of node are not affected
+        assertThat(context.deregisterOutgoingRelationships(2L, "OTHER", DataItem.class)).isTrue();
+        assertThat(context.deregisterOutgoingRelationships(2L, "REL", Variable.class)).isTrue();
+        assertThat(context.getDeletedRelationships()).hasSize(numberOfChildren / 2);
+
+        // The hub clears the remaining relationships of the even children
+        assertThat(context.deregisterIncomingRelationships(0L, "REL", DataItem.class, false)).isTrue();
+        assertThat(context.getDeletedRelationships())
+            .extracting(relationship -> relationship.getStartNodeId())
+            .containsOnlyElementsOf(LongStream.rangeClosed(1, numberOfChildren).boxed().collect(toList()))
+            .hasSize(numberOfChildren);
+    }
+
     @After
     public void tearDown() {
         session.purgeDatabase();
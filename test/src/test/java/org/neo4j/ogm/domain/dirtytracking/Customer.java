@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.domain.dirtytracking;
+
+import org.neo4j.ogm.annotation.NodeEntity;
+import org.neo4j.ogm.session.DirtyTracking;
+
+/**
+ * Tracks its changes through its setters.
+ */
+@NodeEntity
+public class Customer implements DirtyTracking {
+
+    private Long id;
+
+    private String name;
+
+    private int orders;
+
+    private transient boolean dirty;
+
+    public Customer() {
+    }
+
+    public Customer(String name) {
+        setName(name);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        this.dirty = true;
+    }
+
+    public int getOrders() {
+        return orders;
+    }
+
+    public void setOrders(int orders) {
+        this.orders = orders;
+        this.dirty = true;
+    }
+
+    /**
+     * Changes the orders without tracking it, like a write bypassing the setters.
+     *
+     * @param newOrders The new number of orders
+     */
+    public void setOrdersUntracked(int newOrders) {
+        this.orders = newOrders;
+    }
+
+    @Override
+    public boolean hasDirtyProperties() {
+        return dirty;
+    }
+
+    @Override
+    public void clearDirtyProperties() {
+        this.dirty = false;
+    }
+}
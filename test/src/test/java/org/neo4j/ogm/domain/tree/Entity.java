@@ -71,6 +71,10 @@ public class Entity implements Comparable {
         return name;
     }
 
+    public void setName(String name) {
+        this.name = name;
+    }
+
     @Override
     public int compareTo(Object o) {
         Entity that = (Entity) o;
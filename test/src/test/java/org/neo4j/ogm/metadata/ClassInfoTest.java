@@ -481,4 +481,19 @@ public class ClassInfoTest {
             assertThat(methodInfo.getName().equals("<clinit>")).isFalse();
         }
     }
+
+    @Test
+    public void concreteSubclassesShouldContainAllNonAbstractDescendants() {
+
+        ClassInfo membership = metaData.classInfo("org.neo4j.ogm.domain.forum.Membership");
+        assertThat(membership.concreteSubclasses()).extracting(ClassInfo::name).containsExactlyInAnyOrder(
+            "org.neo4j.ogm.domain.forum.BronzeMembership",
+            "org.neo4j.ogm.domain.forum.SilverMembership",
+            "org.neo4j.ogm.domain.forum.GoldMembership",
+            "org.neo4j.ogm.domain.forum.LeadMembership");
+        assertThat(membership.concreteSubclasses()).isSameAs(membership.concreteSubclasses());
+
+        ClassInfo login = metaData.classInfo("org.neo4j.ogm.domain.forum.Login");
+        assertThat(login.concreteSubclasses()).containsExactly(metaData.classInfo(Member.class.getName()));
+    }
 }
@@ -18,9 +18,12 @@
  */
 package org.neo4j.ogm.persistence.examples.blog;
 
+import static java.util.Collections.*;
 import static org.assertj.core.api.Assertions.*;
 
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -30,6 +33,8 @@ import org.neo4j.ogm.domain.blog.Comment;
 import org.neo4j.ogm.domain.blog.Post;
 import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.event.Event;
+import org.neo4j.ogm.session.event.EventListenerAdapter;
 import org.neo4j.ogm.testutil.MultiDriverTestClass;
 
 /**
@@ -93,6 +98,58 @@ public class BlogTest extends MultiDriverTestClass {
         assertThat(f4.getNext()).isNull();
     }
 
+    @Test
+    public void shouldSaveAndLoadVeryLongListsOfBlogPosts() {
+
+        Post first = newListOfPosts(5_000);
+
+        session.save(first);
+
+        assertThat(session.countEntitiesOfType(Post.class)).isEqualTo(5_000);
+        assertThat(session.query("MATCH ()-[r:NEXT]->() RETURN count(r) as c", emptyMap())
+            .queryResults().iterator().next().get("c")).isEqualTo(4_999L);
+
+        session.clear();
+
+        Collection<Post> posts = session.loadAll(Post.class);
+        assertThat(posts).hasSize(5_000);
+
+        Post post = session.load(Post.class, first.getId(), 0);
+        int length = 0;
+        while (post != null) {
+            length++;
+            post = post.getNext();
+        }
+        assertThat(length).isEqualTo(5_000);
+    }
+
+    @Test
+    public void shouldFireEventsForVeryLongListsOfBlogPosts() {
+
+        AtomicInteger preSaveEvents = new AtomicInteger();
+        session.register(new EventListenerAdapter() {
+            @Override
+            public void onPreSave(Event event) {
+                preSaveEvents.incrementAndGet();
+            }
+        });
+
+        session.save(newListOfPosts(5_000));
+
+        assertThat(preSaveEvents.get()).isEqualTo(5_000);
+    }
+
+    private static Post newListOfPosts(int length) {
+        Post first = new Post("post 0");
+        Post last = first;
+        for (int i = 1; i < length; i++) {
+            Post post = new Post("post " + i);
+            last.setNext(post);
+            last = post;
+        }
+        return first;
+    }
+
     /**
      * @see Issue #99
      */
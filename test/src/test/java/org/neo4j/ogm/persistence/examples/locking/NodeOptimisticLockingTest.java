@@ -20,7 +20,11 @@ package org.neo4j.ogm.persistence.examples.locking;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -29,8 +33,16 @@ import org.neo4j.ogm.domain.locking.Location;
 import org.neo4j.ogm.domain.locking.PowerUser;
 import org.neo4j.ogm.domain.locking.User;
 import org.neo4j.ogm.exception.OptimisticLockingException;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.model.RowModel;
+import org.neo4j.ogm.request.Statement;
+import org.neo4j.ogm.response.Response;
+import org.neo4j.ogm.session.Neo4jSession;
 import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.session.request.DefaultRequest;
+import org.neo4j.ogm.session.request.RowDataStatement;
+import org.neo4j.ogm.session.request.strategy.impl.NodeDeleteStatements;
 import org.neo4j.ogm.testutil.MultiDriverTestClass;
 
 /**
@@ -101,6 +113,50 @@ public class NodeOptimisticLockingTest extends MultiDriverTestClass {
             .hasMessageContaining("id='" + frantisek.getId() + "' had incorrect version 0");
     }
 
+    @Test
+    public void givenManyNodesWithOneWrongVersionWhenSaveNodesThenFailForThatNodeOnly() {
+        List<Object> entities = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            entities.add(new User("User " + i));
+            entities.add(new Location("Location " + i));
+        }
+        session.save(entities);
+
+        for (Object entity : entities) {
+            if (entity instanceof User) {
+                ((User) entity).setName(((User) entity).getName() + " updated");
+            } else {
+                ((Location) entity).setName(((Location) entity).getName() + " updated");
+            }
+        }
+        User stale = (User) entities.get(42);
+        stale.setVersion(1L);
+
+        assertThatThrownBy(() -> session.save(entities))
+            .isInstanceOf(OptimisticLockingException.class)
+            .hasMessageContaining("Entity with type='[User]' and id='" + stale.getId() + "' had incorrect version 1")
+            .satisfies(e -> assertThat(e.getMessage()).doesNotContain("Location"));
+
+        session.clear();
+        assertThat(session.loadAll(User.class)).extracting(User::getName).allMatch(name -> !name.endsWith("updated"));
+    }
+
+    @Test
+    public void givenManyNodesWhenSaveNodesThenIncrementAllVersions() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            users.add(new User("User " + i));
+        }
+        session.save(users);
+
+        users.forEach(user -> user.setName(user.getName() + " updated"));
+        session.save(users);
+
+        assertThat(users).extracting(User::getVersion).containsOnly(1L);
+        session.clear();
+        assertThat(session.loadAll(User.class)).extracting(User::getVersion).containsOnly(1L);
+    }
+
     @Test
     public void saveOnNonExistingEntityShouldFailWithOptimisticLockingException() {
         User frantisek = new User("Frantisek");
@@ -143,6 +199,90 @@ public class NodeOptimisticLockingTest extends MultiDriverTestClass {
             .isInstanceOf(OptimisticLockingException.class);
     }
 
+    @Test
+    public void givenNodeWithWrongVersionWhenDeletingItByIdThenCheckFails() {
+        User frantisek = new User("Frantisek");
+        session.save(frantisek);
+
+        frantisek.setVersion(1L);
+
+        Neo4jSession neo4jSession = (Neo4jSession) session;
+        Statement statement = new NodeDeleteStatements()
+            .delete(frantisek.getId(), frantisek, neo4jSession.metaData().classInfo(frantisek));
+        DefaultRequest request = new DefaultRequest();
+        request.setStatements(Collections.singletonList(statement));
+
+        assertThatThrownBy(() -> {
+            try (Response<RowModel> response = neo4jSession.requestHandler().execute(request)) {
+                neo4jSession.optimisticLockingChecker()
+                    .checkResults(Collections.singletonList(response.toList()), request.getStatements());
+            }
+        })
+            .isInstanceOf(OptimisticLockingException.class)
+            .hasMessageContaining("id='" + frantisek.getId() + "' had incorrect version 1");
+    }
+
+    @Test
+    public void givenStatementWithoutCheckReturningSameIdsWhenDeletingWithWrongVersionsThenCheckFails() {
+        User frantisek = new User("Frantisek");
+        User michal = new User("Michal");
+        session.save(frantisek);
+        session.save(michal);
+
+        frantisek.setVersion(1L);
+        michal.setVersion(1L);
+
+        Neo4jSession neo4jSession = (Neo4jSession) session;
+        NodeDeleteStatements deleteStatements = new NodeDeleteStatements();
+        ClassInfo classInfo = neo4jSession.metaData().classInfo(User.class.getName());
+        List<Statement> statements = new ArrayList<>();
+        statements.add(deleteStatements.delete(frantisek.getId(), frantisek, classInfo));
+        // returns the ids of both users without checking anything, must not count as a match of the checked ones
+        statements.add(new RowDataStatement("MATCH (n) WHERE ID(n) IN { ids } RETURN ID(n) AS id, 'node' AS type",
+            Collections.singletonMap("ids", Arrays.asList(frantisek.getId(), michal.getId()))));
+        statements.add(deleteStatements.delete(michal.getId(), michal, classInfo));
+
+        assertThatThrownBy(() -> neo4jSession.optimisticLockingChecker().execute(statements))
+            .isInstanceOf(OptimisticLockingException.class)
+            .hasMessageContaining("id='" + frantisek.getId() + "' had incorrect version 1; ")
+            .hasMessageContaining("id='" + michal.getId() + "' had incorrect version 1");
+
+        session.clear();
+        assertThat(session.loadAll(User.class)).hasSize(2);
+    }
+
+    @Test
+    public void givenManyNodesWhenDeleteThenNodesAreDeleted() {
+        List<Object> entities = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            entities.add(new User("User " + i));
+            entities.add(new Location("Location " + i));
+        }
+        session.save(entities);
+
+        session.delete(entities);
+
+        assertThat(session.countEntitiesOfType(User.class)).isZero();
+        assertThat(session.countEntitiesOfType(Location.class)).isZero();
+    }
+
+    @Test
+    public void givenManyNodesWithOneWrongVersionWhenDeleteThenDeleteNone() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            users.add(new User("User " + i));
+        }
+        session.save(users);
+
+        User stale = users.get(42);
+        stale.setVersion(1L);
+
+        assertThatThrownBy(() -> session.delete(users))
+            .isInstanceOf(OptimisticLockingException.class)
+            .hasMessageContaining("id='" + stale.getId() + "' had incorrect version 1");
+        assertThat(session.countEntitiesOfType(User.class)).isEqualTo(100);
+    }
+
     @Test
     public void shouldWorkWithInheritedVersionField() {
         PowerUser frantisek = new PowerUser("Frantisek");
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.persistence.examples.locking;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphdb.ExecutionPlanDescription;
+import org.neo4j.graphdb.Result;
+import org.neo4j.ogm.domain.locking.FriendOf;
+import org.neo4j.ogm.domain.locking.User;
+import org.neo4j.ogm.metadata.MetaData;
+import org.neo4j.ogm.request.Statement;
+import org.neo4j.ogm.session.request.strategy.impl.NodeDeleteStatements;
+import org.neo4j.ogm.session.request.strategy.impl.RelationshipDeleteStatements;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+
+/**
+ * Verifies that the versioned batch deletes look up their rows by id instead of scanning the graph.
+ */
+public class VersionedDeletePlanTest extends MultiDriverTestClass {
+
+    private static MetaData metaData;
+
+    @BeforeClass
+    public static void setUpClass() {
+        metaData = new MetaData("org.neo4j.ogm.domain.locking");
+    }
+
+    @Test
+    public void versionedDeleteOfNodesShouldSeekNodesById() {
+        Statement statement = new NodeDeleteStatements()
+            .delete(versionsById(), metaData.classInfo(User.class.getName()));
+
+        Set<String> operators = explain(statement);
+        assertThat(operators).contains("NodeByIdSeek");
+        assertThat(operators).doesNotContain("AllNodesScan");
+    }
+
+    @Test
+    public void versionedDeleteOfRelationshipsShouldSeekRelationshipsById() {
+        Statement statement = new RelationshipDeleteStatements()
+            .delete(versionsById(), metaData.classInfo(FriendOf.class.getName()));
+
+        Set<String> operators = explain(statement);
+        assertThat(operators).contains("DirectedRelationshipByIdSeek");
+        assertThat(operators).doesNotContain("AllNodesScan");
+    }
+
+    private static Map<Long, Long> versionsById() {
+        Map<Long, Long> versionsById = new HashMap<>();
+        versionsById.put(1L, 0L);
+        versionsById.put(2L, 3L);
+        return versionsById;
+    }
+
+    private static Set<String> explain(Statement statement) {
+        try (Result result = getGraphDatabaseService()
+            .execute("EXPLAIN " + statement.getStatement(), statement.getParameters())) {
+            Set<String> operators = new HashSet<>();
+            collectOperators(result.getExecutionPlanDescription(), operators);
+            return operators;
+        }
+    }
+
+    private static void collectOperators(ExecutionPlanDescription plan, Set<String> operators) {
+        operators.add(plan.getName());
+        plan.getChildren().forEach(child -> collectOperators(child, operators));
+    }
+}
@@ -355,4 +355,51 @@ public class SocialIntegrationTest extends MultiDriverTestClass {
         assertThat(loadedD.getPeopleILike()).hasSize(2);
     }
 
+    @Test
+    public void shouldSaveChangesOfLoadedRelationshipCollections() {
+        session.query("create (m1:Mortal {name:'A'}) create (m2:Mortal {name:'B'}) create (m3:Mortal {name:'C'})" +
+                " create (m4:Mortal {name:'D'}) create (m1)<-[:KNOWN_BY]-(m2) create (m1)<-[:KNOWN_BY]-(m3)",
+            Collections.EMPTY_MAP);
+
+        Mortal mortalA = session.loadAll(Mortal.class, new Filter("name", ComparisonOperator.EQUALS, "A")).iterator()
+            .next();
+        Mortal mortalD = session.loadAll(Mortal.class, new Filter("name", ComparisonOperator.EQUALS, "D")).iterator()
+            .next();
+        mortalA.getKnownBy().removeIf(mortal -> mortal.getName().equals("B"));
+        mortalA.getKnownBy().add(mortalD);
+        mortalA.getKnownBy().add(new Mortal("E"));
+        session.save(mortalA);
+
+        // nothing changed since the last save
+        session.save(mortalA);
+
+        session.clear();
+        mortalA = session.loadAll(Mortal.class, new Filter("name", ComparisonOperator.EQUALS, "A")).iterator().next();
+        assertThat(mortalA.getKnownBy()).extracting(Mortal::getName).containsExactlyInAnyOrder("C", "D", "E");
+    }
+
+    @Test
+    public void shouldSaveRelationshipCollectionsReplacedByTheUser() {
+        Person a = new Person("A");
+        Person b = new Person("B");
+        Person c = new Person("C");
+        a.addPersonILike(b);
+        a.addPersonILike(c);
+        session.save(a);
+        session.clear();
+
+        Person loadedA = session.load(Person.class, a.getId());
+        List<Person> peopleILike = new ArrayList<>(loadedA.getPeopleILike());
+        peopleILike.removeIf(person -> person.getName().equals("B"));
+        loadedA.setPeopleILike(peopleILike);
+        session.save(loadedA);
+
+        loadedA.getPeopleILike().clear();
+        loadedA.addPersonILike(session.load(Person.class, b.getId()));
+        session.save(loadedA);
+
+        session.clear();
+        loadedA = session.load(Person.class, a.getId());
+        assertThat(loadedA.getPeopleILike()).extracting(Person::getName).containsExactly("B");
+    }
 }
@@ -22,6 +22,7 @@ import static org.assertj.core.api.Assertions.*;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import org.junit.Before;
@@ -124,4 +125,104 @@ public class TreeIntegrationTest extends MultiDriverTestClass {
         assertThat(childNames.get(0)).isEqualTo("c1");
         assertThat(childNames.get(1)).isEqualTo("c2");
     }
+
+    @Test
+    public void shouldDeleteRelationshipsOfRemovedChildrenOfAHub() {
+        Entity hub = new Entity("hub");
+        for (int i = 0; i < 20; i++) {
+            new Entity(String.format("child%02d", i)).setParent(hub);
+        }
+        session.save(hub);
+
+        Iterator<Entity> children = hub.getChildren().iterator();
+        for (int i = 0; children.hasNext(); i++) {
+            children.next();
+            if (i % 2 == 0) {
+                children.remove();
+            }
+        }
+        session.save(hub);
+
+        session.clear();
+        hub = session.load(Entity.class, hub.getId());
+        assertThat(hub.getChildren()).hasSize(10);
+        assertThat(session.countEntitiesOfType(Entity.class)).isEqualTo(21);
+    }
+
+    @Test
+    public void shouldSaveNewNodesAndTheirRelationshipsInASingleRoundTrip() {
+        SessionFactory singleRoundTripSessionFactory = new SessionFactory(
+            getBaseConfiguration().useSingleRoundTripSave().build(), "org.neo4j.ogm.domain.tree");
+        try {
+            Session singleRoundTripSession = singleRoundTripSessionFactory.openSession();
+
+            Entity parent = new Entity("parent");
+            Entity child = new Entity("child").setParent(parent);
+            new Entity("grandchild").setParent(child);
+            singleRoundTripSession.save(parent);
+            assertThat(parent.getId()).isNotNull();
+            assertThat(child.getId()).isNotNull();
+
+            // connect a new node to an existing one
+            Entity sibling = new Entity("sibling").setParent(parent);
+            singleRoundTripSession.save(sibling);
+            assertThat(sibling.getId()).isNotNull();
+
+            session.clear();
+            Entity loaded = session.load(Entity.class, parent.getId(), 2);
+            assertThat(loaded.getChildren()).extracting(Entity::getName).containsExactly("child", "sibling");
+            assertThat(loaded.getChildren().iterator().next().getChildren()).extracting(Entity::getName)
+                .containsExactly("grandchild");
+            assertThat(session.countEntitiesOfType(Entity.class)).isEqualTo(4);
+        } finally {
+            singleRoundTripSessionFactory.close();
+        }
+    }
+
+    @Test
+    public void shouldSkipUnchangedSubgraphsWhenSaving() {
+        SessionFactory skippingSessionFactory = new SessionFactory(
+            getBaseConfiguration().skipCleanSubgraphs().build(), "org.neo4j.ogm.domain.tree");
+        try {
+            Session skippingSession = skippingSessionFactory.openSession();
+
+            Entity root = new Entity("root");
+            Entity child = new Entity("child").setParent(root);
+            skippingSession.save(root);
+
+            // the root hasn't changed, but the children of the child have, so the new grandchild is saved
+            Entity grandchild = new Entity("grandchild").setParent(child);
+            skippingSession.save(root);
+            assertThat(grandchild.getId()).isNotNull();
+
+            // changed references of a traversed entity are always saved
+            Entity sibling = new Entity("sibling").setParent(root);
+            skippingSession.save(root);
+            assertThat(sibling.getId()).isNotNull();
+
+            // loaded entities are unchanged until their references change
+            skippingSession.clear();
+            Entity loadedRoot = skippingSession.load(Entity.class, root.getId(), -1);
+            Entity loadedGrandchild = childNamed(childNamed(loadedRoot, "child"), "grandchild");
+            Entity greatGrandchild = new Entity("great-grandchild").setParent(loadedGrandchild);
+            skippingSession.save(loadedRoot);
+            assertThat(greatGrandchild.getId()).isNotNull();
+
+            // changed properties behind unchanged entities are saved without marking the changed entity
+            greatGrandchild.setName("renamed");
+            skippingSession.save(loadedRoot);
+
+            session.clear();
+            Entity reloaded = session.load(Entity.class, greatGrandchild.getId(), -1);
+            assertThat(reloaded.getName()).isEqualTo("renamed");
+            assertThat(reloaded.getParent().getName()).isEqualTo("grandchild");
+            assertThat(session.countEntitiesOfType(Entity.class)).isEqualTo(5);
+        } finally {
+            skippingSessionFactory.close();
+        }
+    }
+
+    private static Entity childNamed(Entity parent, String name) {
+        return parent.getChildren().stream().filter(child -> name.equals(child.getName())).findFirst().get();
+    }
 }
@@ -21,16 +21,21 @@ package org.neo4j.ogm.persistence.session.capability;
 import static org.assertj.core.api.Assertions.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.neo4j.ogm.domain.music.Album;
 import org.neo4j.ogm.domain.music.Recording;
+import org.neo4j.ogm.domain.music.Studio;
+import org.neo4j.ogm.session.BatchDeleter;
 import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.session.SessionFactory;
 import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.neo4j.ogm.transaction.Transaction;
 
 /**
  * @author vince
@@ -104,6 +109,82 @@ public class DeleteCapabilityTest extends MultiDriverTestClass {
         assertEntityCount(0);
     }
 
+    @Test
+    public void canDeleteAllEntitiesOfTypeInBatches() {
+        List<Album> albums = saveAlbums(250);
+        List<Long> progress = new ArrayList<>();
+
+        long deleted = session.deleteAllInBatches(Album.class)
+            .batchSize(100)
+            .onProgress(progress::add)
+            .execute();
+
+        assertThat(deleted).isEqualTo(250);
+        assertThat(progress).containsExactly(100L, 200L, 250L);
+        assertThat(session.detachNodeEntity(albums.get(0).getId())).isFalse();
+        assertEntityCount(0);
+    }
+
+    @Test
+    public void canCancelBatchedDelete() {
+        saveAlbums(250);
+
+        BatchDeleter deleter = session.deleteAllInBatches(Album.class).batchSize(100);
+        long deleted = deleter.onProgress(deletedSoFar -> deleter.cancel()).execute();
+
+        assertThat(deleted).isEqualTo(100);
+        assertThat(deleter.isCancelled()).isTrue();
+        assertEntityCount(150);
+    }
+
+    @Test
+    public void shouldDeleteAllBatchesInOpenTransaction() {
+        saveAlbums(250);
+
+        try (Transaction tx = session.beginTransaction()) {
+            session.deleteAllInBatches(Album.class).batchSize(100).execute();
+            tx.rollback();
+        }
+
+        assertEntityCount(250);
+    }
+
+    @Test
+    public void canDeleteAllRelationshipEntitiesInBatches() {
+        Studio studio = new Studio("Abbey Road");
+        for (Album album : saveAlbums(25)) {
+            album.setRecording(new Recording(album, studio, 1969));
+            session.save(album);
+        }
+
+        long deleted = session.deleteAllInBatches(Recording.class).batchSize(10).execute();
+
+        assertThat(deleted).isEqualTo(25);
+        assertThat(session.countEntitiesOfType(Recording.class)).isZero();
+        assertEntityCount(25);
+    }
+
+    @Test
+    public void canPurgeDatabaseInBatches() {
+        Studio studio = new Studio("Abbey Road");
+        for (Album album : saveAlbums(25)) {
+            album.setRecording(new Recording(album, studio, 1969));
+            session.save(album);
+        }
+
+        long deleted = session.purgeDatabaseInBatches().batchSize(10).execute();
+
+        assertThat(deleted).isEqualTo(26);
+        assertThat(session.query(Long.class, "MATCH (n) RETURN count(n)", Collections.emptyMap())).containsExactly(0L);
+    }
+
+    private List<Album> saveAlbums(int count) {
+        List<Album> albums = new ArrayList<>();
+        IntStream.range(0, count).forEach(i -> albums.add(new Album("Album " + i)));
+        session.save(albums);
+        return albums;
+    }
+
     private void assertEntityCount(int count) {
         session.clear(); // Ensure that no data is cached...
         long entityCount = session.countEntitiesOfType(Album.class);
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.persistence.session.capability;
+
+import static java.util.Collections.*;
+import static java.util.stream.Collectors.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.ogm.domain.music.Album;
+import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.neo4j.ogm.transaction.Transaction;
+
+public class ImportCapabilityTest extends MultiDriverTestClass {
+
+    private static SessionFactory sessionFactory;
+
+    private Session session;
+
+    @BeforeClass
+    public static void oneTimeSetUp() {
+        sessionFactory = new SessionFactory(driver, "org.neo4j.ogm.domain.music");
+    }
+
+    @Before
+    public void init() {
+        session = sessionFactory.openSession();
+        session.purgeDatabase();
+    }
+
+    @Test
+    public void shouldImportEntitiesAndTheirGraphsInBatches() {
+        List<Album> albums = albums(25);
+
+        long imported = session.importer(Album.class).batchSize(10).importAll(albums.stream());
+
+        assertThat(imported).isEqualTo(25);
+        assertThat(albums).allSatisfy(album -> {
+            assertThat(album.getId()).isNotNull();
+            assertThat(album.getArtist().getId()).isNotNull();
+        });
+        assertThat(session.countEntitiesOfType(Album.class)).isEqualTo(25);
+        assertThat(session.countEntitiesOfType(Artist.class)).isEqualTo(25);
+        assertThat(session.query("MATCH ()-[r:`HAS-ALBUM`]->() RETURN count(r) as c", emptyMap())
+            .queryResults().iterator().next().get("c")).isEqualTo(25L);
+        assertThat(session.detachNodeEntity(albums.get(0).getId())).isTrue();
+    }
+
+    @Test
+    public void shouldDetachImportedEntitiesIfTrackingIsOff() {
+        List<Album> albums = albums(5);
+
+        session.importer(Album.class).batchSize(2).trackEntities(false).importAll(albums);
+
+        assertThat(session.countEntitiesOfType(Album.class)).isEqualTo(5);
+        for (Album album : albums) {
+            assertThat(album.getId()).isNotNull();
+            assertThat(session.detachNodeEntity(album.getId())).isFalse();
+            assertThat(session.detachNodeEntity(album.getArtist().getId())).isFalse();
+        }
+    }
+
+    @Test
+    public void shouldTakePartInAnOpenTransaction() {
+        try (Transaction transaction = session.beginTransaction()) {
+            session.importer(Album.class).batchSize(2).importAll(albums(5).iterator());
+            transaction.rollback();
+        }
+
+        assertThat(session.countEntitiesOfType(Album.class)).isZero();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonEntityTypes() {
+        session.importer(String.class).importAll(Stream.of("not an entity"));
+    }
+
+    private static List<Album> albums(int numberOfAlbums) {
+        return IntStream.range(0, numberOfAlbums)
+            .mapToObj(i -> {
+                Album album = new Album("Album " + i);
+                album.setArtist(new Artist("Artist " + i));
+                return album;
+            })
+            .collect(toList());
+    }
+}
@@ -26,9 +26,11 @@ import org.junit.Test;
 import org.neo4j.ogm.domain.filesystem.Document;
 import org.neo4j.ogm.domain.filesystem.FileSystemEntity;
 import org.neo4j.ogm.domain.filesystem.Folder;
+import org.neo4j.ogm.domain.filesystem.Volume;
 import org.neo4j.ogm.session.Neo4jSession;
 import org.neo4j.ogm.session.event.Event;
 import org.neo4j.ogm.session.event.EventListener;
+import org.neo4j.ogm.session.event.EventListenerAdapter;
 
 /**
  * @author vince
@@ -56,6 +58,59 @@ public class LifecycleTest extends EventTestBaseClass {
         assertThat(f2.getUuid()).isNotNull();
     }
 
+    @Test
+    public void shouldSaveNewObjectWhosePrimaryIdIsAssignedByPreSaveEventHandler() {
+
+        session.dispose(eventListener); // not interested in the default one for this suite
+        session.register(new EventListenerAdapter() {
+            @Override
+            public void onPreSave(Event event) {
+                Volume volume = (Volume) event.getObject();
+                if (volume.getSerial() == null) {
+                    volume.setSerial(UUID.randomUUID().toString());
+                    volume.getLabels().add("Mounted");
+                }
+            }
+        });
+
+        Volume volume = new Volume();
+        volume.setName("data");
+
+        session.save(volume);
+        assertThat(volume.getSerial()).isNotNull();
+
+        session.clear();
+
+        Volume loaded = session.load(Volume.class, volume.getSerial());
+
+        assertThat(loaded.getName()).isEqualTo("data");
+        assertThat(loaded.getLabels()).containsExactly("Mounted");
+    }
+
+    @Test
+    public void shouldSaveUnchangedObjectUpdatedByPreSaveEventHandlerForNewRelationship() {
+
+        session.dispose(eventListener); // not interested in the default one for this suite
+        session.register(uuidEventListener);
+
+        assertThat(folder.getUuid()).isNull();
+
+        Document z = new Document();
+        z.setName("z");
+        z.setFolder(folder);
+        folder.getDocuments().add(z);
+
+        session.save(z);
+        assertThat(folder.getUuid()).isNotNull();
+
+        session.clear();
+
+        Folder f2 = session.load(Folder.class, folder.getId());
+
+        assertThat(f2.getUuid()).isEqualTo(folder.getUuid());
+        assertThat(f2.getDocuments()).hasSize(4);
+    }
+
     @Test
     public void shouldNotSaveObjectUpdatedByPreDeleteEventHandler() {
 
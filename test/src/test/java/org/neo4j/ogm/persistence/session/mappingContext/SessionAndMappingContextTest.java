@@ -47,6 +47,7 @@ import org.neo4j.ogm.transaction.Transaction;
 public class SessionAndMappingContextTest extends MultiDriverTestClass {
 
     // i need a Neo4jSession because the session interface does not define the context() method
+    private SessionFactory sessionFactory;
     private Neo4jSession session;
 
     private Album album1;
@@ -62,8 +63,9 @@ public class SessionAndMappingContextTest extends MultiDriverTestClass {
 
     @Before
     public void init() throws IOException {
-        session = (Neo4jSession) new SessionFactory(driver, "org.neo4j.ogm.domain.music",
-            "org.neo4j.ogm.domain.cineasts.annotated").openSession();
+        sessionFactory = new SessionFactory(driver, "org.neo4j.ogm.domain.music",
+            "org.neo4j.ogm.domain.cineasts.annotated");
+        session = (Neo4jSession) sessionFactory.openSession();
 
         artist1 = new Artist();
         artist1.setName("MainArtist");
@@ -245,4 +247,17 @@ public class SessionAndMappingContextTest extends MultiDriverTestClass {
             session.deleteAll(Actor.class);
         }
     }
+
+    @Test
+    public void readOnlySessionShouldHydrateEntitiesWithoutTrackingThem() {
+        Neo4jSession readOnlySession = (Neo4jSession) sessionFactory.openReadOnlySession();
+        assertThat(readOnlySession.isReadOnly()).isTrue();
+
+        Artist artist = readOnlySession.load(Artist.class, artist1.getId());
+        assertThat(artist.getAlbums()).extracting(Album::getName).containsExactlyInAnyOrder("First", "Second", "Third");
+        assertThat(readOnlySession.context().getNodeEntity(album1.getId())).isNotNull();
+        assertThat(readOnlySession.context().getRelationships()).isEmpty();
+
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> readOnlySession.save(artist));
+    }
 }
@@ -21,6 +21,7 @@ package org.neo4j.ogm.persistence.transaction;
 import static org.assertj.core.api.Assertions.*;
 
 import java.io.IOException;
+import java.util.Collections;
 
 import org.junit.After;
 import org.junit.Before;
@@ -184,4 +185,91 @@ public class TransactionTest extends MultiDriverTestClass {
 
         session.purgeDatabase();
     }
+
+    @Test
+    public void shouldHoldBackSavesUntilCommitWhenWritingBehind() {
+        SessionFactory writeBehindSessionFactory = new SessionFactory(
+            getBaseConfiguration().writeBehind().build(), "org.neo4j.ogm.domain.music");
+        try {
+            Session writeBehindSession = writeBehindSessionFactory.openSession();
+            Artist theBeatles = new Artist("The Beatles");
+            Artist theRollingStones = new Artist("The Rolling Stones");
+            try (Transaction tx = writeBehindSession.beginTransaction()) {
+                writeBehindSession.save(theBeatles);
+                writeBehindSession.save(theRollingStones);
+                writeBehindSession.save(theBeatles);
+                assertThat(theBeatles.getId()).isNull();
+                assertThat(theRollingStones.getId()).isNull();
+
+                tx.commit();
+            }
+            assertThat(theBeatles.getId()).isNotNull();
+            assertThat(theRollingStones.getId()).isNotNull();
+            assertThat(session.countEntitiesOfType(Artist.class)).isEqualTo(2);
+
+            // outside of a transaction there is nothing to wait for
+            Artist theWho = new Artist("The Who");
+            writeBehindSession.save(theWho);
+            assertThat(theWho.getId()).isNotNull();
+        } finally {
+            writeBehindSessionFactory.close();
+        }
+    }
+
+    @Test
+    public void shouldFlushHeldBackSavesBeforeReadingWhenWritingBehind() {
+        SessionFactory writeBehindSessionFactory = new SessionFactory(
+            getBaseConfiguration().writeBehind().build(), "org.neo4j.ogm.domain.music");
+        try {
+            Session writeBehindSession = writeBehindSessionFactory.openSession();
+            try (Transaction tx = writeBehindSession.beginTransaction()) {
+                Artist theBeatles = new Artist("The Beatles");
+                writeBehindSession.save(theBeatles);
+                assertThat(writeBehindSession.countEntitiesOfType(Artist.class)).isEqualTo(1);
+                assertThat(theBeatles.getId()).isNotNull();
+
+                Album please = new Album("Please Please Me");
+                please.setArtist(theBeatles);
+                theBeatles.getAlbums().add(please);
+                writeBehindSession.save(theBeatles);
+                Iterable<Album> albums = writeBehindSession.query(Album.class,
+                    "MATCH (a)<-[:`HAS-ALBUM`]-() RETURN a", Collections.emptyMap());
+                assertThat(albums).containsExactly(please);
+
+                Studio emi = new Studio("EMI Studios, London");
+                writeBehindSession.save(emi);
+                writeBehindSession.flush();
+                assertThat(emi.getId()).isNotNull();
+
+                tx.commit();
+            }
+            assertThat(session.countEntitiesOfType(Album.class)).isEqualTo(1);
+            assertThat(session.countEntitiesOfType(Studio.class)).isEqualTo(1);
+        } finally {
+            writeBehindSessionFactory.close();
+        }
+    }
+
+    @Test
+    public void shouldDiscardHeldBackSavesOnRollbackWhenWritingBehind() {
+        SessionFactory writeBehindSessionFactory = new SessionFactory(
+            getBaseConfiguration().writeBehind().build(), "org.neo4j.ogm.domain.music");
+        try {
+            Session writeBehindSession = writeBehindSessionFactory.openSession();
+            Artist theBeatles = new Artist("The Beatles");
+            try (Transaction tx = writeBehindSession.beginTransaction()) {
+                writeBehindSession.save(theBeatles);
+                tx.rollback();
+            }
+            assertThat(theBeatles.getId()).isNull();
+
+            try (Transaction tx = writeBehindSession.beginTransaction()) {
+                tx.commit();
+            }
+            assertThat(theBeatles.getId()).isNull();
+            assertThat(session.countEntitiesOfType(Artist.class)).isEqualTo(0);
+        } finally {
+            writeBehindSessionFactory.close();
+        }
+    }
 }
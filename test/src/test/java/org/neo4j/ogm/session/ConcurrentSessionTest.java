@@ -18,25 +18,37 @@
  */
 package org.neo4j.ogm.session;
 
+import static java.util.stream.Collectors.*;
 import static org.assertj.core.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.neo4j.ogm.config.Configuration;
 import org.neo4j.ogm.cypher.ComparisonOperator;
 import org.neo4j.ogm.cypher.Filter;
 import org.neo4j.ogm.domain.concurrency.World;
 import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.neo4j.ogm.transaction.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author Mark Angrish
  */
 public class ConcurrentSessionTest extends MultiDriverTestClass {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentSessionTest.class);
+
     private static SessionFactory sessionFactory;
 
     private Session session;
@@ -93,4 +105,81 @@ public class ConcurrentSessionTest extends MultiDriverTestClass {
         countDownLatch.await();
         assertThat(failed).isFalse();
     }
+
+    @Test
+    public void concurrentSavesOfOverlappingGraphsShouldNotDeadlockWithOrderedRows() throws Exception {
+
+        int unorderedDeadlocks = countDeadlocksOfConcurrentSaves(getBaseConfiguration().build());
+        int orderedDeadlocks = countDeadlocksOfConcurrentSaves(getBaseConfiguration().orderSaveRows().build());
+        LOGGER.info("Deadlocks of concurrent saves of overlapping graphs: {} with unordered rows, {} with ordered rows",
+            unorderedDeadlocks, orderedDeadlocks);
+
+        assertThat(orderedDeadlocks).isZero();
+    }
+
+    /**
+     * Lets several threads update the same planets, each visiting them in its own random order, and counts the
+     * transactions failing because of a deadlock. Other failures are rethrown.
+     */
+    private int countDeadlocksOfConcurrentSaves(Configuration configuration) throws Exception {
+
+        SessionFactory threadSessionFactory = new SessionFactory(configuration, "org.neo4j.ogm.domain.concurrency");
+        try {
+            List<World> planets = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                planets.add(new World("planet " + i, i));
+            }
+            session.save(planets);
+            List<Long> ids = planets.stream().map(World::getId).collect(toList());
+
+            int threads = 4;
+            ExecutorService service = Executors.newFixedThreadPool(threads);
+            List<Future<Integer>> saves = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Random random = new Random(t);
+                saves.add(service.submit(() -> {
+                    int deadlocks = 0;
+                    for (int i = 0; i < 25; i++) {
+                        Session threadSession = threadSessionFactory.openSession();
+                        try (Transaction tx = threadSession.beginTransaction()) {
+                            List<World> worlds = new ArrayList<>(threadSession.loadAll(World.class, ids, 0));
+                            Collections.shuffle(worlds, random);
+                            worlds.forEach(world -> world.setUpdated(random.nextLong()));
+                            threadSession.save(worlds, 0);
+                            tx.commit();
+                        } catch (RuntimeException e) {
+                            if (!isDeadlock(e)) {
+                                throw e;
+                            }
+                            deadlocks++;
+                        }
+                    }
+                    return deadlocks;
+                }));
+            }
+            service.shutdown();
+
+            int deadlocks = 0;
+            for (Future<Integer> save : saves) {
+                deadlocks += save.get();
+            }
+            assertThat(session.loadAll(World.class, ids, 0)).hasSize(20)
+                .allMatch(world -> world.getUpdated() != null);
+            return deadlocks;
+        } finally {
+            threadSessionFactory.close();
+        }
+    }
+
+    // deadlocks are reported differently by the drivers, as transient errors or as exceptions of the database
+    private static boolean isDeadlock(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            String type = cause.getClass().getSimpleName();
+            if ("DeadlockDetectedException".equals(type) || "TransientException".equals(type)
+                || (cause.getMessage() != null && cause.getMessage().contains("DeadlockDetected"))) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
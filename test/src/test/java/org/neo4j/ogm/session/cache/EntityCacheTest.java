@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.ogm.session.cache;
+
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.domain.music.Album;
+import org.neo4j.ogm.domain.music.Artist;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+
+public class EntityCacheTest extends MultiDriverTestClass {
+
+    private SessionFactory cachingSessionFactory;
+
+    private Artist artist;
+
+    @Before
+    public void init() {
+        cachingSessionFactory = new SessionFactory(getBaseConfiguration().entityCacheSpec("maximumSize=100").build(),
+            "org.neo4j.ogm.domain.music");
+
+        artist = new Artist("Pink Floyd");
+        artist.addAlbum(new Album("Meddle"));
+        cachingSessionFactory.openSession().save(artist);
+    }
+
+    @After
+    public void tearDown() {
+        cachingSessionFactory.openSession().purgeDatabase();
+        cachingSessionFactory.close();
+    }
+
+    @Test
+    public void loadShouldBeAnsweredFromCacheInOtherSessions() {
+        Artist loaded = cachingSessionFactory.openSession().load(Artist.class, artist.getId());
+        assertThat(loaded.getAlbums()).extracting(Album::getName).containsExactly("Meddle");
+        assertThat(cachingSessionFactory.getEntityCache().size()).isEqualTo(1);
+
+        renameArtistBehindTheBackOfTheSessionFactory("The Pink Floyd");
+
+        Artist cached = cachingSessionFactory.openSession().load(Artist.class, artist.getId());
+        assertThat(cached).isNotSameAs(loaded);
+        assertThat(cached.getName()).isEqualTo("Pink Floyd");
+        assertThat(cached.getAlbums()).extracting(Album::getName).containsExactly("Meddle");
+
+        cachingSessionFactory.getEntityCache().invalidateAll();
+        assertThat(cachingSessionFactory.openSession().load(Artist.class, artist.getId()).getName())
+            .isEqualTo("The Pink Floyd");
+    }
+
+    @Test
+    public void savingANeighbourShouldInvalidateCachedEntries() {
+        cachingSessionFactory.openSession().load(Artist.class, artist.getId());
+
+        Session session = cachingSessionFactory.openSession();
+        Album album = session.load(Album.class, artist.getAlbums().iterator().next().getId(), 0);
+        album.setName("Meddle (Remastered)");
+        session.save(album);
+
+        Artist loaded = cachingSessionFactory.openSession().load(Artist.class, artist.getId());
+        assertThat(loaded.getAlbums()).extracting(Album::getName).containsExactly("Meddle (Remastered)");
+    }
+
+    @Test
+    public void deletingShouldInvalidateCachedEntries() {
+        cachingSessionFactory.openSession().load(Artist.class, artist.getId());
+
+        cachingSessionFactory.openSession().delete(artist);
+
+        assertThat(cachingSessionFactory.openSession().load(Artist.class, artist.getId())).isNull();
+    }
+
+    @Test
+    public void writingCypherShouldInvalidateAllCachedEntries() {
+        cachingSessionFactory.openSession().load(Artist.class, artist.getId());
+
+        cachingSessionFactory.openSession()
+            .query("MATCH (n) WHERE id(n) = $id SET n.name = 'The Pink Floyd'", singletonMap("id", artist.getId()));
+
+        assertThat(cachingSessionFactory.getEntityCache().size()).isEqualTo(0);
+        assertThat(cachingSessionFactory.openSession().load(Artist.class, artist.getId()).getName())
+            .isEqualTo("The Pink Floyd");
+    }
+
+    @Test
+    public void loadAllShouldCombineCachedAndLoadedEntities() {
+        Artist other = new Artist("Genesis");
+        cachingSessionFactory.openSession().save(other);
+        cachingSessionFactory.openSession().load(Artist.class, artist.getId());
+
+        renameArtistBehindTheBackOfTheSessionFactory("The Pink Floyd");
+
+        assertThat(cachingSessionFactory.openSession().loadAll(Artist.class, asList(other.getId(), artist.getId())))
+            .extracting(Artist::getName).containsExactly("Genesis", "Pink Floyd");
+    }
+
+    @Test
+    public void loadsInsideTransactionsShouldBypassTheCache() {
+        cachingSessionFactory.openSession().load(Artist.class, artist.getId());
+
+        renameArtistBehindTheBackOfTheSessionFactory("The Pink Floyd");
+
+        Session session = cachingSessionFactory.openSession();
+        session.beginTransaction();
+        assertThat(session.load(Artist.class, artist.getId()).getName()).isEqualTo("The Pink Floyd");
+        session.getTransaction().rollback();
+    }
+
+    private void renameArtistBehindTheBackOfTheSessionFactory(String name) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("id", artist.getId());
+        parameters.put("name", name);
+        getGraphDatabaseService().execute("MATCH (n) WHERE id(n) = $id SET n.name = $name", parameters);
+    }
+}
@@ -21,12 +21,17 @@ package org.neo4j.ogm.session.request.strategy.impl;
 import static org.assertj.core.api.Assertions.*;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 import org.neo4j.ogm.cypher.ComparisonOperator;
 import org.neo4j.ogm.cypher.Filter;
 import org.neo4j.ogm.cypher.Filters;
 import org.neo4j.ogm.cypher.query.CypherQuery;
+import org.neo4j.ogm.domain.locking.User;
+import org.neo4j.ogm.metadata.MetaData;
 import org.neo4j.ogm.session.request.strategy.DeleteStatements;
 
 /**
@@ -48,6 +53,29 @@ public class NodeDeleteStatementsTest {
             .isEqualTo("MATCH (n) WHERE ID(n) in { ids } OPTIONAL MATCH (n)-[r0]-() DELETE r0, n");
     }
 
+    @Test
+    public void testDeleteManyWithVersions() throws Exception {
+        Map<Long, Long> versionsById = new LinkedHashMap<>();
+        versionsById.put(1L, 0L);
+        versionsById.put(2L, 3L);
+        CypherQuery query = statements.delete(versionsById,
+            new MetaData("org.neo4j.ogm.domain.locking").classInfo(User.class.getName()));
+
+        assertThat(query.getStatement()).isEqualTo("UNWIND {rows} AS row MATCH (n) "
+            + "  WHERE ID(n) = row.nodeId AND n.`version` = row.`version` "
+            + "SET  n.`version` = n.`version` + 1 "
+            + "WITH n, row  WHERE n.`version` = row.`version` + 1 "
+            + "OPTIONAL MATCH (n)-[r0]-() DELETE r0, n "
+            + "RETURN DISTINCT ID(n) AS ref, ID(n) AS id, {type} AS type");
+        assertThat((List<Map<String, Object>>) query.getParameters().get("rows"))
+            .extracting(row -> row.get("nodeId"), row -> row.get("version"))
+            .containsExactly(tuple(1L, 0L), tuple(2L, 3L));
+        assertThat(query.optimisticLockingConfig()).hasValueSatisfying(config -> {
+            assertThat(config.getExpectedResultsCount()).isEqualTo(2);
+            assertThat(config.getVersionProperty()).isEqualTo("version");
+        });
+    }
+
     @Test
     public void testDeleteAll() throws Exception {
         assertThat(statements.deleteAll().getStatement())
@@ -60,6 +88,14 @@ public class NodeDeleteStatementsTest {
             .isEqualTo("MATCH (n:`TRAFFIC_WARDENS`) OPTIONAL MATCH (n)-[r0]-() DELETE r0, n");
     }
 
+    @Test
+    public void testDeleteBatchWithLabel() throws Exception {
+        CypherQuery query = statements.deleteBatch("TRAFFIC_WARDENS", 100);
+        assertThat(query.getStatement())
+            .isEqualTo("MATCH (n:`TRAFFIC_WARDENS`) WITH n LIMIT { batchSize } DETACH DELETE n RETURN ID(n) AS id");
+        assertThat(query.getParameters()).containsEntry("batchSize", 100);
+    }
+
     @Test
     public void testDeleteWithLabelAndFilters() throws Exception {
         CypherQuery query = statements
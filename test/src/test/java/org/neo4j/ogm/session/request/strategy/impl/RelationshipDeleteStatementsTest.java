@@ -60,6 +60,14 @@ public class RelationshipDeleteStatementsTest {
             .isEqualTo("MATCH (n)-[r0:`TRAFFIC_WARDEN`]-() DELETE r0");
     }
 
+    @Test
+    public void testDeleteBatchWithType() throws Exception {
+        CypherQuery query = statements.deleteBatch("TRAFFIC_WARDEN", 100);
+        assertThat(query.getStatement())
+            .isEqualTo("MATCH (n)-[r0:`TRAFFIC_WARDEN`]->() WITH r0 LIMIT { batchSize } DELETE r0 RETURN ID(r0) AS id");
+        assertThat(query.getParameters()).containsEntry("batchSize", 100);
+    }
+
     @Test
     public void testDeleteWithTypeAndFilters() throws Exception {
         CypherQuery query = statements